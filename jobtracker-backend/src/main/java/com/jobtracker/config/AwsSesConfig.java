@@ -18,6 +18,16 @@ public class AwsSesConfig {
     @Value("${AWS_SES_FROM_EMAIL:}")
     private String fromEmail;
 
+    // Local stub instead of SES, for load tests
+    @Value("${jobs.mail.stub.enabled:false}")
+    private boolean stubEnabled;
+
+    @Value("${jobs.mail.stub.latencyMs:80}")
+    private long stubLatencyMs;
+
+    @Value("${jobs.mail.stub.maxSendRate:200}")
+    private double stubMaxSendRate;
+
     @PostConstruct
     public void logSesConfiguration() {
         System.out.println("📧 ========== AWS SES CONFIGURATION ==========");
@@ -30,6 +40,11 @@ public class AwsSesConfig {
 
     @Bean
     public SesClient sesClient() {
+        if (stubEnabled) {
+            System.out.println("📧 Using stub SES client (" + stubLatencyMs + "ms, " + stubMaxSendRate + "/s)");
+            return new StubSesClient(stubLatencyMs, stubMaxSendRate);
+        }
+
         Region awsRegion = Region.of(region);
         System.out.println("📧 Creating SES Client for region: " + awsRegion);
         
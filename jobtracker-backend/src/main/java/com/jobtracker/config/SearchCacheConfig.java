@@ -0,0 +1,27 @@
+package com.jobtracker.config;
+
+import com.jobtracker.service.cache.InMemorySearchCacheStore;
+import com.jobtracker.service.cache.MongoSearchCacheStore;
+import com.jobtracker.service.cache.SearchCacheStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+public class SearchCacheConfig {
+
+    // "mongo" (shared across nodes) or "memory" (single node / local testing)
+    @Value("${jobs.searchCache.store:mongo}")
+    private String store;
+
+    @Bean
+    public SearchCacheStore searchCacheStore(MongoTemplate mongoTemplate) {
+        if ("memory".equalsIgnoreCase(store)) {
+            System.out.println("🗄️ Search cache L2: in-memory (single node)");
+            return new InMemorySearchCacheStore();
+        }
+        System.out.println("🗄️ Search cache L2: Mongo TTL collection 'search_cache'");
+        return new MongoSearchCacheStore(mongoTemplate);
+    }
+}
@@ -3,6 +3,7 @@ package com.jobtracker.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
@@ -28,6 +29,9 @@ public class SecurityConfig {
     @Value("${auth0.authentication.audience}")
     private String audience;
 
+    @Value("${jobs.matchBatch.adminAuthority:SCOPE_admin:jobs}")
+    private String batchAdminAuthority;
+
     @Value("${app.cors.allowed-origins}")
     private List<String> allowedOrigins;
 
@@ -68,6 +72,7 @@ public class SecurityConfig {
                 .requestMatchers("/files/**").authenticated()
                 .requestMatchers("/notifications/**").authenticated()
                 .requestMatchers("/feedback/**").authenticated() // Other feedback endpoints require auth
+                .requestMatchers(HttpMethod.POST, "/matches/batch").hasAuthority(batchAdminAuthority) // Admin only
                 .anyRequest().authenticated() // SECURITY FIX: Deny by default instead of permitAll
             )
             .oauth2ResourceServer(oauth2 -> oauth2
@@ -106,7 +111,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag"));
         configuration.setMaxAge(3600L); // Cache preflight requests for 1 hour
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
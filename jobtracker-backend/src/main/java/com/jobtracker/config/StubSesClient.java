@@ -0,0 +1,90 @@
+package com.jobtracker.config;
+
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for SES (jobs.mail.stub=true): accepts everything, sleeps a configurable
+ * latency per call and reports a fixed send rate, so notification dispatch can be load
+ * tested without sending real email or touching the account quota.
+ */
+public class StubSesClient implements SesClient {
+
+    private final long latencyMs;
+    private final double maxSendRate;
+    private final AtomicLong sent = new AtomicLong();
+
+    public StubSesClient(long latencyMs, double maxSendRate) {
+        this.latencyMs = latencyMs;
+        this.maxSendRate = maxSendRate;
+    }
+
+    public long sentCount() {
+        return sent.get();
+    }
+
+    @Override
+    public SendEmailResponse sendEmail(SendEmailRequest request) {
+        simulateLatency();
+        sent.incrementAndGet();
+        return SendEmailResponse.builder().messageId(messageId()).build();
+    }
+
+    @Override
+    public SendBulkTemplatedEmailResponse sendBulkTemplatedEmail(SendBulkTemplatedEmailRequest request) {
+        simulateLatency();
+        List<BulkEmailDestinationStatus> status = new ArrayList<>(request.destinations().size());
+        for (int i = 0; i < request.destinations().size(); i++) {
+            status.add(BulkEmailDestinationStatus.builder()
+                    .status(BulkEmailStatus.SUCCESS)
+                    .messageId(messageId())
+                    .build());
+        }
+        sent.addAndGet(status.size());
+        return SendBulkTemplatedEmailResponse.builder().status(status).build();
+    }
+
+    @Override
+    public GetSendQuotaResponse getSendQuota(GetSendQuotaRequest request) {
+        return GetSendQuotaResponse.builder()
+                .maxSendRate(maxSendRate)
+                .max24HourSend(Double.MAX_VALUE)
+                .sentLast24Hours((double) sent.get())
+                .build();
+    }
+
+    @Override
+    public GetSendQuotaResponse getSendQuota() {
+        return getSendQuota(GetSendQuotaRequest.builder().build());
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) return;
+        try {
+            // +-20% jitter around the configured latency
+            long jitter = latencyMs / 5;
+            Thread.sleep(latencyMs - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String messageId() {
+        return "stub-" + UUID.randomUUID();
+    }
+}
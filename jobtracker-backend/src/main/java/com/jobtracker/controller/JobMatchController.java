@@ -2,10 +2,16 @@ package com.jobtracker.controller;
 
 import com.jobtracker.dto.jobmatch.JobMatchResult;
 import com.jobtracker.model.CandidateProfile;
+import com.jobtracker.model.JobMatchRun;
 import com.jobtracker.service.CandidateProfileService;
+import com.jobtracker.service.JobMatchBatchService;
 import com.jobtracker.service.JobMatchingService;
-import lombok.RequiredArgsConstructor;
+import com.jobtracker.service.jobmatch.MatchScorer;
+import com.jobtracker.service.jobmatch.MatchSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,19 +19,57 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/matches")
-@RequiredArgsConstructor
 public class JobMatchController {
 
     private final CandidateProfileService candidateProfileService;
     private final JobMatchingService jobMatchingService;
+    private final JobMatchBatchService batchService;
+    private final boolean manualBatchTrigger;
+
+    public JobMatchController(CandidateProfileService candidateProfileService,
+                              JobMatchingService jobMatchingService,
+                              JobMatchBatchService batchService,
+                              @Value("${jobs.matchBatch.manualTrigger:false}") boolean manualBatchTrigger) {
+        this.candidateProfileService = candidateProfileService;
+        this.jobMatchingService = jobMatchingService;
+        this.batchService = batchService;
+        this.manualBatchTrigger = manualBatchTrigger;
+    }
 
     @GetMapping("/jobs")
     public ResponseEntity<List<JobMatchResult>> matchJobs(
             @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "f1") String scorer,
+            @RequestParam(defaultValue = "index") String source,
             Authentication auth
     ) {
         String userId = auth.getName();
         CandidateProfile profile = candidateProfileService.getLatest(userId);
-        return ResponseEntity.ok(jobMatchingService.matchTopJobs(profile, limit));
+        return ResponseEntity.ok(jobMatchingService.matchTopJobs(profile, limit,
+                MatchScorer.from(scorer), MatchSource.from(source)));
+    }
+
+    /**
+     * Status and throughput of the current (or last) batch match run
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<JobMatchRun> batchStatus() {
+        JobMatchRun run = batchService.status();
+        return run == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(run);
+    }
+
+    /**
+     * Start a batch match run now (disabled unless jobs.matchBatch.manualTrigger is set;
+     * SecurityConfig restricts it to jobs.matchBatch.adminAuthority)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<String> startBatch() {
+        if (!manualBatchTrigger) {
+            throw new AccessDeniedException("Manual batch match runs are disabled");
+        }
+        if (!batchService.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A batch match run is already in progress");
+        }
+        return ResponseEntity.accepted().body("Batch match run started");
     }
 }
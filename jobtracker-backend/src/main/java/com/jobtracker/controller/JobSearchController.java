@@ -1,14 +1,22 @@
 package com.jobtracker.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.jobtracker.dto.JobListingCard;
 import com.jobtracker.model.JobListing;
 import com.jobtracker.model.JobSearch;
 import com.jobtracker.model.SavedJob;
 import com.jobtracker.util.UserContext;
 import com.jobtracker.repository.SavedJobRepository;
+import com.jobtracker.service.ConditionalGetMetrics;
+import com.jobtracker.service.JobListingCardCache;
 import com.jobtracker.service.JobSearchService;
+import com.jobtracker.util.ETags;
 import com.jobtracker.exception.ResourceNotFoundException;
 import lombok.Data;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +25,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,10 +34,21 @@ public class JobSearchController {
 
     private final JobSearchService jobSearchService;
     private final SavedJobRepository savedJobRepository;
+    private final ConditionalGetMetrics conditionalGetMetrics;
+    private final JobListingCardCache cardCache;
 
-    public JobSearchController(JobSearchService jobSearchService, SavedJobRepository savedJobRepository) {
+    // Listing details rarely change once ingested - let the browser reuse them briefly
+    private static final CacheControl DETAIL_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePrivate();
+
+    // Per-user lists: always revalidate, but a matching ETag costs only a 304
+    private static final CacheControl LIST_CACHE = CacheControl.noCache().cachePrivate();
+
+    public JobSearchController(JobSearchService jobSearchService, SavedJobRepository savedJobRepository,
+                               ConditionalGetMetrics conditionalGetMetrics, JobListingCardCache cardCache) {
         this.jobSearchService = jobSearchService;
         this.savedJobRepository = savedJobRepository;
+        this.conditionalGetMetrics = conditionalGetMetrics;
+        this.cardCache = cardCache;
     }
 
     /**
@@ -53,18 +73,31 @@ public class JobSearchController {
             @RequestParam(required = false) String jobType,
             @RequestParam(required = false) Double minSalary,
             @RequestParam(required = false) Double maxSalary,
-            @RequestParam(required = false) List<String> skills) {
+            @RequestParam(required = false) List<String> skills,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String userId = UserContext.getUserId();
-        
-        Optional<Page<JobListing>> cachedResults = jobSearchService.getCachedSearch(
+
+        // Conditional GET: the cache-entry version identifies the page content
+        Optional<String> versionTag = jobSearchService.getCachedSearchTag(userId, query, location);
+        if (versionTag.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        String etag = ETags.strong(versionTag.get() + "-p" + page + "-s" + size);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            conditionalGetMetrics.notModified("jobs.cache");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LIST_CACHE).build();
+        }
+        conditionalGetMetrics.fullResponse("jobs.cache");
+
+        Optional<Page<JobListingCard>> cachedResults = jobSearchService.getCachedSearch(
             userId, page, size, query, location);
         
         if (cachedResults.isPresent()) {
-            Page<JobListing> jobs = cachedResults.get();
+            Page<JobListingCard> jobs = cachedResults.get();
             
             // FIXED: Remove duplicates based on externalId
-            List<JobListing> uniqueJobs = removeDuplicates(jobs.getContent());
-            List<JobListing> validJobs = validateJobsExist(uniqueJobs);
+            List<JobListingCard> uniqueJobs = removeDuplicates(jobs.getContent());
+            List<JobListingCard> validJobs = jobSearchService.filterExisting(uniqueJobs);
 
             int actualTotal = validJobs.size();
             int actualPages = (int) Math.ceil((double) actualTotal / size);
@@ -73,23 +106,22 @@ public class JobSearchController {
             System.out.println("📄 Page " + page + ": Returning " + validJobs.size() + " jobs (Total: " + actualTotal + ")");
             
             PaginatedJobResponse response = new PaginatedJobResponse(
-                validJobs,
+                toJson(validJobs),
                 actualTotal,
                 actualPages,
                 page,
                 size,
                     "cache"
             );
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE).body(response);
         }
         
         return ResponseEntity.noContent().build();
     }
 
-    private List<JobListing> validateJobsExist(List<JobListing> jobs) {
-        return jobs.stream()
-            .filter(job -> jobSearchService.getJobById(job.getId()).isPresent())
-            .collect(Collectors.toList());
+    // Cards are embedded as pre-serialized JSON, cached per listing version
+    private List<RawValue> toJson(List<JobListingCard> cards) {
+        return cards.stream().map(cardCache::json).collect(Collectors.toList());
     }
 
     /**
@@ -109,19 +141,19 @@ public class JobSearchController {
         String userId = UserContext.getUserId();
         
         // Get ALL matching jobs (sorted by recent first)
-        Page<JobListing> jobs = jobSearchService.searchJobs(
+        Page<JobListingCard> jobs = jobSearchService.searchJobs(
                 query, location, jobType, minSalary, maxSalary, skills, 
                 page, size, userId);
 
         // ✅ FIX: Calculate pagination BEFORE deduplication
         long totalJobsFromDB = jobs.getTotalElements();
-        List<JobListing> allJobsFromPage = jobs.getContent();
+        List<JobListingCard> allJobsFromPage = jobs.getContent();
         
         System.out.println("📊 Total jobs from DB: " + totalJobsFromDB);
         System.out.println("📊 Jobs in current page: " + allJobsFromPage.size());
         
         // Remove duplicates from current page only
-        List<JobListing> uniquePageJobs = removeDuplicates(allJobsFromPage);
+        List<JobListingCard> uniquePageJobs = removeDuplicates(allJobsFromPage);
         
         // ✅ Calculate total pages based on DB count (not deduplicated count)
         int totalPages = (int) Math.ceil((double) totalJobsFromDB / size);
@@ -130,7 +162,7 @@ public class JobSearchController {
         System.out.println("📊 Total pages: " + totalPages);
         
         PaginatedJobResponse response = new PaginatedJobResponse(
-                uniquePageJobs,     // Deduplicated jobs for THIS page
+                toJson(uniquePageJobs), // Deduplicated jobs for THIS page
                 totalJobsFromDB,    // Total count from DB (before dedup)
                 totalPages,         // Correct page count
                 page,
@@ -156,10 +188,19 @@ public class JobSearchController {
      * Get job details by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<JobListing> getJob(@PathVariable String id) {
-        return jobSearchService.getJobById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<JobListing> getJob(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        JobListing job = jobSearchService.getJobById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
+
+        String etag = ETags.forListing(job);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            conditionalGetMetrics.notModified("jobs.detail");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(DETAIL_CACHE).build();
+        }
+        conditionalGetMetrics.fullResponse("jobs.detail");
+        return ResponseEntity.ok().eTag(etag).cacheControl(DETAIL_CACHE).body(job);
     }
 
     /**
@@ -191,10 +232,19 @@ public class JobSearchController {
      * Get user's saved jobs
      */
     @GetMapping("/saved")
-    public ResponseEntity<List<SavedJob>> getSavedJobs() {
+    public ResponseEntity<List<SavedJob>> getSavedJobs(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         String userId = UserContext.getUserId();
-        return ResponseEntity.ok(jobSearchService.getSavedJobs(userId));
+        List<SavedJob> saved = jobSearchService.getSavedJobs(userId);
+
+        String etag = ETags.forSavedJobs(saved);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            conditionalGetMetrics.notModified("jobs.saved");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LIST_CACHE).build();
+        }
+        conditionalGetMetrics.fullResponse("jobs.saved");
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE).body(saved);
     }
 
     /**
@@ -220,14 +270,14 @@ public class JobSearchController {
     }
 
     // FIXED: Helper method to remove duplicate jobs
-    private List<JobListing> removeDuplicates(List<JobListing> jobs) {
-        Map<String, JobListing> uniqueMap = new LinkedHashMap<>();
+    private List<JobListingCard> removeDuplicates(List<JobListingCard> jobs) {
+        Map<String, JobListingCard> uniqueMap = new LinkedHashMap<>();
 
-        for (JobListing job : jobs) {
+        for (JobListingCard job : jobs) {
             String key = job.getExternalId() != null ? job.getExternalId() : job.getId();
             
             if (uniqueMap.containsKey(key)) {
-                JobListing existingJob = uniqueMap.get(key);
+                JobListingCard existingJob = uniqueMap.get(key);
                 if (isMoreComplete(job, existingJob)) {
                     uniqueMap.put(key, job);
                 }
@@ -240,13 +290,13 @@ public class JobSearchController {
     }
 
     // ✅ Helper: Score job completeness
-    private boolean isMoreComplete(JobListing job1, JobListing job2) {
+    private boolean isMoreComplete(JobListingCard job1, JobListingCard job2) {
         return calculateCompletenessScore(job1) > calculateCompletenessScore(job2);
     }
 
-    private int calculateCompletenessScore(JobListing job) {
+    private int calculateCompletenessScore(JobListingCard job) {
         int score = 0;
-        if (job.getDescription() != null && !job.getDescription().isEmpty()) score += 3;
+        if (job.getSnippet() != null && !job.getSnippet().isEmpty()) score += 3;
         if (job.getSalary() != null || job.getSalaryRange() != null) score += 2;
         if (job.getSkills() != null && !job.getSkills().isEmpty()) score += 2;
         if (job.getApplyUrl() != null && !job.getApplyUrl().isEmpty()) score += 1;
@@ -267,7 +317,7 @@ public class JobSearchController {
 
     @Data
     static class PaginatedJobResponse {
-        private final List<JobListing> content;
+        private final List<RawValue> content;   // serialized JobListingCard objects
         private final long totalElements;
         private final int totalPages;
         private final int page;
@@ -9,18 +9,31 @@ import com.jobtracker.repository.NotificationPreferenceRepository;
 import com.jobtracker.repository.NotificationRepository;
 import com.jobtracker.repository.UserRepository;
 import com.jobtracker.service.ApplicationService;
+import com.jobtracker.service.ConditionalGetMetrics;
 import com.jobtracker.service.NotificationService;
+import com.jobtracker.service.UserSettingsCache;
+import com.jobtracker.service.notification.NotificationEvent;
+import com.jobtracker.service.notification.NotificationEventHub;
+import com.jobtracker.service.notification.UnreadCounters;
+import com.jobtracker.util.ETags;
 import com.jobtracker.exception.ResourceNotFoundException;
 import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.MediaType;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.time.Duration;
@@ -35,17 +48,35 @@ public class NotificationController {
     private final NotificationPreferenceRepository prefRepo;
     private final ApplicationService applicationService;
     private final UserRepository userRepository;
+    private final UserSettingsCache userSettings;
+    private final NotificationEventHub eventHub;
+    private final Duration heartbeat;
+    private final UnreadCounters unreadCounters;
+    private final ConditionalGetMetrics conditionalGetMetrics;
+
+    // Per-user and changes often: always revalidate, but a matching ETag costs only a 304
+    private static final CacheControl COUNT_CACHE = CacheControl.noCache().cachePrivate();
 
     public NotificationController(NotificationService service, 
                                 NotificationRepository repository,
                                 ApplicationService applicationService,
                                 NotificationPreferenceRepository prefRepo,
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                UserSettingsCache userSettings,
+                                NotificationEventHub eventHub,
+                                UnreadCounters unreadCounters,
+                                ConditionalGetMetrics conditionalGetMetrics,
+                                @Value("${jobs.notifications.stream.heartbeatSeconds:25}") long heartbeatSeconds) {
         this.service = service;
         this.repository = repository;
         this.applicationService = applicationService;
         this.prefRepo = prefRepo;
         this.userRepository = userRepository;
+        this.userSettings = userSettings;
+        this.eventHub = eventHub;
+        this.heartbeat = Duration.ofSeconds(Math.max(heartbeatSeconds, 1));
+        this.unreadCounters = unreadCounters;
+        this.conditionalGetMetrics = conditionalGetMetrics;
     }
 
     // ================ USER NOTIFICATION MANAGEMENT ================
@@ -81,6 +112,25 @@ public class NotificationController {
         return ResponseEntity.ok(dueNotifications);
     }
 
+    /**
+     * Unread badge count: one counter lookup, with a conditional GET so polling clients get
+     * a 304 until the count changes
+     */
+    @GetMapping("/unread/count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String userId = UserContext.getUserId();
+        long count = unreadCounters.get(userId);
+
+        String etag = ETags.strong("unread-" + count);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            conditionalGetMetrics.notModified("notifications.unread.count");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(COUNT_CACHE).build();
+        }
+        conditionalGetMetrics.fullResponse("notifications.unread.count");
+        return ResponseEntity.ok().eTag(etag).cacheControl(COUNT_CACHE).body(Map.of("count", count));
+    }
+
     /**
      * Mark notification as read
      */
@@ -95,8 +145,7 @@ public class NotificationController {
             return ResponseEntity.status(403).build();
         }
         
-        n.setRead(true);
-        return ResponseEntity.ok(repository.save(n));
+        return ResponseEntity.ok(service.markRead(n));
     }
 
     /**
@@ -113,7 +162,7 @@ public class NotificationController {
             return ResponseEntity.status(403).build();
         }
         
-        repository.deleteById(id);
+        service.delete(n);
         return ResponseEntity.noContent().build();
     }
 
@@ -219,7 +268,7 @@ public class NotificationController {
         n.setRead(false);
         n.setSent(false);
         
-        Notification saved = repository.save(n);
+        Notification saved = service.createScheduled(n);
         
         System.out.println("✅ Custom notification created - will notify at: " + saved.getNotifyAt());
         
@@ -238,13 +287,23 @@ public class NotificationController {
 
     @PutMapping("/preferences")
     public ResponseEntity<NotificationPreference> updatePreferences(
-            @RequestBody Map<String, Boolean> req) {
+            @RequestBody Map<String, Object> req) {
         String userId = UserContext.getUserId();
         NotificationPreference pref = prefRepo.findByUserId(userId)
             .orElseGet(() -> new NotificationPreference());
         pref.setUserId(userId);
-        pref.setEmailEnabled(req.getOrDefault("emailEnabled", true));
+        pref.setEmailEnabled(!Boolean.FALSE.equals(req.getOrDefault("emailEnabled", true)));
         pref.setInAppEnabled(true);
+        if (req.containsKey("matchAlertsEnabled")) {
+            pref.setMatchAlertsEnabled(!Boolean.FALSE.equals(req.get("matchAlertsEnabled")));
+        }
+        if (req.containsKey("matchAlertThreshold")) {
+            Object t = req.get("matchAlertThreshold");
+            if (t != null && !(t instanceof Number n && n.doubleValue() >= 0 && n.doubleValue() <= 1)) {
+                throw new IllegalArgumentException("matchAlertThreshold must be a number between 0 and 1");
+            }
+            pref.setMatchAlertThreshold(t == null ? null : ((Number) t).doubleValue());
+        }
         pref.setUpdatedAt(Instant.now());  // ✅ Changed from LocalDateTime.now()
         prefRepo.save(pref);
         return ResponseEntity.ok(pref);
@@ -254,41 +313,73 @@ public class NotificationController {
     // ================ REAL-TIME NOTIFICATIONS ================
 
     /**
-     * SSE endpoint for live notification updates - FIXED: Filter by preferences
+     * SSE endpoint for live notification updates, as deltas: "created", "updated", "read" and
+     * "deleted" events, each with its own increasing event ID. A new connection, or one whose
+     * Last-Event-ID can't be replayed, first gets a "snapshot" of the due unread list. Created
+     * and updated notifications are sent once due. Idle connections get heartbeat comments and
+     * make no queries.
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<List<Notification>>> streamNotifications() {
+    public Flux<ServerSentEvent<Object>> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         
         String userId = UserContext.getUserId();
         
-        return Flux.interval(Duration.ofSeconds(10)) // check every 10 sec
-                .map(seq -> {
-                    // Check user preferences
-                    User user = userRepository.findById(userId).orElse(null);
-                    NotificationPreference pref = prefRepo.findByUserId(userId).orElse(null);
-                    
-                    if (user == null || !pref.isInAppEnabled()) {
-                        return ServerSentEvent.<List<Notification>>builder()
-                                .id(String.valueOf(seq))
-                                .event("notification-update")
-                                .data(List.of())
+        return Flux.defer(() -> {
+            NotificationEventHub.Feed feed = eventHub.subscribe(userId, lastEventId);
+
+            Flux<ServerSentEvent<Object>> snapshot = !feed.resync() ? Flux.empty() : Mono.fromCallable(() -> {
+                        List<Notification> due = inAppEnabled(userId)
+                                ? dueFirst(repository.findByUserIdAndReadFalse(userId))
+                                : List.of();
+                        return ServerSentEvent.<Object>builder()
+                                .id(feed.headId())
+                                .event("snapshot")
+                                .data(due)
                                 .build();
-                    }
-                    
-                    // FIXED: Only return notifications that are due
-                    Instant now = Instant.now();
-                    List<Notification> unread = repository.findByUserIdAndReadFalse(userId);
-                    
-                    List<Notification> dueNotifications = unread.stream()
-                            .filter(n -> n.getNotifyAt().isBefore(now) || n.getNotifyAt().equals(now))
-                            .toList();
-                    
-                    return ServerSentEvent.<List<Notification>>builder()
-                            .id(String.valueOf(seq))
-                            .event("notification-update")
-                            .data(dueNotifications)
-                            .build();
-                });
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flux();
+
+            Flux<ServerSentEvent<Object>> deltas = feed.deltas().handle((delta, sink) -> {
+                NotificationEvent e = delta.event();
+                if (!inAppEnabled(userId)) return;
+                // Not shown before it's due; the dispatcher's update when it fires brings it in
+                if ((e.kind() == NotificationEvent.Kind.CREATED || e.kind() == NotificationEvent.Kind.UPDATED)
+                        && e.notification().getNotifyAt() != null
+                        && e.notification().getNotifyAt().isAfter(Instant.now())) {
+                    return;
+                }
+                sink.next(ServerSentEvent.<Object>builder()
+                        .id(delta.id())
+                        .event(e.kind().name().toLowerCase())
+                        .data(e.kind() == NotificationEvent.Kind.DELETED
+                                ? Map.of("id", e.notificationId())
+                                : e.notification())
+                        .build());
+            });
+
+            Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeat, heartbeat)
+                    .map(tick -> ServerSentEvent.<Object>builder().comment("heartbeat").build());
+
+            return Flux.merge(Flux.concat(snapshot, deltas), heartbeats)
+                    .doFinally(signal -> feed.close().run());
+        });
+    }
+
+    // Preferences and user come from the settings cache (evicted when they change)
+    private boolean inAppEnabled(String userId) {
+        UserSettingsCache.UserSettings settings = userSettings.get(userId);
+        return settings.user() != null && settings.preference().isInAppEnabled();
+    }
+
+    // Only notifications that should be displayed now, newest first
+    private static List<Notification> dueFirst(List<Notification> unread) {
+        Instant now = Instant.now();
+        return unread.stream()
+                .filter(n -> n.getNotifyAt() != null && !n.getNotifyAt().isAfter(now))
+                .sorted(Comparator.comparing(Notification::getNotifyAt).reversed())
+                .toList();
     }
 
     // ================ DTOs ================
@@ -0,0 +1,79 @@
+// Lightweight listing projection for list endpoints (no full description)
+package com.jobtracker.dto;
+
+import com.jobtracker.model.JobListing;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class JobListingCard {
+    private static final int SNIPPET_CHARS = 240;
+
+    private String id;
+    private String externalId;
+    private String title;
+    private String company;
+    private String location;
+    private boolean remote;
+    private String jobType;
+    private String experienceLevel;
+    private Double salary;
+    private String salaryRange;
+    private List<String> skills;
+    private String applyUrl;
+    private String source;
+    private Instant postedDate;
+    private String snippet;
+
+    /**
+     * Build a card from a (possibly projected) listing.
+     * Falls back to cutting the snippet from the description for documents stored before snippets existed.
+     */
+    public static JobListingCard from(JobListing j) {
+        JobListingCard c = new JobListingCard();
+        c.setId(j.getId());
+        c.setExternalId(j.getExternalId());
+        c.setTitle(j.getTitle());
+        c.setCompany(j.getCompany());
+        c.setLocation(j.getLocation());
+        c.setRemote(j.isRemote());
+        c.setJobType(j.getJobType());
+        c.setExperienceLevel(j.getExperienceLevel());
+        c.setSalary(j.getSalary());
+        c.setSalaryRange(j.getSalaryRange());
+        c.setSkills(j.getSkills());
+        c.setApplyUrl(j.getApplyUrl());
+        c.setSource(j.getSource());
+        c.setPostedDate(j.getPostedDate());
+        c.setSnippet(j.getSnippet() != null ? j.getSnippet() : snippetOf(j.getDescription()));
+        return c;
+    }
+
+    /**
+     * First ~240 characters of the description, whitespace collapsed, cut on a word boundary
+     */
+    public static String snippetOf(String description) {
+        if (description == null || description.isBlank()) return null;
+
+        StringBuilder sb = new StringBuilder(Math.min(description.length(), SNIPPET_CHARS + 1));
+        boolean space = false;
+        for (int i = 0; i < description.length() && sb.length() <= SNIPPET_CHARS; i++) {
+            char ch = description.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) sb.append(' ');
+                sb.append(ch);
+                space = false;
+            }
+        }
+
+        if (sb.length() <= SNIPPET_CHARS) return sb.toString();
+
+        int cut = sb.lastIndexOf(" ", SNIPPET_CHARS);
+        if (cut < SNIPPET_CHARS / 2) cut = SNIPPET_CHARS;
+        return sb.substring(0, cut) + "…";
+    }
+}
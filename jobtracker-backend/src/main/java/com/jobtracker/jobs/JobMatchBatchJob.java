@@ -0,0 +1,43 @@
+package com.jobtracker.jobs;
+
+import com.jobtracker.service.JobMatchBatchService;
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly batch match run (precomputed /matches/jobs results). The cron only marks a run
+ * due; it starts once the match index is loaded, so a run due right after a restart waits
+ * for the index instead of being skipped. A run interrupted by a crash is resumed by the
+ * next attempt, on any node, once its lease is stale.
+ */
+@Component
+public class JobMatchBatchJob {
+
+    private final JobMatchBatchService batchService;
+    private final JobMatchIndex matchIndex;
+    private final boolean enabled;
+    private volatile boolean due;
+
+    public JobMatchBatchJob(JobMatchBatchService batchService,
+                            JobMatchIndex matchIndex,
+                            @Value("${jobs.matchBatch.enabled:true}") boolean enabled) {
+        this.batchService = batchService;
+        this.matchIndex = matchIndex;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(cron = "${jobs.matchBatch.cron:0 30 2 * * *}")
+    public void markDue() {
+        if (enabled) due = true;
+    }
+
+    @Scheduled(initialDelay = 5000, fixedDelay = 5000)
+    public void runBatch() {
+        if (!due || !matchIndex.isReady()) return;
+        due = false;
+        // Runs on the service's own thread; the scheduler thread is free right away
+        batchService.start();
+    }
+}
@@ -0,0 +1,47 @@
+package com.jobtracker.jobs;
+
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the in-memory match index after startup (as soon as the term backfill is done)
+ * and reloads it periodically so listings written by other nodes become matchable.
+ */
+@Component
+public class JobMatchIndexJob {
+
+    private final JobMatchIndex matchIndex;
+    private final JobTermBackfillJob backfill;
+    private final boolean enabled;
+    private final long rebuildNanos;
+    private long lastRebuild;
+
+    public JobMatchIndexJob(JobMatchIndex matchIndex,
+                            JobTermBackfillJob backfill,
+                            @Value("${jobs.matchIndex.enabled:true}") boolean enabled,
+                            @Value("${jobs.matchIndex.rebuildMs:900000}") long rebuildMs) {
+        this.matchIndex = matchIndex;
+        this.backfill = backfill;
+        this.enabled = enabled;
+        this.rebuildNanos = Math.max(rebuildMs, 1000) * 1_000_000;
+    }
+
+    // Polls often so the first load starts right after the backfill; reloads every rebuildMs
+    @Scheduled(initialDelay = 5000, fixedDelay = 5000)
+    public void rebuildIndex() {
+        if (!enabled || !backfill.isDone()) return;
+        if (matchIndex.isReady() && System.nanoTime() - lastRebuild < rebuildNanos) return;
+        try {
+            long start = System.currentTimeMillis();
+            matchIndex.rebuild();
+            System.out.println("🗂️ Match index rebuilt: " + matchIndex.liveCount() + " listings in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println("❌ Match index rebuild failed: " + e.getMessage());
+        } finally {
+            lastRebuild = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jobtracker.jobs;
+
+import com.jobtracker.model.JobListing;
+import com.jobtracker.service.jobmatch.JobTermExtractor;
+import com.jobtracker.service.jobmatch.SkillExtractor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-time (per startup) backfill of precomputed match terms (and extracted skills) for listings saved
+ * before terms existed, or with an older JobTermExtractor.TERMS_VERSION. The match and vector index jobs
+ * wait for it (isDone) before their first load, so they never index listings without terms.
+ */
+@Component
+public class JobTermBackfillJob {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final SkillExtractor skillExtractor;
+    private volatile boolean done;
+
+    public JobTermBackfillJob(MongoTemplate mongoTemplate, SkillExtractor skillExtractor) {
+        this.mongoTemplate = mongoTemplate;
+        this.skillExtractor = skillExtractor;
+    }
+
+    /**
+     * Whether this startup's backfill has finished (or given up after an error)
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    @Scheduled(fixedDelay = Long.MAX_VALUE, initialDelay = 10000)
+    public void backfillTerms() {
+        try {
+            int updated = 0;
+            List<JobListing> batch;
+            do {
+                Query q = Query.query(Criteria.where("isActive").is(true)
+                                .and("termsVersion").ne(JobTermExtractor.TERMS_VERSION))
+                        .with(Sort.by("_id"))
+                        .limit(BATCH_SIZE);
+                batch = mongoTemplate.find(q, JobListing.class);
+                if (batch.isEmpty()) break;
+
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobListing.class);
+                for (JobListing j : batch) {
+                    if (j.getDescription() != null) skillExtractor.applyTo(j);
+                    JobTermExtractor.apply(j);
+                    bulk.updateOne(
+                            Query.query(Criteria.where("_id").is(j.getId())),
+                            new Update()
+                                    .set("skills", j.getSkills())
+                                    .set("primaryTerms", j.getPrimaryTerms())
+                                    .set("allTerms", j.getAllTerms())
+                                    .set("skillTerms", j.getSkillTerms())
+                                    .set("termsVersion", j.getTermsVersion()));
+                }
+                bulk.execute();
+                updated += batch.size();
+            } while (batch.size() == BATCH_SIZE);
+
+            if (updated > 0) {
+                System.out.println("🧮 Backfilled match terms for " + updated + " job listings");
+            }
+        } catch (Exception e) {
+            // The indexes still load; listings left without terms are picked up by the next startup
+            System.err.println("❌ Match term backfill failed: " + e.getMessage());
+        } finally {
+            done = true;
+        }
+    }
+}
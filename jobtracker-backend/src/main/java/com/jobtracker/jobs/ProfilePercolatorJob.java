@@ -0,0 +1,51 @@
+package com.jobtracker.jobs;
+
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import com.jobtracker.service.jobmatch.ProfilePercolator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the reverse-match profile index once the match index is up and reloads it
+ * periodically, so profiles built on other nodes receive match alerts too. It also
+ * reloads whenever the match index has been rebuilt onto a fresh term dictionary.
+ */
+@Component
+public class ProfilePercolatorJob {
+
+    private final ProfilePercolator percolator;
+    private final JobMatchIndex matchIndex;
+    private final boolean enabled;
+    private final long reloadNanos;
+    private long lastRebuild;
+
+    public ProfilePercolatorJob(ProfilePercolator percolator,
+                                JobMatchIndex matchIndex,
+                                @Value("${jobs.matchAlerts.enabled:true}") boolean enabled,
+                                @Value("${jobs.matchAlerts.profileReloadMs:3600000}") long profileReloadMs) {
+        this.percolator = percolator;
+        this.matchIndex = matchIndex;
+        this.enabled = enabled;
+        this.reloadNanos = Math.max(profileReloadMs, 1000) * 1_000_000;
+    }
+
+    // Polls often so a new index dictionary is picked up right away; reloads every profileReloadMs
+    @Scheduled(initialDelay = 5000, fixedDelay = 5000)
+    public void rebuildProfiles() {
+        if (!enabled || !matchIndex.isReady()) return;
+        var dictionary = matchIndex.dictionary();
+        if (percolator.isReady() && percolator.dictionary() == dictionary
+                && System.nanoTime() - lastRebuild < reloadNanos) return;
+        try {
+            long start = System.currentTimeMillis();
+            percolator.rebuild(dictionary);
+            System.out.println("👥 Percolator profiles loaded: " + percolator.profileCount() + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println("❌ Percolator profile load failed: " + e.getMessage());
+        } finally {
+            lastRebuild = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jobtracker.jobs;
+
+import com.jobtracker.service.jobmatch.VectorMatchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps the last vector index snapshot on the first run (so vector matching is available
+ * straight after a restart), then rebuilds the index from Mongo once the term backfill is
+ * done, and periodically after that.
+ */
+@Component
+public class VectorIndexJob {
+
+    private final VectorMatchIndex vectorIndex;
+    private final JobTermBackfillJob backfill;
+    private final boolean enabled;
+    private final long rebuildNanos;
+    private boolean snapshotTried;
+    private boolean built;
+    private long lastRebuild;
+
+    public VectorIndexJob(VectorMatchIndex vectorIndex,
+                          JobTermBackfillJob backfill,
+                          @Value("${jobs.vectorIndex.enabled:true}") boolean enabled,
+                          @Value("${jobs.vectorIndex.rebuildMs:3600000}") long rebuildMs) {
+        this.vectorIndex = vectorIndex;
+        this.backfill = backfill;
+        this.enabled = enabled;
+        this.rebuildNanos = Math.max(rebuildMs, 1000) * 1_000_000;
+    }
+
+    // Polls often so the first build starts right after the backfill; rebuilds every rebuildMs
+    @Scheduled(initialDelay = 5000, fixedDelay = 5000)
+    public void rebuildIndex() {
+        if (!enabled) return;
+        if (!snapshotTried) {
+            snapshotTried = true;
+            if (!vectorIndex.isReady() && vectorIndex.loadSnapshot()) {
+                System.out.println("🧭 Vector index loaded from snapshot: " + vectorIndex.liveCount() + " listings");
+            }
+        }
+        if (!backfill.isDone()) return;
+        if (built && System.nanoTime() - lastRebuild < rebuildNanos) return;
+        try {
+            long start = System.currentTimeMillis();
+            vectorIndex.rebuild();
+            System.out.println("🧭 Vector index rebuilt: " + vectorIndex.liveCount() + " listings in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println("❌ Vector index rebuild failed: " + e.getMessage());
+        } finally {
+            built = true;
+            lastRebuild = System.nanoTime();
+        }
+    }
+}
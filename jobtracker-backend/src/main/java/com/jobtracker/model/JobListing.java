@@ -1,6 +1,7 @@
 // Job Listing Model (for external job data)
 package com.jobtracker.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
@@ -29,6 +30,7 @@ public class JobListing {
 
     private boolean remote;
     private String description;
+    private String snippet; // short plain-text preview, set at save time (see JobListingIngestListener)
     private String jobType;
     private String experienceLevel;
     private Double salary;
@@ -43,4 +45,15 @@ public class JobListing {
     
     @Indexed
     private boolean isActive = true;
+
+    // Normalized match terms, precomputed at save time (see JobTermExtractor).
+    // Server-side only: allTerms is as large as the description, so none of them go over the wire.
+    @JsonIgnore
+    private List<String> primaryTerms;  // title/company/location/type/level/skills tokens
+    @JsonIgnore
+    private List<String> allTerms;      // primaryTerms + description tokens
+    @JsonIgnore
+    private List<String> skillTerms;    // one normalized term per skill
+    @JsonIgnore
+    private int termsVersion;
 }
\ No newline at end of file
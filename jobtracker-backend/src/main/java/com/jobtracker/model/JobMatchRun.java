@@ -0,0 +1,35 @@
+// Checkpoint and lease of the batch match run (a single document, _id "batch")
+package com.jobtracker.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "job_match_runs")
+public class JobMatchRun {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    private String id;
+
+    private String runId;
+    private Status status;
+
+    // Node holding the run; a RUNNING run whose heartbeat went stale is taken over and resumed
+    private String owner;
+    private Instant heartbeatAt;
+
+    // Profiles are processed in userId order; everything up to lastUserId is written
+    private String lastUserId;
+    private long profilesProcessed;
+
+    private int corpusListings;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long elapsedMs;
+    private double profilesPerSecond;
+    private String error;
+}
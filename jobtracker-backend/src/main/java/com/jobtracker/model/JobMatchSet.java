@@ -0,0 +1,30 @@
+// Precomputed top-K matches for one user, written by the batch match run
+package com.jobtracker.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Document(collection = "job_matches")
+public class JobMatchSet {
+    @Id
+    private String userId;
+
+    // The profile these were computed for; a rebuilt profile makes the set stale
+    private String profileId;
+    private Instant profileVersion;
+
+    // Ranked best-first; listings are hydrated on read
+    private List<String> jobIds;
+    private List<Double> scores;
+
+    // True when every matching listing fit (fewer than topK), so any limit is covered
+    private boolean complete;
+
+    private String runId;
+    private Instant computedAt;
+}
@@ -2,6 +2,7 @@ package com.jobtracker.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -9,6 +10,7 @@ import java.time.Instant;
 
 @Data
 @Document(collection = "notifications")
+@CompoundIndex(name = "due_unsent", def = "{'sent': 1, 'notifyAt': 1}")
 public class Notification {
 
     @Id
@@ -17,6 +19,9 @@ public class Notification {
     @Indexed
     private String userId;           // owner of the notification
     private String applicationId;    // optional link to application
+    private String jobListingId;     // JOB_MATCH: the matched listing
+    @Indexed
+    private String matchKey;         // JOB_MATCH: listing dedupe key, so re-fetched listings don't alert twice
     private String message;          // "Follow up on Google interview"
 
     private Instant eventDate;
@@ -25,6 +30,11 @@ public class Notification {
     private Instant notifyAt;  // when to trigger
     private boolean sent = false;    // mark after delivery
 
+    // Dispatch lease: the worker holding the claim, and when the claim lapses if it never finishes
+    @Indexed(sparse = true)
+    private String claimedBy;
+    private Instant leaseUntil;
+
     private Instant createdAt;
 
     @Indexed
@@ -38,6 +48,7 @@ public class Notification {
         INTERVIEW,
         DEADLINE,
         CUSTOM,
-        STATUS_CHANGE
+        STATUS_CHANGE,
+        JOB_MATCH
     }
 }
@@ -0,0 +1,21 @@
+// Per-user unread badge count - one small document per user, maintained with $inc
+package com.jobtracker.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+    @Id
+    private String userId;
+
+    // Delivered (sent) notifications the user hasn't read or deleted
+    private long unread;
+
+    // Last time the count was recomputed from the notifications themselves
+    private Instant reconciledAt;
+}
@@ -17,6 +17,8 @@ public class NotificationPreference {
 
     private boolean emailEnabled = true;   // user-controlled
     private boolean inAppEnabled = true;   // enforced by backend
+    private boolean matchAlertsEnabled = true;  // new-listing match alerts (JOB_MATCH)
+    private Double matchAlertThreshold;         // min match score 0..1; null = server default
     private Instant updatedAt = Instant.now();
 
     // ✅ No-args constructor (required by Spring Data)
@@ -67,6 +69,22 @@ public class NotificationPreference {
         this.inAppEnabled = inAppEnabled;
     }
 
+    public boolean isMatchAlertsEnabled() {
+        return matchAlertsEnabled;
+    }
+
+    public void setMatchAlertsEnabled(boolean matchAlertsEnabled) {
+        this.matchAlertsEnabled = matchAlertsEnabled;
+    }
+
+    public Double getMatchAlertThreshold() {
+        return matchAlertThreshold;
+    }
+
+    public void setMatchAlertThreshold(Double matchAlertThreshold) {
+        this.matchAlertThreshold = matchAlertThreshold;
+    }
+
     public Instant getUpdatedAt() {
         return updatedAt;
     }
@@ -0,0 +1,35 @@
+// Shared (L2) search cache entry - one document per user, visible to every node
+package com.jobtracker.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Document(collection = "search_cache")
+public class SharedSearchCache {
+    @Id
+    private String userId;
+
+    private String query;
+    private String location;
+
+    // Only the ordered result IDs are stored; listings are hydrated on read
+    private List<String> jobIds;
+
+    // Bumped on every fill so nodes can tell whether their L1 copy is stale
+    private long version;
+    private Instant cachedAt;
+
+    // TTL index - Mongo removes the document once this instant has passed
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+
+    // Single-flight fill lease (which node is currently re-running this search)
+    private String fillOwner;
+    private Instant fillLeaseUntil;
+}
@@ -7,7 +7,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface JobListingRepository extends MongoRepository<JobListing, String> {
@@ -22,4 +24,35 @@ public interface JobListingRepository extends MongoRepository<JobListing, String
     Page<JobListing> findByIsActiveTrueAndTitleRegex(String string, Pageable pageable);
     Page<JobListing> findByIsActiveTrueAndTitleRegexAndLocationRegex(String string, String string2, Pageable pageable);
     long countByIsActiveTrue();
+
+    // Card projections - everything except the full description (list views only show the snippet)
+    // and the match terms (allTerms alone is as large as the description)
+    String CARD_FIELDS = "{ 'description': 0, 'allTerms': 0, 'primaryTerms': 0, 'skillTerms': 0 }";
+
+    @Query(value = "{ 'isActive': true }", fields = CARD_FIELDS)
+    Page<JobListing> findCardsByIsActiveTrue(Pageable pageable);
+
+    @Query(value = "{ 'isActive': true, 'title': { $regex: ?0 } }", fields = CARD_FIELDS)
+    Page<JobListing> findCardsByTitleRegex(String titlePattern, Pageable pageable);
+
+    @Query(value = "{ 'isActive': true, 'title': { $regex: ?0 }, 'location': { $regex: ?1 } }", fields = CARD_FIELDS)
+    Page<JobListing> findCardsByTitleRegexAndLocationRegex(String titlePattern, String locationPattern, Pageable pageable);
+
+    @Query(value = "{ 'isActive': true, 'location': { $regex: ?0 } }", fields = CARD_FIELDS)
+    Page<JobListing> findCardsByLocationRegex(String locationPattern, Pageable pageable);
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = CARD_FIELDS)
+    List<JobListing> findCardsByIdIn(Collection<String> ids);
+
+    // Match pool - scoring uses the precomputed term lists (allTerms included), never the description text
+    @Query(value = "{ 'isActive': true }", fields = "{ 'description': 0 }")
+    List<JobListing> findMatchPoolByIsActiveTrue(Pageable pageable);
+
+    // Match index hits, hydrated for explanations
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'description': 0 }")
+    List<JobListing> findMatchPoolByIdIn(Collection<String> ids);
+
+    // Existence check without loading documents
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ '_id': 1 }")
+    List<JobListing> findIdsByIdIn(Collection<String> ids);
 }
\ No newline at end of file
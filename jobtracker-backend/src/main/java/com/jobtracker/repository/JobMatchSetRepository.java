@@ -0,0 +1,9 @@
+package com.jobtracker.repository;
+
+import com.jobtracker.model.JobMatchSet;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobMatchSetRepository extends MongoRepository<JobMatchSet, String> {
+}
@@ -1,5 +1,7 @@
 package com.jobtracker.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -13,5 +15,7 @@ public interface NotificationPreferenceRepository extends MongoRepository<Notifi
     
     Optional<NotificationPreference> findByUserId(String userId);
 
+    List<NotificationPreference> findByUserIdIn(Collection<String> userIds);
+
     NotificationPreference save(NotificationPreference pref);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +24,13 @@ public interface NotificationRepository extends MongoRepository<Notification, St
     List<Notification> findByUserIdAndReadFalseOrderByNotifyAtDesc(String userId);
     
     List<Notification> findByUserIdAndReadFalse(String userId);
+
+    // Delete scoped to the owner; the owner in the query lets live streams route the delete
+    long deleteByIdAndUserId(String id, String userId);
     
+    // Match alerts already raised for these listings (any user)
+    List<Notification> findByTypeAndMatchKeyIn(NotificationType type, Collection<String> matchKeys);
+
     // Find notifications that should be sent now
     List<Notification> findBySentFalseAndNotifyAtBefore(Instant nowUTC);
     
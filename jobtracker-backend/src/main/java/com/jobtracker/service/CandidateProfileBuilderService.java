@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jobtracker.dto.resume.ResumeStructuredData;
 import com.jobtracker.model.CandidateProfile;
 import com.jobtracker.model.ParsedResume;
+import com.jobtracker.service.jobmatch.SkillExtractor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +18,7 @@ import java.util.*;
 public class CandidateProfileBuilderService {
 
     private final ResumeNormalizationService normalizationService;
+    private final SkillExtractor skillExtractor;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public CandidateProfile build(String userId, String resumeFileId, ParsedResume parsed, ResumeStructuredData data) {
@@ -50,14 +52,14 @@ public class CandidateProfileBuilderService {
         }
         p.setTitles(normalizationService.normalizeList(titlesRaw, 30));
 
-        // Skills flattened
+        // Skills flattened, synonyms folded onto the same dictionary names listings use
         List<String> allSkills = normalizationService.mergeLists(
                 data != null && data.getSkills() != null ? data.getSkills().getPrimary() : null,
                 data != null && data.getSkills() != null ? data.getSkills().getSecondary() : null,
                 data != null && data.getSkills() != null ? data.getSkills().getTools() : null,
                 data != null && data.getSkills() != null ? data.getSkills().getLanguages() : null
         );
-        p.setSkills(normalizationService.normalizeList(allSkills, 120));
+        p.setSkills(normalizationService.normalizeList(skillExtractor.canonicalize(allSkills), 120));
 
         // Technologies from experience/projects
         List<String> techRaw = new ArrayList<>();
@@ -71,7 +73,7 @@ public class CandidateProfileBuilderService {
                 if (pr != null && pr.getTechnologies() != null) techRaw.addAll(pr.getTechnologies());
             }
         }
-        p.setTechnologies(normalizationService.normalizeList(techRaw, 120));
+        p.setTechnologies(normalizationService.normalizeList(skillExtractor.canonicalize(techRaw), 120));
 
         // Total experience months (best-effort)
         p.setTotalExperienceMonths(estimateExperienceMonths(data));
@@ -7,6 +7,8 @@ import com.jobtracker.model.CandidateProfile;
 import com.jobtracker.model.ParsedResume;
 import com.jobtracker.repository.CandidateProfileRepository;
 import com.jobtracker.repository.ParsedResumeRepository;
+import com.jobtracker.service.jobmatch.ProfilePercolator;
+import com.jobtracker.service.jobmatch.VectorMatchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +19,9 @@ public class CandidateProfileService {
     private final ParsedResumeRepository parsedResumeRepository;
     private final CandidateProfileRepository candidateProfileRepository;
     private final CandidateProfileBuilderService builder;
+    private final ResumeRuleExtractionService ruleExtractionService;
+    private final ProfilePercolator profilePercolator;
+    private final VectorMatchIndex vectorIndex;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public CandidateProfile buildFromLatestParsedV2(String userId, String fileId) {
@@ -31,8 +36,17 @@ public class CandidateProfileService {
             throw new IllegalStateException("Stored parsedJson is not valid ResumeStructuredData: " + e.getMessage(), e);
         }
 
+        // Older v2 records (LLM disabled, or failed) carry no skills: rebuild from the raw text
+        if (!hasSkills(data) && latestV2.getRawText() != null && !latestV2.getRawText().isBlank()) {
+            data = ruleExtractionService.extract(latestV2.getRawText());
+        }
+
         CandidateProfile profile = builder.build(userId, fileId, latestV2, data);
-        return candidateProfileRepository.save(profile);
+        CandidateProfile saved = candidateProfileRepository.save(profile);
+        // New listings are percolated against the rebuilt profile from now on
+        profilePercolator.upsert(saved);
+        vectorIndex.upsertProfile(saved);
+        return saved;
     }
 
     public CandidateProfile getLatest(String userId) {
@@ -40,4 +54,13 @@ public class CandidateProfileService {
                 .findTopByUserIdOrderByGeneratedAtDesc(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("No candidate profile found"));
     }
+
+    private static boolean hasSkills(ResumeStructuredData data) {
+        if (data == null || data.getSkills() == null) return false;
+        ResumeStructuredData.Skills s = data.getSkills();
+        return (s.getPrimary() != null && !s.getPrimary().isEmpty())
+                || (s.getSecondary() != null && !s.getSecondary().isEmpty())
+                || (s.getTools() != null && !s.getTools().isEmpty())
+                || (s.getLanguages() != null && !s.getLanguages().isEmpty());
+    }
 }
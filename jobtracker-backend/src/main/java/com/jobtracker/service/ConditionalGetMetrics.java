@@ -0,0 +1,26 @@
+package com.jobtracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks how often conditional GETs are answered with 304 instead of a full body.
+ * Hit rate per endpoint = result=not_modified / (not_modified + full).
+ */
+@Service
+public class ConditionalGetMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConditionalGetMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void notModified(String endpoint) {
+        meterRegistry.counter("http.conditional.get", "endpoint", endpoint, "result", "not_modified").increment();
+    }
+
+    public void fullResponse(String endpoint) {
+        meterRegistry.counter("http.conditional.get", "endpoint", endpoint, "result", "full").increment();
+    }
+}
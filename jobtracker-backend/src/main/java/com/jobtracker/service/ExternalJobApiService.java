@@ -25,17 +25,20 @@ public class ExternalJobApiService {
 
     private final WebClient webClient;
     private final JobListingRepository jobListingRepository;
+    private final JobMatchAlertService matchAlertService;
     private final ObjectMapper objectMapper;
 
     @Value("${jobs.rapidapiKey:}")
     private String rapidApiKey;
 
     public ExternalJobApiService(WebClient.Builder webClientBuilder, 
-                               JobListingRepository jobListingRepository) {
+                               JobListingRepository jobListingRepository,
+                               JobMatchAlertService matchAlertService) {
         this.webClient = webClientBuilder
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024 * 10))
                 .build();
         this.jobListingRepository = jobListingRepository;
+        this.matchAlertService = matchAlertService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -191,8 +194,9 @@ public class ExternalJobApiService {
                 if (responseBody != null) {
                     List<JobListing> jobs = parseJSearchResponse(responseBody);
                     if (!jobs.isEmpty()) {
-                        jobListingRepository.saveAll(jobs);
+                        List<JobListing> saved = jobListingRepository.saveAll(jobs);
                         System.out.println("✅ Saved " + jobs.size() + " jobs from JSearch");
+                        matchAlertService.onNewListings(saved);   // queued: the search never waits for alerting
                     } else {
                         System.out.println("❌ No jobs found from JSearch");
                     }
@@ -0,0 +1,82 @@
+package com.jobtracker.service;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.jobtracker.dto.JobListingCard;
+import com.jobtracker.service.cache.BoundedCache;
+import com.jobtracker.util.ETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-serialized JSON for listing cards, keyed by listing ID and content version.
+ * List responses embed the cached UTF-8 bytes directly instead of re-serializing
+ * the same cards on every page request.
+ */
+@Service
+public class JobListingCardCache {
+
+    private static final int MAX_ENTRIES = 20_000;
+
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<String, CachedCard> cards = new BoundedCache<>(MAX_ENTRIES);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer serializeTimer;
+    private final DistributionSummary cardBytes;
+
+    public JobListingCardCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.hits = meterRegistry.counter("jobs.card.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jobs.card.cache", "result", "miss");
+        this.serializeTimer = Timer.builder("jobs.card.serialize")
+                .description("Time to serialize one listing card to JSON")
+                .register(meterRegistry);
+        this.cardBytes = DistributionSummary.builder("jobs.card.payload")
+                .baseUnit("bytes")
+                .description("Serialized size of one listing card")
+                .register(meterRegistry);
+    }
+
+    /**
+     * JSON for a card, serialized at most once per listing version
+     */
+    public RawValue json(JobListingCard card) {
+        long version = ETags.cardHash(card);
+        CachedCard cached = cards.get(card.getId());
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return cached.json;
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        SerializedString json;
+        try {
+            json = new SerializedString(objectMapper.writeValueAsString(card));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize job card " + card.getId() + ": " + e.getMessage(), e);
+        }
+        // Encode once here; Jackson's UTF-8 generator copies these bytes as-is
+        int bytes = json.asUnquotedUTF8().length;
+        serializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        cardBytes.record(bytes);
+
+        RawValue raw = new RawValue(json);
+        cards.put(card.getId(), new CachedCard(version, raw));
+        return raw;
+    }
+
+    public void evict(String listingId) {
+        cards.remove(listingId);
+    }
+
+    private record CachedCard(long version, RawValue json) {}
+}
@@ -0,0 +1,86 @@
+package com.jobtracker.service;
+
+import com.jobtracker.dto.JobListingCard;
+import com.jobtracker.model.JobListing;
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import com.jobtracker.service.jobmatch.JobTermExtractor;
+import com.jobtracker.service.jobmatch.JobTermSetCache;
+import com.jobtracker.service.jobmatch.SkillExtractor;
+import com.jobtracker.service.jobmatch.VectorMatchIndex;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Derives read-optimized fields on every JobListing save, whichever code path saves it
+ * (JSearch ingest, seed data, geocoding).
+ * Projected reads (cards, match pool) have no description and must never be saved back.
+ */
+@Component
+public class JobListingIngestListener extends AbstractMongoEventListener<JobListing> {
+
+    private final JobTermSetCache termSetCache;
+    private final JobMatchIndex matchIndex;
+    private final VectorMatchIndex vectorIndex;
+    private final SkillExtractor skillExtractor;
+
+    public JobListingIngestListener(JobTermSetCache termSetCache, JobMatchIndex matchIndex,
+                                    VectorMatchIndex vectorIndex, SkillExtractor skillExtractor) {
+        this.termSetCache = termSetCache;
+        this.matchIndex = matchIndex;
+        this.vectorIndex = vectorIndex;
+        this.skillExtractor = skillExtractor;
+    }
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<JobListing> event) {
+        JobListing job = event.getSource();
+        if (job.getDescription() != null) {
+            job.setSnippet(JobListingCard.snippetOf(job.getDescription()));
+            // Sources rarely send skills; derive them from the text (before terms, which include skills)
+            skillExtractor.applyTo(job);
+        }
+        JobTermExtractor.apply(job);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<JobListing> event) {
+        // Terms may have changed without a new fetchedAt (e.g. skills edited on re-save)
+        termSetCache.evict(event.getSource().getId());
+        // Only full documents reach save (projections are never saved back), so the terms are current
+        matchIndex.upsert(event.getSource());
+        vectorIndex.upsert(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<JobListing> event) {
+        // The event carries the delete's query, not the documents: {_id: x} for delete(entity)
+        // and deleteById, {_id: {$in: [...]}} for deleteAll(entities) and deleteAllById
+        Object id = event.getSource().get("_id");
+        if (id instanceof Document filter) {
+            Object in = filter.get("$in");
+            if (in instanceof Collection<?> ids && filter.size() == 1) {
+                ids.forEach(i -> evict(i.toString()));
+                return;
+            }
+        } else if (id != null) {
+            evict(id.toString());
+            return;
+        }
+        // Any other filter (deleteAll(), criteria deletes) names no IDs; the deleted listings drop
+        // out of the match indexes at their next rebuild, and hydration already skips missing IDs
+        System.err.println("⚠️ JobListing delete by " + event.getSource().toJson()
+                + " - derived caches keep the deleted listings until the next index rebuild");
+    }
+
+    private void evict(String listingId) {
+        termSetCache.evict(listingId);
+        matchIndex.remove(listingId);
+        vectorIndex.remove(listingId);
+    }
+}
@@ -0,0 +1,166 @@
+package com.jobtracker.service;
+
+import com.jobtracker.model.JobListing;
+import com.jobtracker.model.Notification;
+import com.jobtracker.model.NotificationPreference;
+import com.jobtracker.repository.NotificationRepository;
+import com.jobtracker.service.jobmatch.JobTermExtractor;
+import com.jobtracker.service.jobmatch.ProfilePercolator;
+import com.jobtracker.service.notification.NotificationWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push alerts for new listings: each ingested batch is percolated against every
+ * user's latest profile, and good matches become JOB_MATCH notifications, in bulk.
+ *
+ * Batches are handed to a single alerting thread with a bounded queue (jobs.matchAlerts.queue),
+ * so the search that fetched the listings never waits for alerting. When the queue is full
+ * the batch is dropped and counted; those listings just don't raise alerts.
+ */
+@Service
+public class JobMatchAlertService {
+
+    private final ProfilePercolator percolator;
+    private final NotificationRepository notificationRepository;
+    private final UserSettingsCache userSettings;
+    private final NotificationWheel wheel;
+
+    private final boolean enabled;
+    private final double defaultThreshold;
+    private final double minThreshold;
+    private final int maxPerUserPerBatch;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer percolateTimer;
+    private final Counter alertsCreated;
+    private final Counter batchesDropped;
+
+    public JobMatchAlertService(ProfilePercolator percolator,
+                                NotificationRepository notificationRepository,
+                                UserSettingsCache userSettings,
+                                NotificationWheel wheel,
+                                @Value("${jobs.matchAlerts.enabled:true}") boolean enabled,
+                                @Value("${jobs.matchAlerts.defaultThreshold:0.35}") double defaultThreshold,
+                                @Value("${jobs.matchAlerts.minThreshold:0.2}") double minThreshold,
+                                @Value("${jobs.matchAlerts.maxPerUserPerBatch:3}") int maxPerUserPerBatch,
+                                @Value("${jobs.matchAlerts.queue:64}") int queueSize,
+                                MeterRegistry meterRegistry) {
+        this.percolator = percolator;
+        this.notificationRepository = notificationRepository;
+        this.userSettings = userSettings;
+        this.wheel = wheel;
+        this.enabled = enabled;
+        this.defaultThreshold = defaultThreshold;
+        this.minThreshold = minThreshold;
+        this.maxPerUserPerBatch = maxPerUserPerBatch;
+        this.percolateTimer = Timer.builder("jobs.match.percolate")
+                .description("Time to percolate one ingested batch against all profiles")
+                .register(meterRegistry);
+        this.alertsCreated = meterRegistry.counter("jobs.match.alerts");
+        this.batchesDropped = meterRegistry.counter("jobs.match.alerts.dropped");
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueSize, 1)), r -> {
+                    Thread t = new Thread(r, "match-alerts");
+                    t.setDaemon(true);
+                    return t;
+                }, (r, pool) -> batchesDropped.increment());
+        meterRegistry.gauge("jobs.match.alerts.queued", Tags.empty(), executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Called with each batch of freshly saved listings; queues it for alerting and returns
+     */
+    public void onNewListings(List<JobListing> saved) {
+        if (!enabled || saved.isEmpty() || !percolator.isReady()) return;
+        List<JobListing> listings = List.copyOf(saved);
+        executor.execute(() -> alert(listings));
+    }
+
+    private void alert(List<JobListing> saved) {
+        try {
+            // Lowest threshold anyone can set; per-user thresholds are applied below
+            List<ProfilePercolator.Match> matches = percolateTimer.record(
+                    () -> percolator.percolate(saved, minThreshold));
+            if (matches.isEmpty()) return;
+
+            Set<String> userIds = new HashSet<>();
+            Set<String> keys = new HashSet<>();
+            for (ProfilePercolator.Match m : matches) {
+                userIds.add(m.userId());
+                keys.add(JobTermExtractor.dedupeKey(m.listing()));
+            }
+
+            Map<String, UserSettingsCache.UserSettings> settings = userSettings.getAll(userIds);
+
+            // Same listing re-fetched under a new ID: don't alert the same user again
+            Set<String> alreadyAlerted = new HashSet<>();
+            for (Notification n : notificationRepository.findByTypeAndMatchKeyIn(
+                    Notification.NotificationType.JOB_MATCH, keys)) {
+                alreadyAlerted.add(n.getUserId() + "|" + n.getMatchKey());
+            }
+
+            // Best matches first, so the per-user cap keeps the strongest ones
+            matches.sort(Comparator.comparingDouble(ProfilePercolator.Match::score).reversed());
+
+            Instant now = Instant.now();
+            Map<String, Integer> perUser = new HashMap<>();
+            List<Notification> batch = new ArrayList<>();
+            for (ProfilePercolator.Match m : matches) {
+                NotificationPreference pref = settings.get(m.userId()).preference();
+                if (!pref.isMatchAlertsEnabled() || !pref.isInAppEnabled()) continue;
+
+                double threshold = pref.getMatchAlertThreshold() != null
+                        ? Math.max(pref.getMatchAlertThreshold(), minThreshold)
+                        : defaultThreshold;
+                if (m.score() < threshold) continue;
+
+                String key = JobTermExtractor.dedupeKey(m.listing());
+                if (!alreadyAlerted.add(m.userId() + "|" + key)) continue;
+                if (perUser.merge(m.userId(), 1, Integer::sum) > maxPerUserPerBatch) continue;
+
+                JobListing j = m.listing();
+                Notification n = new Notification();
+                n.setUserId(m.userId());
+                n.setJobListingId(j.getId());
+                n.setMatchKey(key);
+                n.setType(Notification.NotificationType.JOB_MATCH);
+                n.setMessage("New match (" + Math.round(m.score() * 100) + "%): " + j.getTitle()
+                        + (j.getCompany() != null ? " at " + j.getCompany() : ""));
+                n.setEventDate(now);
+                n.setNotifyAt(now);
+                n.setSent(false);
+                n.setRead(false);
+                n.setCreatedAt(now);
+                batch.add(n);
+            }
+
+            if (!batch.isEmpty()) {
+                notificationRepository.saveAll(batch);
+                for (Notification n : batch) wheel.schedule(n.getId(), n.getNotifyAt()); // due now: next tick
+                alertsCreated.increment(batch.size());
+                System.out.println("🎯 Created " + batch.size() + " match alerts for " + perUser.size()
+                        + " users from " + saved.size() + " new listings");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Match alert percolation failed: " + e.getMessage());
+        }
+    }
+}
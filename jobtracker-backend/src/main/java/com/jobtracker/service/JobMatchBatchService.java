@@ -0,0 +1,288 @@
+package com.jobtracker.service;
+
+import com.jobtracker.model.CandidateProfile;
+import com.jobtracker.model.JobMatchRun;
+import com.jobtracker.model.JobMatchSet;
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import com.jobtracker.service.jobmatch.JobTermExtractor;
+import com.jobtracker.service.jobmatch.MatchScorer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Batch matching: every user's latest CandidateProfile against the whole active corpus,
+ * written to job_matches for /matches/jobs to serve.
+ *
+ * The corpus is the already-loaded JobMatchIndex (loaded once, shared by all workers);
+ * profiles are streamed from Mongo in userId order, scored a page at a time on a
+ * dedicated pool, and each page is bulk-upserted before the checkpoint moves past it.
+ * The checkpoint doubles as a lease: one node runs at a time, and a run whose owner
+ * stopped heartbeating is taken over and resumed after its last written user.
+ */
+@Service
+public class JobMatchBatchService {
+
+    private static final String RUN_ID = "batch";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobMatchIndex matchIndex;
+    private final ForkJoinPool pool;
+    // Runs are started here, off the scheduler and request threads; one at a time per node
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "match-batch");
+        t.setDaemon(true);
+        return t;
+    });
+    private final int topK;
+    private final int pageSize;
+    private final Duration staleAfter;
+    private final String nodeId = "node-" + UUID.randomUUID();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter profilesCounter;
+    private final DistributionSummary throughput;
+
+    public JobMatchBatchService(MongoTemplate mongoTemplate,
+                                JobMatchIndex matchIndex,
+                                @Value("${jobs.matchBatch.topK:100}") int topK,
+                                @Value("${jobs.matchBatch.pageSize:256}") int pageSize,
+                                @Value("${jobs.matchBatch.parallelism:0}") int parallelism,
+                                @Value("${jobs.matchBatch.staleAfterMinutes:10}") long staleAfterMinutes,
+                                MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.matchIndex = matchIndex;
+        this.topK = Math.max(topK, 1);
+        this.pageSize = Math.max(pageSize, 1);
+        this.staleAfter = Duration.ofMinutes(Math.max(staleAfterMinutes, 1));
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.profilesCounter = meterRegistry.counter("jobs.match.batch.profiles");
+        this.throughput = DistributionSummary.builder("jobs.match.batch.throughput")
+                .description("Profiles matched per second, per batch run")
+                .baseUnit("profiles/s")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdown();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Current or last run (null before the first one)
+     */
+    public JobMatchRun status() {
+        return mongoTemplate.findById(RUN_ID, JobMatchRun.class);
+    }
+
+    /**
+     * Start run() in the background; false when a run is already in progress on this node
+     */
+    public boolean start() {
+        if (running.get()) return false;
+        runner.execute(() -> {
+            try {
+                run().ifPresent(run -> System.out.println("📦 Batch match run " + run.getRunId() + ": "
+                        + run.getProfilesProcessed() + " profiles against " + run.getCorpusListings()
+                        + " listings in " + run.getElapsedMs() + "ms (" + run.getProfilesPerSecond() + " profiles/s)"));
+            } catch (Exception e) {
+                System.err.println("❌ Batch match run failed: " + e.getMessage());
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Run (or resume) a batch; returns the finished run, or empty when the match index
+     * isn't loaded yet or another node holds the run
+     */
+    public Optional<JobMatchRun> run() {
+        if (!matchIndex.isReady() || !running.compareAndSet(false, true)) return Optional.empty();
+        try {
+            JobMatchRun run = claim();
+            if (run == null) return Optional.empty();
+            return Optional.of(execute(run));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Resume the run if its owner went silent, else start a fresh one unless a run is live.
+    // Each step is a single findAndModify, so no two nodes can both resume or both start.
+    private JobMatchRun claim() {
+        Instant now = Instant.now();
+        JobMatchRun stale = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(RUN_ID)
+                        .and("status").is(JobMatchRun.Status.RUNNING)
+                        .and("heartbeatAt").lt(now.minus(staleAfter))),
+                new Update().set("owner", nodeId).set("heartbeatAt", now),
+                FindAndModifyOptions.options().returnNew(true), JobMatchRun.class);
+        if (stale != null) {
+            System.out.println("🔁 Resuming batch match run " + stale.getRunId()
+                    + " after " + stale.getProfilesProcessed() + " profiles");
+            return stale;
+        }
+
+        Update fresh = new Update()
+                .set("runId", UUID.randomUUID().toString())
+                .set("status", JobMatchRun.Status.RUNNING)
+                .set("owner", nodeId)
+                .set("heartbeatAt", now)
+                .set("startedAt", now)
+                .set("profilesProcessed", 0L)
+                .unset("lastUserId")
+                .unset("finishedAt")
+                .unset("elapsedMs")
+                .unset("profilesPerSecond")
+                .unset("corpusListings")
+                .unset("error");
+        try {
+            return mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(RUN_ID).and("status").ne(JobMatchRun.Status.RUNNING)),
+                    fresh, FindAndModifyOptions.options().upsert(true).returnNew(true), JobMatchRun.class);
+        } catch (DuplicateKeyException e) {
+            return null; // another node's run is live
+        }
+    }
+
+    private JobMatchRun execute(JobMatchRun run) {
+        long start = System.nanoTime();
+        long processedBefore = run.getProfilesProcessed();
+        run.setCorpusListings(matchIndex.liveCount());
+
+        try (Stream<CandidateProfile> profiles = latestProfiles(run.getLastUserId())) {
+            List<CandidateProfile> page = new ArrayList<>(pageSize);
+            Iterator<CandidateProfile> it = profiles.iterator();
+            while (it.hasNext()) {
+                page.add(it.next());
+                if (page.size() == pageSize || !it.hasNext()) {
+                    if (!writePage(run, page)) {
+                        System.err.println("⚠️ Batch match run " + run.getRunId() + " was taken over, stopping");
+                        return run;
+                    }
+                    page = new ArrayList<>(pageSize);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Left RUNNING: the next attempt (here or on another node) resumes from the checkpoint
+            run.setError(e.getMessage());
+            mongoTemplate.updateFirst(ownedRun(), new Update().set("error", e.getMessage()), JobMatchRun.class);
+            throw e;
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long processedNow = run.getProfilesProcessed() - processedBefore;
+        double rate = elapsedMs > 0 ? processedNow * 1000.0 / elapsedMs : processedNow;
+        throughput.record(rate);
+
+        run.setStatus(JobMatchRun.Status.COMPLETED);
+        run.setFinishedAt(Instant.now());
+        run.setElapsedMs(elapsedMs);
+        run.setProfilesPerSecond(Math.round(rate * 10.0) / 10.0);
+        mongoTemplate.updateFirst(ownedRun(), new Update()
+                .set("status", run.getStatus())
+                .set("finishedAt", run.getFinishedAt())
+                .set("elapsedMs", elapsedMs)
+                .set("profilesPerSecond", run.getProfilesPerSecond())
+                .set("corpusListings", run.getCorpusListings())
+                .unset("error"), JobMatchRun.class);
+        return run;
+    }
+
+    // Score one page in parallel, bulk-upsert it, then advance the checkpoint
+    private boolean writePage(JobMatchRun run, List<CandidateProfile> page) {
+        Instant computedAt = Instant.now();
+        List<JobMatchSet> sets = pool.submit(() -> page.parallelStream()
+                .map(p -> compute(p, run.getRunId(), computedAt))
+                .toList()).join();
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobMatchSet.class);
+        for (JobMatchSet s : sets) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(s.getUserId())), new Update()
+                    .set("profileId", s.getProfileId())
+                    .set("profileVersion", s.getProfileVersion())
+                    .set("jobIds", s.getJobIds())
+                    .set("scores", s.getScores())
+                    .set("complete", s.isComplete())
+                    .set("runId", s.getRunId())
+                    .set("computedAt", s.getComputedAt()));
+        }
+        bulk.execute();
+        profilesCounter.increment(sets.size());
+
+        String lastUserId = page.get(page.size() - 1).getUserId();
+        run.setLastUserId(lastUserId);
+        run.setProfilesProcessed(run.getProfilesProcessed() + sets.size());
+        run.setHeartbeatAt(Instant.now());
+        return mongoTemplate.updateFirst(ownedRun(), new Update()
+                .set("lastUserId", lastUserId)
+                .set("profilesProcessed", run.getProfilesProcessed())
+                .set("heartbeatAt", run.getHeartbeatAt()), JobMatchRun.class).getMatchedCount() > 0;
+    }
+
+    private JobMatchSet compute(CandidateProfile profile, String runId, Instant computedAt) {
+        Set<String> candidate = JobTermExtractor.candidateTerms(profile);
+        List<JobMatchIndex.Hit> hits = matchIndex.topK(candidate, topK, MatchScorer.F1).hits();
+
+        JobMatchSet s = new JobMatchSet();
+        s.setUserId(profile.getUserId());
+        s.setProfileId(profile.getId());
+        s.setProfileVersion(profile.getGeneratedAt());
+        s.setJobIds(hits.stream().map(JobMatchIndex.Hit::listingId).toList());
+        s.setScores(hits.stream().map(JobMatchIndex.Hit::score).toList());
+        s.setComplete(hits.size() < topK);
+        s.setRunId(runId);
+        s.setComputedAt(computedAt);
+        return s;
+    }
+
+    private Query ownedRun() {
+        return Query.query(Criteria.where("_id").is(RUN_ID).and("owner").is(nodeId));
+    }
+
+    // Latest profile per user, in userId order, starting after the checkpoint
+    private Stream<CandidateProfile> latestProfiles(String afterUserId) {
+        List<AggregationOperation> ops = new ArrayList<>();
+        ops.add(Aggregation.match(afterUserId == null
+                ? Criteria.where("userId").ne(null)
+                : Criteria.where("userId").gt(afterUserId)));
+        ops.add(Aggregation.project("userId", "generatedAt", "skills", "technologies", "titles", "summary"));
+        ops.add(Aggregation.sort(Sort.by(Sort.Order.asc("userId"), Sort.Order.desc("generatedAt"))));
+        ops.add(Aggregation.group("userId").first("$$ROOT").as("profile"));
+        ops.add(Aggregation.replaceRoot("profile"));
+        ops.add(Aggregation.sort(Sort.Direction.ASC, "userId"));
+
+        Aggregation agg = Aggregation.newAggregation(ops)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregateStream(agg, "candidate_profiles", CandidateProfile.class);
+    }
+}
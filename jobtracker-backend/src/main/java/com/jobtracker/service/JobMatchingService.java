@@ -1,232 +1,302 @@
 package com.jobtracker.service;
 
 import com.jobtracker.dto.jobmatch.JobMatchResult;
+import com.jobtracker.jobs.JobTermBackfillJob;
 import com.jobtracker.model.CandidateProfile;
 import com.jobtracker.model.JobListing;
+import com.jobtracker.model.JobMatchSet;
 import com.jobtracker.repository.JobListingRepository;
-import lombok.RequiredArgsConstructor;
-
+import com.jobtracker.repository.JobMatchSetRepository;
+import com.jobtracker.service.jobmatch.Bm25;
+import com.jobtracker.service.jobmatch.EncodedTerms;
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import com.jobtracker.service.jobmatch.JobTermExtractor;
+import com.jobtracker.service.jobmatch.JobTermSetCache;
+import com.jobtracker.service.jobmatch.MatchResultCache;
+import com.jobtracker.service.jobmatch.MatchScorer;
+import com.jobtracker.service.jobmatch.MatchSource;
+import com.jobtracker.service.jobmatch.MatchScores;
+import com.jobtracker.service.jobmatch.ParallelMatchScorer;
+import com.jobtracker.service.jobmatch.SkillExtractor;
+import com.jobtracker.service.jobmatch.TermDictionary;
+import com.jobtracker.service.jobmatch.TermSets;
+import com.jobtracker.service.jobmatch.TopK;
+import com.jobtracker.service.jobmatch.VectorMatchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class JobMatchingService {
 
     private final JobListingRepository jobListingRepository;
-
-    private static final Set<String> STOPWORDS = Set.of(
-        "a","an","and","or","the","to","of","in","on","for","with","as","at","by","from",
-        "is","are","was","were","be","been","being",
-        "this","that","these","those",
-        "we","our","you","your","they","their","them",
-        "will","can","may","must","should","could","would",
-
-        // generic resume/job filler (job-agnostic)
-        "across","communication","skilled","experienced","experience",
-        "strong","excellent","good","great",
-        "team","member","work","working",
-        "role","responsibilities","requirements","required",
-        "skills","skill","years","year",
-        "technical","technologies","technology",
-        "user","customers","customer",
-        "variety","functional","cross","two",
-
-        // common verbs that add noise
-        "using","used","use","develop","developed","design","designed",
-        "implement","implemented","provide","provided","support","supporting"
-    );
-
-
+    private final JobTermSetCache termSetCache;
+    private final JobMatchIndex matchIndex;
+    private final ParallelMatchScorer parallelScorer;
+    private final MatchResultCache resultCache;
+    private final VectorMatchIndex vectorIndex;
+    private final JobMatchSetRepository matchSetRepository;
+    private final JobTermBackfillJob backfill;
+    private final SkillExtractor skillExtractor;
+    private final Duration precomputedMaxAge;
+    private final Timer scoringTimer;
+    private final Counter precomputedServed;
+
+    public JobMatchingService(JobListingRepository jobListingRepository,
+                              JobTermSetCache termSetCache,
+                              JobMatchIndex matchIndex,
+                              ParallelMatchScorer parallelScorer,
+                              MatchResultCache resultCache,
+                              VectorMatchIndex vectorIndex,
+                              JobMatchSetRepository matchSetRepository,
+                              JobTermBackfillJob backfill,
+                              SkillExtractor skillExtractor,
+                              @Value("${jobs.matchBatch.serveMaxAgeMinutes:1440}") long precomputedMaxAgeMinutes,
+                              MeterRegistry meterRegistry) {
+        this.jobListingRepository = jobListingRepository;
+        this.termSetCache = termSetCache;
+        this.matchIndex = matchIndex;
+        this.parallelScorer = parallelScorer;
+        this.resultCache = resultCache;
+        this.vectorIndex = vectorIndex;
+        this.matchSetRepository = matchSetRepository;
+        this.backfill = backfill;
+        this.skillExtractor = skillExtractor;
+        this.precomputedMaxAge = Duration.ofMinutes(precomputedMaxAgeMinutes);
+        this.scoringTimer = Timer.builder("jobs.match.scoring")
+                .description("Time to score the whole match pool for one request")
+                .register(meterRegistry);
+        this.precomputedServed = meterRegistry.counter("jobs.match.precomputed.served");
+    }
 
 
     public List<JobMatchResult> matchTopJobs(CandidateProfile profile, int limit) {
-        int pool = Math.min(Math.max(limit * 30, 200), 2000);
-        Pageable p = PageRequest.of(0, pool, Sort.by(Sort.Direction.DESC, "postedDate"));
-
-        List<JobListing> jobs = jobListingRepository.findByIsActiveTrue(p);
-
-        // Dedupe (externalId preferred, fallback to title+company+location)
-        Map<String, JobListing> unique = new LinkedHashMap<>();
-        for (JobListing j : jobs) {
-            String key = (j.getExternalId() != null && !j.getExternalId().isBlank())
-                    ? "ext:" + j.getExternalId()
-                    : "tcl:" + norm(j.getTitle()) + "|" + norm(j.getCompany()) + "|" + norm(j.getLocation());
-            unique.putIfAbsent(key, j);
-        }
-
-        return unique.values().stream()
-                .map(j -> score(profile, j))
-                .sorted(Comparator.comparingDouble(JobMatchResult::getScore).reversed())
-                .limit(limit)
-                .toList();
+        return matchTopJobs(profile, limit, MatchScorer.F1);
     }
 
+    public List<JobMatchResult> matchTopJobs(CandidateProfile profile, int limit, MatchScorer scorer) {
+        return matchTopJobs(profile, limit, scorer, MatchSource.INDEX);
+    }
 
-    private JobMatchResult score(CandidateProfile p, JobListing j) {
-        // Candidate terms
-        Set<String> candidate = new HashSet<>();
-        candidate.addAll(toSet(p.getSkills(), p.getTechnologies(), p.getTitles()));
-        addTokens(candidate, p.getSummary());
-
-        // Job primary terms (high signal)
-        Set<String> jobPrimary = new HashSet<>();
-        addTokens(jobPrimary, j.getTitle());
-        addTokens(jobPrimary, j.getCompany());
-        addTokens(jobPrimary, j.getLocation());
-        addTokens(jobPrimary, j.getJobType());
-        addTokens(jobPrimary, j.getExperienceLevel());
-        if (j.getSkills() != null) j.getSkills().forEach(s -> addTokens(jobPrimary, s));
-
-        // Job full terms (includes description)
-        Set<String> jobAll = new HashSet<>(jobPrimary);
-        addTokens(jobAll, j.getDescription());
-
-        // Matched keywords based on full set (for display)
-        Set<String> matched = new HashSet<>(candidate);
-        matched.retainAll(jobAll);
-
-        // Skill-specific match (only if job.skills exists)
-        List<String> jobSkills = j.getSkills() == null ? List.of() : j.getSkills();
-        Set<String> jobSkillsSet = jobSkills.stream()
-                .map(this::norm)
-                .filter(s -> !s.isBlank())
-                .collect(Collectors.toSet());
-
-        List<String> matchedSkills = jobSkillsSet.stream().filter(candidate::contains).sorted().toList();
-        List<String> missingSkills = jobSkillsSet.stream().filter(s -> !candidate.contains(s)).sorted().toList();
-
-        // F1(primary)
-        double f1Primary = f1(candidate, jobPrimary);
-
-        // F1(all)
-        double f1All = f1(candidate, jobAll);
+    public List<JobMatchResult> matchTopJobs(CandidateProfile profile, int limit,
+                                             MatchScorer scorer, MatchSource source) {
+        // Candidate terms are the same for every job - build them once per request
+        Set<String> candidate = JobTermExtractor.candidateTerms(profile);
 
-        // Small bump from explicit skills list if present
-        double skillOverlap = jobSkillsSet.isEmpty() ? 0.0
-                : ((double) matchedSkills.size() / (double) jobSkillsSet.size());
+        if (source == MatchSource.VECTOR && vectorIndex.isReady()) {
+            return matchVector(profile, candidate, limit, scorer);
+        }
 
-        // Weighted score: prioritize title/skills matching
-        double score = 0.65 * f1Primary + 0.25 * f1All + 0.10 * skillOverlap;
+        // Nightly batch results for this exact profile, while they're recent enough
+        if (source == MatchSource.INDEX && scorer == MatchScorer.F1) {
+            List<JobMatchIndex.Hit> precomputed = precomputedHits(profile, limit);
+            if (precomputed != null) {
+                precomputedServed.increment();
+                return hydrate(candidate, precomputed);
+            }
+        }
 
-        return new JobMatchResult(
-                j.getId(),
-                j.getTitle(),
-                j.getCompany(),
-                j.getLocation(),
-                j.isRemote(),
-                round3(score),
-                matchedSkills,
-                missingSkills,
-                matched.stream().sorted().limit(30).toList()
-        );
+        // Exact top-K over the whole active corpus once the index has loaded
+        if (matchIndex.isReady()) {
+            return matchIndexed(profile, candidate, limit, scorer);
+        }
+        return matchWindow(candidate, limit, scorer);
     }
 
-    private double f1(Set<String> candidate, Set<String> job) {
-        if (candidate.isEmpty() || job.isEmpty()) return 0.0;
-
-        Set<String> inter = new HashSet<>(candidate);
-        inter.retainAll(job);
-
-        double precision = (double) inter.size() / (double) job.size();
-        double recall = (double) inter.size() / (double) candidate.size();
-
-        return (precision + recall) == 0.0 ? 0.0 : (2.0 * precision * recall) / (precision + recall);
+    private List<JobMatchResult> matchIndexed(CandidateProfile profile, Set<String> candidate,
+                                              int limit, MatchScorer scorer) {
+        // Cached per (profile, generatedAt, scorer) and brought forward as the index changes
+        List<JobMatchIndex.Hit> hits = resultCache.topK(profile.getId(), profile.getGeneratedAt(),
+                candidate, limit, scorer);
+        return hydrate(candidate, hits);
     }
 
+    private List<JobMatchIndex.Hit> precomputedHits(CandidateProfile profile, int limit) {
+        if (profile.getUserId() == null) return null;
+        JobMatchSet set = matchSetRepository.findById(profile.getUserId()).orElse(null);
+        if (set == null || set.getJobIds() == null
+                || !Objects.equals(set.getProfileId(), profile.getId())
+                || !Objects.equals(set.getProfileVersion(), profile.getGeneratedAt())
+                || set.getComputedAt() == null
+                || set.getComputedAt().isBefore(Instant.now().minus(precomputedMaxAge))
+                || (!set.isComplete() && set.getJobIds().size() < limit)) {
+            return null;
+        }
+        int n = Math.min(limit, set.getJobIds().size());
+        List<JobMatchIndex.Hit> hits = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            hits.add(new JobMatchIndex.Hit(set.getJobIds().get(i), set.getScores().get(i), 0L));
+        }
+        return hits;
+    }
 
+    private List<JobMatchResult> hydrate(Set<String> candidate, List<JobMatchIndex.Hit> hits) {
+        Map<String, JobListing> byId = new HashMap<>();
+        List<String> ids = hits.stream().map(JobMatchIndex.Hit::listingId).toList();
+        for (JobListing j : jobListingRepository.findMatchPoolByIdIn(ids)) {
+            byId.put(j.getId(), j);
+        }
 
-private Set<String> intersection(Set<String> a, Set<String> b) {
-    if (a.isEmpty() || b.isEmpty()) return Set.of();
-    Set<String> x = new HashSet<>(a);
-    x.retainAll(b);
-    return x;
-}
+        // Keep the ranking; listings deleted or closed since it was computed are dropped
+        List<JobMatchResult> results = new ArrayList<>(hits.size());
+        for (JobMatchIndex.Hit hit : hits) {
+            JobListing j = byId.get(hit.listingId());
+            if (j != null && j.isActive()) results.add(explain(candidate, j, hit.score()));
+        }
+        return results;
+    }
 
+    // Nearest listings by embedding, then ranked by the exact scorer (oversampled so dedupe and
+    // re-ranking still leave a full page)
+    private List<JobMatchResult> matchVector(CandidateProfile profile, Set<String> candidate,
+                                             int limit, MatchScorer scorer) {
+        List<String> ids = vectorIndex.nearest(profile, candidate, Math.max(limit * 5, 100));
 
-    private Set<String> toSet(List<String>... lists) {
-        Set<String> s = new HashSet<>();
-        if (lists != null) {
-            for (List<String> l : lists) {
-                if (l == null) continue;
-                for (String x : l) {
-                    if (x == null) continue;
-                    String n = norm(x);
-                    if (!n.isBlank()) s.add(n);
-                }
-            }
+        Map<String, JobListing> unique = new LinkedHashMap<>();
+        for (JobListing j : jobListingRepository.findMatchPoolByIdIn(ids)) {
+            if (!j.isActive()) continue;
+            unique.merge(JobTermExtractor.dedupeKey(j), j, JobMatchingService::newer);
         }
-        return s;
+        // Newest first, like the window pool, so score ties keep the newer posting
+        List<JobListing> pool = new ArrayList<>(unique.values());
+        pool.sort(Comparator.comparing(JobListing::getPostedDate,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return rankExactly(pool, candidate, limit, scorer);
     }
 
-    private List<String> tokensFromText(String text) {
-        if (text == null) return List.of();
-        Set<String> out = new HashSet<>();
-        addTokens(out, text);
-        return new ArrayList<>(out);
+    private static JobListing newer(JobListing a, JobListing b) {
+        if (a.getPostedDate() == null) return b;
+        if (b.getPostedDate() == null) return a;
+        return b.getPostedDate().isAfter(a.getPostedDate()) ? b : a;
     }
 
-    private double titleSimilarity(List<String> candidateTitles, String jobTitle) {
-        if (candidateTitles == null || candidateTitles.isEmpty() || jobTitle == null) return 0.0;
+    // Fallback until the match index has loaded: score the most recent listings only
+    private List<JobMatchResult> matchWindow(Set<String> candidate, int limit, MatchScorer scorer) {
+        int poolSize = Math.min(Math.max(limit * 30, 200), 2000);
+        Pageable p = PageRequest.of(0, poolSize, Sort.by(Sort.Direction.DESC, "postedDate"));
 
-        Set<String> jobTitleTokens = new HashSet<>();
-        addTokens(jobTitleTokens, jobTitle);
+        List<JobListing> jobs = jobListingRepository.findMatchPoolByIsActiveTrue(p);
 
-        double best = 0.0;
-        for (String t : candidateTitles) {
-            if (t == null) continue;
-            Set<String> candTitleTokens = new HashSet<>();
-            addTokens(candTitleTokens, t);
-            best = Math.max(best, jaccard(candTitleTokens, jobTitleTokens));
+        // Dedupe (externalId preferred, fallback to title+company+location)
+        Map<String, JobListing> unique = new LinkedHashMap<>();
+        for (JobListing j : jobs) {
+            unique.putIfAbsent(JobTermExtractor.dedupeKey(j), j);
         }
-        return best;
+        return rankExactly(new ArrayList<>(unique.values()), candidate, limit, scorer);
     }
 
-
-    private void addTokens(Set<String> out, String text) {
-        if (text == null || text.isBlank()) return;
-
-        // Split on non-word-ish characters but keep + # . for tech tokens and dotted words
-        String[] parts = text.split("[^A-Za-z0-9+#.]+");
-
-        for (String raw : parts) {
-            String n = norm(raw);
-            if (n.isBlank()) continue;
-            if (n.length() < 2) continue;
-            if (STOPWORDS.contains(n)) continue;
-            out.add(n);
+    private List<JobMatchResult> rankExactly(List<JobListing> matchPool, Set<String> candidate,
+                                             int limit, MatchScorer scorer) {
+        List<JobListing> pool = withTerms(matchPool);
+        // Listings first, so every term they carry is in the dictionary; the candidate side is
+        // then only looked up - profile text never grows the dictionary, and a term no listing
+        // has can't match anything (the score still normalizes by the full candidate size).
+        // Both sides use the index's current dictionary; BM25 needs its statistics to match,
+        // so an index rebuild in between means encoding again.
+        EncodedTerms[] encoded = new EncodedTerms[pool.size()];
+        int[] candidateIds;
+        Bm25 bm25 = null;
+        do {
+            TermDictionary dictionary = matchIndex.dictionary();
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = termsOf(pool.get(i), dictionary);
+            }
+            candidateIds = TermSets.lookup(candidate, dictionary);
+            // BM25 uses whatever corpus statistics the index holds so far
+            if (scorer == MatchScorer.BM25) bm25 = matchIndex.bm25(dictionary, candidateIds);
+        } while (scorer == MatchScorer.BM25 && bm25 == null);
+        int[] candidateTermIds = candidateIds;
+        Bm25 bm25Scorer = bm25;
+
+        // Numeric phase: primitive scores into size-K heaps (ties keep the newer posting)
+        TopK top = scoringTimer.record(() -> parallelScorer.topK(pool.size(), limit,
+                i -> bm25Scorer != null ? bm25Scorer.score(encoded[i])
+                        : MatchScores.score(candidate.size(), candidateTermIds, encoded[i]),
+                i -> -i));
+
+        // Explanation phase: matched/missing lists only for the winners
+        List<JobMatchResult> results = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            results.add(explain(candidate, pool.get(top.id(i)), top.score(i)));
         }
+        return results;
     }
 
-    private String norm(String s) {
-        if (s == null) return "";
-        String x = s.trim().toLowerCase(Locale.ROOT);
-
-        // remove leading/trailing non-token chars (but allow + # . inside token)
-        x = x.replaceAll("^[^a-z0-9+#.]+|[^a-z0-9+#.]+$", "");
 
-        // specifically strip trailing/leading dots (fix "skills.")
-        x = x.replaceAll("^\\.+|\\.+$", "");
+    // Listings the backfill hasn't reached yet: the pool projection has no description, so their
+    // terms come from the full stored document, extracted on that copy the way the backfill would.
+    // Once the backfill is done, a listing still without terms is left out rather than guessed at.
+    private List<JobListing> withTerms(List<JobListing> pool) {
+        List<String> missing = new ArrayList<>();
+        for (JobListing j : pool) {
+            if (!hasTerms(j)) missing.add(j.getId());
+        }
+        if (missing.isEmpty()) return pool;
+
+        Map<String, JobListing> full = new HashMap<>();
+        if (!backfill.isDone()) {
+            for (JobListing j : jobListingRepository.findAllById(missing)) {
+                if (j.getDescription() != null) skillExtractor.applyTo(j);
+                JobTermExtractor.apply(j);
+                full.put(j.getId(), j);
+            }
+        }
+        List<JobListing> withTerms = new ArrayList<>(pool.size());
+        for (JobListing j : pool) {
+            JobListing scored = hasTerms(j) ? j : full.get(j.getId());
+            if (scored != null) withTerms.add(scored);
+        }
+        return withTerms;
+    }
 
-        // normalize a few common forms
-        if (x.equals(".net") || x.equals("net")) x = "dotnet";
+    private static boolean hasTerms(JobListing j) {
+        return j.getTermsVersion() == JobTermExtractor.TERMS_VERSION && j.getAllTerms() != null;
+    }
 
-        return x;
+    private EncodedTerms termsOf(JobListing j, TermDictionary dictionary) {
+        // Stored term lists are already normalized and de-duplicated
+        return termSetCache.forListing(j, dictionary);
     }
 
+    private JobMatchResult explain(Set<String> candidate, JobListing j, double score) {
+        // Matched keywords based on full set (for display)
+        List<String> matched = new ArrayList<>();
+        for (String t : j.getAllTerms()) {
+            if (candidate.contains(t)) matched.add(t);
+        }
+
+        // Skill-specific match (only if job.skills exists)
+        List<String> matchedSkills = new ArrayList<>();
+        List<String> missingSkills = new ArrayList<>();
+        for (String s : j.getSkillTerms()) {
+            if (candidate.contains(s)) matchedSkills.add(s);
+            else missingSkills.add(s);
+        }
+        Collections.sort(matchedSkills);
+        Collections.sort(missingSkills);
 
-    private double jaccard(Set<String> a, Set<String> b) {
-        if (a.isEmpty() || b.isEmpty()) return 0.0;
-        Set<String> inter = new HashSet<>(a);
-        inter.retainAll(b);
-        Set<String> union = new HashSet<>(a);
-        union.addAll(b);
-        return (double) inter.size() / (double) union.size();
+        Collections.sort(matched);
+        return new JobMatchResult(
+                j.getId(),
+                j.getTitle(),
+                j.getCompany(),
+                j.getLocation(),
+                j.isRemote(),
+                round3(score),
+                matchedSkills,
+                missingSkills,
+                matched.size() > 30 ? matched.subList(0, 30) : matched
+        );
     }
 
     private double round3(double x) {
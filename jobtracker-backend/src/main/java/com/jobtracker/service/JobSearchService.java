@@ -2,14 +2,18 @@
 package com.jobtracker.service;
 
 import java.util.regex.Pattern;
+import com.jobtracker.dto.JobListingCard;
 import com.jobtracker.model.JobListing;
 import com.jobtracker.model.JobSearch;
 import com.jobtracker.model.SavedJob;
+import com.jobtracker.model.SharedSearchCache;
 import com.jobtracker.repository.JobListingRepository;
 import com.jobtracker.repository.JobSearchRepository;
 import com.jobtracker.repository.SavedJobRepository;
+import com.jobtracker.service.cache.SearchCacheStore;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -34,7 +39,11 @@ import java.util.Map;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
@@ -44,78 +53,144 @@ public class JobSearchService {
     private final JobSearchRepository jobSearchRepository;
     private final SavedJobRepository savedJobRepository;
     private final ExternalJobApiService externalJobApiService;
+    private final SearchCacheStore searchCacheStore;
 
-    // Cache structure: userId -> SearchCacheEntry
+    // L1 cache structure: userId -> SearchCacheEntry
     private final ConcurrentHashMap<String, SearchCacheEntry> searchCache = new ConcurrentHashMap<>();
 
+    // Per-user fill locks (replaces the old service-wide lock); dropped once nobody holds or waits on one
+    private final ConcurrentHashMap<String, FillLock> fillLocks = new ConcurrentHashMap<>();
+
+    // Identifies this node when holding a shared fill lease
+    private final String nodeId = "node-" + UUID.randomUUID();
+
     // Cache validity duration (1 hour)
     private static final long CACHE_VALIDITY_MINUTES = 60;
+    private static final long PEER_POLL_MILLIS = 250;
+    // Version of an L1 entry that never reached L2 (a peer's fill owns it); fails the next revalidation
+    private static final long UNSHARED_VERSION = -1;
+
+    // How long an L1 copy is trusted before its version is re-checked against L2
+    @Value("${jobs.searchCache.l1RevalidateSeconds:30}")
+    private long l1RevalidateSeconds;
+
+    @Value("${jobs.searchCache.fillLeaseSeconds:60}")
+    private long fillLeaseSeconds;
+
+    @Value("${jobs.searchCache.peerWaitSeconds:15}")
+    private long peerWaitSeconds;
 
     public JobSearchService(JobListingRepository jobListingRepository,
                            JobSearchRepository jobSearchRepository,
                            SavedJobRepository savedJobRepository,
-                           ExternalJobApiService externalJobApiService) {
+                           ExternalJobApiService externalJobApiService,
+                           SearchCacheStore searchCacheStore) {
         this.jobListingRepository = jobListingRepository;
         this.jobSearchRepository = jobSearchRepository;
         this.savedJobRepository = savedJobRepository;
         this.externalJobApiService = externalJobApiService;
+        this.searchCacheStore = searchCacheStore;
     }
     
 
     /**
-     * Search jobs with filters and caching
+     * Search jobs with filters and caching.
+     * L1 is this node's heap, L2 is the shared store so any node can serve the
+     * follow-up /jobs/cache pagination requests without re-running the search.
      */
-    public Page<JobListing> searchJobs(String query, String location, String jobType,
+    public Page<JobListingCard> searchJobs(String query, String location, String jobType,
                                      Double minSalary, Double maxSalary, List<String> skills,
                                      int page, int size, String userId) {
 
-        // Generate cache key
-        String cacheKey = userId + "_" + query + "_" + location + "_" + jobType + "_" + minSalary + "_" + maxSalary + "_" + skills;
-
-        // Check cache first
-        SearchCacheEntry cached = searchCache.get(userId);
-        if (cached != null && cached.isValid() && cached.matchesSearch(query, location)) {
+        // Check cache first (L1, then L2)
+        SearchCacheEntry cached = lookupCache(userId);
+        if (cached != null && cached.matchesSearch(query, location)) {
             System.out.println("✅ Using valid cached results for user: " + userId);
             return getPageFromCache(cached, page, size);
         }
 
-        synchronized (this) {
+        // One fill per user on this node; other users are not blocked
+        FillLock userLock = fillLocks.compute(userId, (k, l) -> {
+            if (l == null) l = new FillLock();
+            l.holders++;
+            return l;
+        });
+        try {
+            return fillSearch(userLock, query, location, jobType, minSalary, maxSalary, skills, page, size, userId);
+        } finally {
+            fillLocks.computeIfPresent(userId, (k, l) -> --l.holders == 0 ? null : l);
+        }
+    }
+
+    private Page<JobListingCard> fillSearch(FillLock userLock, String query, String location, String jobType,
+                                            Double minSalary, Double maxSalary, List<String> skills,
+                                            int page, int size, String userId) {
+        SearchCacheEntry cached;
+        synchronized (userLock) {
             // Double-check after acquiring lock
-            cached = searchCache.get(userId);
-            if (cached != null && cached.isValid() && cached.matchesSearch(query, location)) {
+            cached = lookupCache(userId);
+            if (cached != null && cached.matchesSearch(query, location)) {
                 System.out.println("✅ Using cached results (after lock) for user: " + userId);
                 return getPageFromCache(cached, page, size);
             }
 
-            System.out.println("🔍 Cache miss or expired - fetching fresh data for user: " + userId);
-
-            boolean hasQuery = query != null && !query.trim().isEmpty();
-            boolean hasLocation = location != null && !location.trim().isEmpty();
-            
-            if (hasQuery || hasLocation) {
-                System.out.println("🔍 Starting job fetch from all sources: " + query + " in " + location);
-                
-                // Save search history
-                saveSearchHistory(userId, query, location);
-                
-                // Fetch jobs from external APIs
-                try {
-                    externalJobApiService.fetchJobsFromAllSources(
-                        query, location, jobType, minSalary, maxSalary, skills).get();
-                } catch (Exception e) {
-                    System.err.println("❌ Failed to fetch jobs from external APIs: " + e.getMessage());
+            // One fill per user across nodes
+            boolean leader = searchCacheStore.tryAcquireFill(userId, nodeId, Duration.ofSeconds(fillLeaseSeconds));
+            if (!leader) {
+                SearchCacheEntry filled = awaitPeerFill(userId, query, location);
+                if (filled != null) {
+                    System.out.println("✅ Using results filled by another node for user: " + userId);
+                    return getPageFromCache(filled, page, size);
                 }
-            } else {
-                System.out.println("ℹ️ No search terms provided - returning existing jobs from DB");
+                System.out.println("⏳ Peer fill did not finish in time - searching locally for user: " + userId);
             }
 
-            Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE, Sort.by(Sort.Direction.DESC, "postedDate"));
-            Page<JobListing> results = performSearch(query, location, pageable);
-            
-            System.out.println("📊 Search returned " + results.getTotalElements() + " jobs");
-            
-            searchCache.put(userId, new SearchCacheEntry(query, location, results));
-            return getPageFromCache(searchCache.get(userId), page, size);
+            try {
+                System.out.println("🔍 Cache miss or expired - fetching fresh data for user: " + userId);
+
+                boolean hasQuery = query != null && !query.trim().isEmpty();
+                boolean hasLocation = location != null && !location.trim().isEmpty();
+
+                if (hasQuery || hasLocation) {
+                    System.out.println("🔍 Starting job fetch from all sources: " + query + " in " + location);
+
+                    // Save search history
+                    saveSearchHistory(userId, query, location);
+
+                    // Fetch jobs from external APIs
+                    try {
+                        externalJobApiService.fetchJobsFromAllSources(
+                            query, location, jobType, minSalary, maxSalary, skills).get();
+                    } catch (Exception e) {
+                        System.err.println("❌ Failed to fetch jobs from external APIs: " + e.getMessage());
+                    }
+                } else {
+                    System.out.println("ℹ️ No search terms provided - returning existing jobs from DB");
+                }
+
+                Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE, Sort.by(Sort.Direction.DESC, "postedDate"));
+                Page<JobListing> results = performSearch(query, location, pageable);
+
+                System.out.println("📊 Search returned " + results.getTotalElements() + " jobs");
+
+                List<JobListingCard> jobs = results.getContent().stream().map(JobListingCard::from).toList();
+                Instant expiresAt = Instant.now().plus(CACHE_VALIDITY_MINUTES, ChronoUnit.MINUTES);
+                List<String> jobIds = jobs.stream().map(JobListingCard::getId).toList();
+
+                // Storing the entry also releases the fill lease. If a peer's fill still holds it
+                // (we gave up waiting), its results win in L2 and ours are only served from L1.
+                long version = searchCacheStore.put(userId, nodeId, query, location, jobIds, expiresAt)
+                        .orElse(UNSHARED_VERSION);
+
+                SearchCacheEntry entry = new SearchCacheEntry(query, location, jobs, version, expiresAt);
+                searchCache.put(userId, entry);
+                return getPageFromCache(entry, page, size);
+            } catch (RuntimeException e) {
+                if (leader) {
+                    searchCacheStore.releaseFill(userId, nodeId);
+                }
+                throw e;
+            }
         }
     }
 
@@ -123,8 +198,8 @@ public class JobSearchService {
     /**
      * Get cached search results (for when user returns to application)
      */
-    private Page<JobListing> getPageFromCache(SearchCacheEntry cached, int page, int size) {
-        List<JobListing> allJobs = cached.getJobs();
+    private Page<JobListingCard> getPageFromCache(SearchCacheEntry cached, int page, int size) {
+        List<JobListingCard> allJobs = cached.getJobs();
         
         int totalElements = allJobs.size();
         int totalPages = (int) Math.ceil((double) totalElements / size);
@@ -135,7 +210,7 @@ public class JobSearchService {
         System.out.println("📄 Total jobs: " + totalElements + ", Total pages: " + totalPages);
         System.out.println("📄 Extracting items " + start + " to " + end);
         
-        List<JobListing> pageContent;
+        List<JobListingCard> pageContent;
         if (start >= totalElements) {
             System.out.println("⚠️ Page out of bounds - returning empty");
             pageContent = Collections.emptyList();
@@ -155,43 +230,57 @@ public class JobSearchService {
      * Check if user has valid cached results
      */
     public boolean hasCachedResults(String userId) {
-        SearchCacheEntry cached = searchCache.get(userId);
-        return cached != null && cached.isValid();
+        return lookupCache(userId) != null;
     }
 
     /**
      * Get cached search results for pagination
      */
-    public Optional<Page<JobListing>> getCachedSearch(
+    public Optional<Page<JobListingCard>> getCachedSearch(
             String userId, 
             int page, 
             int size, 
             String query, 
             String location) {
         
-        SearchCacheEntry cached = searchCache.get(userId);
-        
-        if (cached != null && cached.isValid()) {
+        SearchCacheEntry cached = resolveCachedSearch(userId, query, location);
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        System.out.println("✅ Returning cached page " + page + " for user: " + userId);
+        return Optional.of(getPageFromCache(cached, page, size));
+    }
+
+    /**
+     * Version tag of the cached search the same request would be served from.
+     * Lets the controller answer If-None-Match without building the page.
+     */
+    public Optional<String> getCachedSearchTag(String userId, String query, String location) {
+        SearchCacheEntry cached = resolveCachedSearch(userId, query, location);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        return Optional.of("c-v" + cached.getVersion() + "-" + cached.getExpiresAt().toEpochMilli());
+    }
+
+    private SearchCacheEntry resolveCachedSearch(String userId, String query, String location) {
+        SearchCacheEntry cached = lookupCache(userId);
+
+        if (cached != null) {
             // ✅ If no params provided, return whatever is cached (for pagination)
             boolean noParamsProvided = (query == null || query.trim().isEmpty()) && 
                                     (location == null || location.trim().isEmpty());
             
-            if (noParamsProvided) {
-                System.out.println("✅ No params provided - returning cached page " + page + " for user: " + userId);
-                return Optional.of(getPageFromCache(cached, page, size));
-            }
-            
-            // If params provided, they must match
-            if (cached.matchesSearch(query, location)) {
-                System.out.println("✅ Params match - returning cached page " + page + " for user: " + userId);
-                return Optional.of(getPageFromCache(cached, page, size));
+            if (noParamsProvided || cached.matchesSearch(query, location)) {
+                return cached;
             }
             
             System.out.println("❌ Cache params don't match - requested: '" + query + "' in '" + location + "'");
         }
         
         System.out.println("❌ No valid cache found for user: " + userId);
-        return Optional.empty();
+        return null;
     }
 
 
@@ -200,6 +289,7 @@ public class JobSearchService {
      */
     public void clearCache(String userId) {
         searchCache.remove(userId);
+        searchCacheStore.evict(userId);
     }
 
     /**
@@ -209,6 +299,17 @@ public class JobSearchService {
         return jobListingRepository.findById(id);
     }
 
+    /**
+     * Keep only cards whose listing still exists - one projected query instead of a findById per card
+     */
+    public List<JobListingCard> filterExisting(List<JobListingCard> cards) {
+        if (cards.isEmpty()) return cards;
+        Set<String> existing = new HashSet<>();
+        jobListingRepository.findIdsByIdIn(cards.stream().map(JobListingCard::getId).toList())
+                .forEach(j -> existing.add(j.getId()));
+        return cards.stream().filter(c -> existing.contains(c.getId())).toList();
+    }
+
     /**
      * Save job for user
      */
@@ -271,10 +372,79 @@ public class JobSearchService {
         System.out.println("🧹 Cleaned " + oldJobs.size() + " old job listings");
 
         searchCache.clear();
+        searchCacheStore.evictAll();
         System.out.println("🗑️ Cleared search cache due to job cleanup");
     }
 
     // Private helper methods
+
+    /**
+     * Resolve the user's cache entry: L1 if its version still matches L2,
+     * otherwise hydrate from L2. Returns null when neither tier has a live entry.
+     */
+    private SearchCacheEntry lookupCache(String userId) {
+        SearchCacheEntry local = searchCache.get(userId);
+        if (local != null && local.isValid()) {
+            if (!local.needsRevalidation(l1RevalidateSeconds)) {
+                return local;
+            }
+            Optional<Long> sharedVersion = searchCacheStore.version(userId);
+            if (sharedVersion.isPresent() && sharedVersion.get() == local.getVersion()) {
+                local.markValidated();
+                return local;
+            }
+        }
+        if (local != null) {
+            searchCache.remove(userId);
+        }
+        return searchCacheStore.get(userId)
+                .map(shared -> hydrate(userId, shared))
+                .orElse(null);
+    }
+
+    private SearchCacheEntry hydrate(String userId, SharedSearchCache shared) {
+        List<String> ids = shared.getJobIds();
+        Map<String, JobListingCard> byId = new HashMap<>();
+        jobListingRepository.findCardsByIdIn(ids).forEach(j -> byId.put(j.getId(), JobListingCard.from(j)));
+
+        // Keep the original ranking; listings deleted since the fill are dropped
+        List<JobListingCard> jobs = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            JobListingCard j = byId.get(id);
+            if (j != null) jobs.add(j);
+        }
+
+        System.out.println("📥 Hydrated " + jobs.size() + "/" + ids.size() + " cached jobs from shared cache (v" + shared.getVersion() + ")");
+
+        SearchCacheEntry entry = new SearchCacheEntry(
+                shared.getQuery(), shared.getLocation(), jobs, shared.getVersion(), shared.getExpiresAt());
+        searchCache.put(userId, entry);
+        return entry;
+    }
+
+    /**
+     * Another node holds the fill lease - wait for it to publish matching results
+     */
+    private SearchCacheEntry awaitPeerFill(String userId, String query, String location) {
+        long deadline = System.currentTimeMillis() + peerWaitSeconds * 1000L;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<SharedSearchCache> shared = searchCacheStore.get(userId);
+            if (shared.isPresent() && shared.get().getFillOwner() == null
+                    && SearchCacheEntry.same(shared.get().getQuery(), query)
+                    && SearchCacheEntry.same(shared.get().getLocation(), location)) {
+                return hydrate(userId, shared.get());
+            }
+            try {
+                Thread.sleep(PEER_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // Returns card projections (no description) except for the geo branch
     private Page<JobListing> performSearch(String query, String location, Pageable pageable) {
         boolean hasQuery = query != null && !query.isBlank();
         boolean hasLocation = location != null && !location.isBlank();
@@ -309,7 +479,7 @@ public class JobSearchService {
             long totalActive = jobListingRepository.countByIsActiveTrue();
             System.out.println("📊 Total active jobs in DB: " + totalActive);
             
-            Page<JobListing> results = jobListingRepository.findByIsActiveTrueAndTitleRegexAndLocationRegex(
+            Page<JobListing> results = jobListingRepository.findCardsByTitleRegexAndLocationRegex(
                 queryPattern,
                 locationPattern,
                 pageable);
@@ -340,7 +510,7 @@ public class JobSearchService {
                     .toArray(String[]::new)
             ) + ".*";
             
-            return jobListingRepository.findByIsActiveTrueAndTitleRegex(
+            return jobListingRepository.findCardsByTitleRegex(
                 queryPattern, pageable);
         }
         
@@ -359,11 +529,11 @@ public class JobSearchService {
                 return new PageImpl<>(nearby, pageable, nearby.size());
             }
             
-            return jobListingRepository.findByIsActiveTrueAndLocationContainingIgnoreCase(
-                location.trim(), pageable);
+            return jobListingRepository.findCardsByLocationRegex(
+                "(?i).*" + Pattern.quote(location.trim()) + ".*", pageable);
         }
         
-        return (Page<JobListing>) jobListingRepository.findByIsActiveTrue(pageable);
+        return jobListingRepository.findCardsByIsActiveTrue(pageable);
     }
 
     private Point geocodeLocation(String location) {
@@ -422,36 +592,61 @@ public class JobSearchService {
         jobSearchRepository.save(search);
     }
 
-    // Inner class for cache entry
+    private static final class FillLock {
+        int holders;   // guarded by fillLocks.compute
+    }
+
+    // Inner class for cache entry (L1)
     private static class SearchCacheEntry {
         private final String query;
         private final String location;
-        private final List<JobListing> jobs;  // ✅ Changed from Page to List
-        private final Instant cachedAt;
+        private final List<JobListingCard> jobs;
+        private final long version;          // L2 version this copy was built from
+        private final Instant expiresAt;
+        private volatile Instant validatedAt;
 
-        public SearchCacheEntry(String query, String location, Page<JobListing> results) {
+        public SearchCacheEntry(String query, String location, List<JobListingCard> jobs,
+                                long version, Instant expiresAt) {
             this.query = query;
             this.location = location;
-            this.jobs = new ArrayList<>(results.getContent());  // ✅ Convert Page content to List
-            this.cachedAt = Instant.now();
+            this.jobs = jobs;
+            this.version = version;
+            this.expiresAt = expiresAt;
+            this.validatedAt = Instant.now();
         }
 
         public boolean isValid() {
-            return Instant.now().isBefore(cachedAt.plus(CACHE_VALIDITY_MINUTES, ChronoUnit.MINUTES));
+            return Instant.now().isBefore(expiresAt);
+        }
+
+        public boolean needsRevalidation(long revalidateSeconds) {
+            return Instant.now().isAfter(validatedAt.plusSeconds(revalidateSeconds));
+        }
+
+        public void markValidated() {
+            this.validatedAt = Instant.now();
         }
 
         public boolean matchesSearch(String query, String location) {
-            return equals(this.query, query)
-                && equals(this.location, location);
+            return same(this.query, query)
+                && same(this.location, location);
         }
 
-        private boolean equals(String s1, String s2) {
+        static boolean same(String s1, String s2) {
             if (s1 == null) return s2 == null;
             return s1.equals(s2);
         }
 
-        public List<JobListing> getJobs() {  // ✅ Changed return type from Page to List
+        public List<JobListingCard> getJobs() {
             return jobs;
         }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.jobtracker.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jobtracker.model.Application;
 import com.jobtracker.model.Notification;
 import com.jobtracker.model.NotificationPreference;
@@ -7,20 +9,50 @@ import com.jobtracker.model.Status;
 import com.jobtracker.model.User;
 import com.jobtracker.repository.ApplicationRepository;
 import com.jobtracker.repository.NotificationRepository;
-import com.jobtracker.repository.NotificationPreferenceRepository;
 import com.jobtracker.repository.UserRepository;
-
+import com.jobtracker.service.notification.EmailTemplate;
+import com.jobtracker.service.notification.EmailTemplates;
+import com.jobtracker.service.notification.MailDispatcher;
+import com.jobtracker.service.notification.NotificationEvent;
+import com.jobtracker.service.notification.NotificationEventHub;
+import com.jobtracker.service.notification.NotificationWheel;
+import com.jobtracker.service.notification.UnreadCounters;
+import com.mongodb.client.result.UpdateResult;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class NotificationService {
@@ -28,40 +60,68 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final ApplicationRepository applicationRepository;
-    private final NotificationPreferenceRepository notificationPreferenceRepository;
-    private final SesService sesService;
+    private final UserSettingsCache userSettings;
+    private final MailDispatcher mailDispatcher;
+    private final EmailTemplates emailTemplates;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String bulkTemplatePrefix;
+    private final MongoTemplate mongoTemplate;
+    private final NotificationWheel wheel;
+    private final NotificationEventHub eventHub;
+    private final UnreadCounters unreadCounters;
+    private final int dispatchBatchSize;
+    private final int dispatchWorkers;
+    private final Duration leaseDuration;
+    private final ExecutorService dispatchPool;
+    private final String nodeId = "node-" + UUID.randomUUID();
 
     public NotificationService(NotificationRepository notificationRepository, 
                              UserRepository userRepository,
                              ApplicationRepository applicationRepository,
-                             NotificationPreferenceRepository notificationPreferenceRepository,
-                             SesService sesService) {
+                             UserSettingsCache userSettings,
+                             MailDispatcher mailDispatcher,
+                             EmailTemplates emailTemplates,
+                             MongoTemplate mongoTemplate,
+                             NotificationWheel wheel,
+                             NotificationEventHub eventHub,
+                             UnreadCounters unreadCounters,
+                             @Value("${jobs.notifications.dispatchBatchSize:500}") int dispatchBatchSize,
+                             @Value("${jobs.notifications.dispatchWorkers:2}") int dispatchWorkers,
+                             @Value("${jobs.notifications.leaseSeconds:120}") long leaseSeconds,
+                             @Value("${jobs.mail.bulkTemplatePrefix:}") String bulkTemplatePrefix) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
         this.applicationRepository = applicationRepository;
-        this.notificationPreferenceRepository = notificationPreferenceRepository;
-        this.sesService = sesService;
+        this.userSettings = userSettings;
+        this.mailDispatcher = mailDispatcher;
+        this.emailTemplates = emailTemplates;
+        this.bulkTemplatePrefix = bulkTemplatePrefix == null ? "" : bulkTemplatePrefix.trim();
+        this.mongoTemplate = mongoTemplate;
+        this.wheel = wheel;
+        this.eventHub = eventHub;
+        this.unreadCounters = unreadCounters;
+        this.dispatchBatchSize = Math.max(dispatchBatchSize, 1);
+        this.dispatchWorkers = Math.max(dispatchWorkers, 1);
+        this.leaseDuration = Duration.ofSeconds(Math.max(leaseSeconds, 10));
+        this.dispatchPool = Executors.newFixedThreadPool(this.dispatchWorkers);
     }
 
-    private static final Map<String,String> TZ_ABBR = Map.of(
-    "EST","America/Toronto", "EDT","America/Toronto",
-    "PST","America/Los_Angeles", "PDT","America/Los_Angeles",
-    "CST","America/Chicago", "CDT","America/Chicago",
-    "IST","Asia/Kolkata"
-    );
+    @PostConstruct
+    public void startWheel() {
+        // Fired IDs are dispatched on the worker pool so the ticker never blocks on email
+        wheel.start(ids -> dispatchPool.submit(() -> dispatchDue(ids)));
+    }
 
-    private ZoneId getUserZone(String userId) {
-        String id = userRepository.findById(userId)
-            .map(User::getTimezone).orElse(null);
+    @PreDestroy
+    public void shutdown() {
+        dispatchPool.shutdownNow();
+    }
 
-        if (id == null || id.isBlank()) return ZoneId.of("UTC");
-        String canonical = TZ_ABBR.getOrDefault(id.trim(), id.trim());
-        try {
-            return ZoneId.of(canonical); // IANA only
-        } catch (Exception e) {
-            // log once
-            return ZoneId.of("UTC");
-        }
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("h:mm a");
+
+    private ZoneId getUserZone(String userId) {
+        return userSettings.zone(userId);
     }
 
     /**
@@ -116,6 +176,7 @@ public class NotificationService {
             
             // Save notification
             notificationRepository.save(n);
+            wheel.schedule(n.getId(), n.getNotifyAt());
             
             // Log success with timezone-aware display
             ZoneId userZone = getUserZone(app.getUserId());
@@ -175,7 +236,9 @@ public class NotificationService {
         n.setSent(false);
         n.setRead(false);
         
-        return notificationRepository.save(n);
+        Notification saved = notificationRepository.save(n);
+        wheel.schedule(saved.getId(), saved.getNotifyAt());
+        return saved;
     }
 
     public Notification createAssessmentDeadlineReminder(String userId, String applicationId,
@@ -214,7 +277,19 @@ public class NotificationService {
         n.setSent(false);
         n.setRead(false);
         
-        return notificationRepository.save(n);
+        Notification saved = notificationRepository.save(n);
+        wheel.schedule(saved.getId(), saved.getNotifyAt());
+        return saved;
+    }
+
+    /**
+     * Save a new notification built by the caller and put it on the wheel, so it fires about
+     * a tick after notifyAt rather than on the next overdue sweep
+     */
+    public Notification createScheduled(Notification n) {
+        Notification saved = notificationRepository.save(n);
+        wheel.schedule(saved.getId(), saved.getNotifyAt());
+        return saved;
     }
 
     /**
@@ -247,7 +322,9 @@ public class NotificationService {
         n.setRead(false);
         n.setCreatedAt(Instant.now());
         
-        return notificationRepository.save(n);
+        Notification saved = notificationRepository.save(n);
+        wheel.schedule(saved.getId(), saved.getNotifyAt());
+        return saved;
     }
 
     /**
@@ -265,100 +342,180 @@ public class NotificationService {
     /**
      * Process due notifications - CHECK STATUS BEFORE SENDING FOLLOW-UP
      * ENHANCED: Send emails via AWS SES
+     *
+     * Every node runs this. Workers claim due notifications in batches under a lease
+     * (claimedBy + leaseUntil), so a notification is only dispatched by the worker holding
+     * its claim; adding workers or nodes splits the backlog instead of duplicating it. A
+     * claim whose worker died is taken over once its lease expires. Each batch resolves
+     * its users, preferences and applications with one $in query each and is marked sent
+     * with one updateMulti.
+     *
+     * With the timing wheel on, notifications fire from the wheel within about a tick of
+     * notifyAt; this scan then runs once per wheel window (jobs.notifications.scanMs) to load
+     * the next horizon into the wheel and to sweep up anything overdue (failed sends whose
+     * lease ran out, notifications created on another node).
      */
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedDelayString = "${jobs.notifications.scanMs:60000}")
     public void processDueNotifications() {
         // ✅ FIXED - Use Instant.now() instead of LocalDateTime
         Instant nowUTC = Instant.now();
-        List<Notification> due = notificationRepository
-            .findBySentFalseAndNotifyAtBefore(nowUTC);
+        if (wheel.isEnabled()) refillWheel(nowUTC);
 
         System.out.println("🔔 ========================================");
-        System.out.println("🔔 Processing notifications at: " + nowUTC);
-        System.out.println("🔔 Found " + due.size() + " due notifications");
+        System.out.println("🔔 Processing notifications at: " + nowUTC + " (" + nodeId + ")");
         System.out.println("🔔 ========================================");
 
-        for (Notification n : due) {
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger sent = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < dispatchWorkers; i++) {
+            workers.add(dispatchPool.submit(() -> {
+                List<Notification> batch;
+                while ((batch = claimBatch()) != null) {
+                    if (batch.isEmpty()) continue; // lost every candidate to other workers; look again
+                    claimed.addAndGet(batch.size());
+                    sent.addAndGet(processBatch(batch, Instant.now()));
+                }
+            }));
+        }
+        for (Future<?> w : workers) {
             try {
-                System.out.println("\n📬 Processing notification ID: " + n.getId());
-                System.out.println("   Type: " + n.getType());
-                System.out.println("   Scheduled for: " + n.getNotifyAt());
-                System.out.println("   Current time: " + nowUTC);
+                w.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("❌ Notification worker failed: " + e.getCause().getMessage());
+            }
+        }
 
+        System.out.println("\n🔔 ========================================");
+        System.out.println("🔔 Notification processing complete: " + sent + "/" + claimed + " marked sent");
+        System.out.println("🔔 ========================================\n");
+    }
+
+    /**
+     * Dispatch notifications the wheel reported due (those still claimable; another node may have won)
+     */
+    private void dispatchDue(List<String> ids) {
+        try {
+            for (int from = 0; from < ids.size(); from += dispatchBatchSize) {
+                List<Notification> batch = claim(ids.subList(from, Math.min(ids.size(), from + dispatchBatchSize)));
+                if (!batch.isEmpty()) processBatch(batch, Instant.now());
+            }
+        } catch (Exception e) {
+            // Still unsent: the next scan picks them up once any lease has expired
+            System.err.println("❌ Failed to dispatch " + ids.size() + " wheel notifications: " + e.getMessage());
+        }
+    }
+
+    // Unsent notifications due before the end of the horizon (just IDs and times)
+    private void refillWheel(Instant nowUTC) {
+        Query q = Query.query(Criteria.where("sent").is(false)
+                .and("notifyAt").gt(nowUTC).lte(nowUTC.plus(wheel.horizon())));
+        q.fields().include("_id").include("notifyAt");
+        List<Notification> upcoming = mongoTemplate.find(q, Notification.class);
+        for (Notification n : upcoming) wheel.schedule(n.getId(), n.getNotifyAt());
+        System.out.println("⏱️ Loaded " + upcoming.size() + " upcoming notifications into the wheel ("
+                + wheel.size() + " scheduled)");
+    }
+
+    /**
+     * Claim up to dispatchBatchSize due notifications; null when none are claimable.
+     *
+     * Candidates are read first, then claimed with one conditional updateMulti under a
+     * fresh token: the update re-checks claimability per document, so a notification
+     * another worker took in between is simply not ours. The batch is what carries the token.
+     */
+    private List<Notification> claimBatch() {
+        Instant now = Instant.now();
+        Query candidates = Query.query(claimable(now))
+                .with(Sort.by(Sort.Direction.ASC, "notifyAt"))
+                .limit(dispatchBatchSize);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, Notification.class).stream()
+                .map(Notification::getId)
+                .toList();
+        if (ids.isEmpty()) return null;
+        return claim(ids);
+    }
+
+    private List<Notification> claim(List<String> ids) {
+        Instant now = Instant.now();
+        String token = nodeId + ":" + UUID.randomUUID();
+        mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable(now))),
+                new Update().set("claimedBy", token).set("leaseUntil", now.plus(leaseDuration)),
+                Notification.class);
+        return mongoTemplate.find(Query.query(Criteria.where("claimedBy").is(token)), Notification.class);
+    }
+
+    // Unsent, due, and not under a live lease (never claimed, or its claimer went away)
+    private static Criteria claimable(Instant now) {
+        return Criteria.where("sent").is(false).and("notifyAt").lte(now)
+                .orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now));
+    }
+
+    private int processBatch(List<Notification> batch, Instant nowUTC) {
+        // Prefetch everything the batch needs: one query per collection at most
+        Set<String> userIds = new HashSet<>();
+        Set<String> applicationIds = new HashSet<>();
+        for (Notification n : batch) {
+            if (n.getUserId() != null) userIds.add(n.getUserId());
+            if (n.getApplicationId() != null) applicationIds.add(n.getApplicationId());
+        }
+        // Users and preferences come from the settings cache: misses only
+        Map<String, UserSettingsCache.UserSettings> settings = userSettings.getAll(userIds);
+        Map<String, Application> applications = new HashMap<>();
+        if (!applicationIds.isEmpty()) {
+            applicationRepository.findAllById(applicationIds).forEach(a -> applications.put(a.getId(), a));
+        }
+
+        List<String> markSent = new ArrayList<>();
+        Map<Notification.NotificationType, List<EmailJob>> emails = new HashMap<>();
+        for (Notification n : batch) {
+            try {
                 // Skip if notification time is in the future
                 if (n.getNotifyAt().isAfter(nowUTC)) {
                     System.out.println("⏭️ Skipping notification: notifyAt is in the future: " + n.getNotifyAt());
                     continue;
                 }
 
-                User user = userRepository.findById(n.getUserId()).orElse(null);
+                UserSettingsCache.UserSettings s = settings.get(n.getUserId());
+                User user = s == null ? null : s.user();
                 if (user == null) {
                     System.out.println("❌ User not found for notification ID: " + n.getId());
-                    n.setSent(true);
-                    notificationRepository.save(n);
+                    markSent.add(n.getId());
                     continue;
                 }
 
-                // ✅ FIXED - Use Instant.now() instead of LocalDateTime
-                NotificationPreference pref = notificationPreferenceRepository.findByUserId(user.getUserId())
-                        .orElse(new NotificationPreference(user.getUserId(), true, true, Instant.now()));
+                NotificationPreference pref = s.preference();
 
                 if (!pref.isInAppEnabled() && !pref.isEmailEnabled()) {
                     System.out.println("⚠️ All notifications disabled for user: " + user.getEmail());
-                    n.setSent(true);
-                    notificationRepository.save(n);
+                    markSent.add(n.getId());
                     continue;
                 }
 
+                // Get application details for email
+                Application app = n.getApplicationId() != null ? applications.get(n.getApplicationId()) : null;
+
                 // Check if follow-up notification should still be sent
-                if (n.getType() == Notification.NotificationType.FOLLOW_UP) {
-                    Application app = applicationRepository.findById(n.getApplicationId()).orElse(null);
-                    
-                    if (app == null || app.getStatus() != Status.APPLIED) {
-                        System.out.println("⏭️ Skipping follow-up: status changed from APPLIED");
-                        n.setSent(true);
-                        notificationRepository.save(n);
-                        continue;
-                    }
+                if (n.getType() == Notification.NotificationType.FOLLOW_UP
+                        && (app == null || app.getStatus() != Status.APPLIED)) {
+                    System.out.println("⏭️ Skipping follow-up: status changed from APPLIED");
+                    markSent.add(n.getId());
+                    continue;
                 }
 
-                // Get application details for email
-                Application app = n.getApplicationId() != null ? 
-                    applicationRepository.findById(n.getApplicationId()).orElse(null) : null;
-                
-                boolean handled = false;
-
-                // Apply user's persistent preferences
+                // Apply user's persistent preferences: emails are queued and marked sent once
+                // delivered; in-app only needs the mark
                 if (pref.isEmailEnabled()) {
-                    try {
-                        // Format time using user's stored timezone
-                        sendEmailNotification(user, n, app);
-                        handled = true;
-                        System.out.println("✅ Email sent to " + user.getEmail());
-                    } catch (Exception e) {
-                        System.err.println("❌ Failed to send email: " + e.getMessage());
-                        e.printStackTrace();
-                        continue;
-                    }
-                }
-                
-                // Always keep in-app notifications on
-                if (pref.isInAppEnabled()) {
-                    handled = true;
-                    System.out.println("📱 In-app notification enabled for " + user.getEmail());
+                    emails.computeIfAbsent(n.getType(), t -> new ArrayList<>()).add(new EmailJob(n, user, s.zone(), app));
+                } else {
+                    markSent.add(n.getId());
                 }
 
-                // Mark as sent
-                if (handled) {
-                    n.setSent(true);
-                    notificationRepository.save(n);
-                    System.out.println("✅ Notification marked as sent: " + n.getId());
-                }
-                
-                System.out.println("✅ Notification processed successfully");
-                System.out.println("   User: " + user.getEmail());
-                System.out.println("   Notification: " + n.getMessage());
-                
             } catch (Exception e) {
                 System.err.println("❌ Failed to process notification ID: " + n.getId());
                 System.err.println("❌ Error: " + e.getMessage());
@@ -366,9 +523,43 @@ public class NotificationService {
             }
         }
 
-        System.out.println("\n🔔 ========================================");
-        System.out.println("🔔 Notification processing complete");
-        System.out.println("🔔 ========================================\n");
+        String token = batch.get(0).getClaimedBy();
+        markSent.addAll(sendEmails(emails, token));
+
+        // Mark as sent, whole batch in one write. Failed sends keep their claim and are
+        // retried once the lease runs out.
+        if (!markSent.isEmpty()) {
+            UpdateResult result = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(markSent).and("claimedBy").is(token)),
+                    new Update().set("sent", true).unset("claimedBy").unset("leaseUntil"),
+                    Notification.class);
+            Set<String> marked = new HashSet<>(markSent);
+            Map<String, Long> unread = new HashMap<>();
+            for (Notification n : batch) {
+                if (marked.contains(n.getId()) && !n.isRead()) unread.merge(n.getUserId(), 1L, Long::sum);
+            }
+            if (result.getModifiedCount() == markSent.size()) {
+                // Delivered and unread: onto the users' badge counts
+                unreadCounters.addAll(unread);
+            } else {
+                // The lease lapsed and another worker took some over (they may go out twice).
+                // Which ones isn't known, so recount these users instead of guessing deltas.
+                System.err.println("⚠️ Notification batch lost " + (markSent.size() - result.getModifiedCount())
+                        + " of " + markSent.size() + " claims before marking them sent");
+                unreadCounters.reconcileAll(unread.keySet());
+            }
+
+            // Bulk update raises no mapping events: tell live streams these are now delivered
+            for (Notification n : batch) {
+                if (!marked.contains(n.getId()) || !eventHub.isWatched(n.getUserId())) continue;
+                n.setSent(true);
+                n.setClaimedBy(null);
+                n.setLeaseUntil(null);
+                eventHub.publishLocal(NotificationEvent.of(NotificationEvent.Kind.UPDATED, n));
+            }
+        }
+        System.out.println("📬 Notification batch: " + batch.size() + " due, " + markSent.size() + " marked sent");
+        return markSent.size();
     }
 
     /**
@@ -402,333 +593,157 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized to delete this notification");
         }
         
-        notificationRepository.deleteById(notificationId);
-        System.out.println("🗑️ Notification deleted: " + notificationId);
+        delete(n);
     }
 
     /**
-     * ENHANCED: Send email notification with application details
+     * Delete a notification already checked to belong to its user
      */
-    private void sendEmailNotification(User user, Notification notification, Application app) {
-        try {
-            String subject = getEmailSubject(notification.getType());
-            String htmlBody = buildEmailHtml(user, notification, app);
-            
-            System.out.println("📧 Preparing to send email:");
-            System.out.println("   To: " + user.getEmail());
-            System.out.println("   Subject: " + subject);
-            
-            sesService.sendHtmlEmail(user.getEmail(), subject, htmlBody);
-            System.out.println("✅ Email sent successfully to " + user.getEmail());
-        } catch (Exception e) {
-            System.err.println("❌ Failed to send email to " + user.getEmail());
-            System.err.println("❌ Error: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
+    public void delete(Notification n) {
+        if (notificationRepository.deleteByIdAndUserId(n.getId(), n.getUserId()) > 0) {
+            if (n.isSent() && !n.isRead()) unreadCounters.add(n.getUserId(), -1);
+            wheel.cancel(n.getId());
+            System.out.println("🗑️ Notification deleted: " + n.getId());
         }
     }
 
     /**
-     * Build beautiful HTML email with application details
+     * Mark a notification (already checked to belong to its user) as read. Only the call that
+     * flips it counts it off the badge and tells live streams.
      */
-    private String buildEmailHtml(User user, Notification notification, Application app) {
-        // Format time in user's timezone
-        ZoneId userZone = getUserZone(notification.getUserId());
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("h:mm a");
-        
-        String formattedDate = notification.getNotifyAt().atZone(userZone).format(dateFormatter);
-        String formattedTime = notification.getNotifyAt().atZone(userZone).format(timeFormatter);
-        
-        // Get event date if available
-        String eventDateStr = "";
-        String eventTimeStr = "";
-        if (notification.getEventDate() != null) {
-            eventDateStr = notification.getEventDate().atZone(userZone).format(dateFormatter);
-            eventTimeStr = notification.getEventDate().atZone(userZone).format(timeFormatter);
-        }
-        
-        // Build beautiful HTML
-        StringBuilder html = new StringBuilder();
-        
-        html.append("<!DOCTYPE html>");
-        html.append("<html lang='en'>");
-        html.append("<head>");
-        html.append("<meta charset='UTF-8'>");
-        html.append("<meta name='viewport' content='width=device-width, initial-scale=1.0'>");
-        html.append("<style>");
-        html.append("* { margin: 0; padding: 0; box-sizing: border-box; }");
-        html.append("body { font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; background-color: #f5f7fa; padding: 20px; }");
-        html.append(".email-container { max-width: 600px; margin: 0 auto; background: white; border-radius: 12px; overflow: hidden; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1); }");
-        
-        // Header styling with gradient based on notification type
-        String gradientColor = getGradientColor(notification.getType());
-        html.append(".header { background: ").append(gradientColor).append("; color: white; padding: 40px 30px; text-align: center; }");
-        html.append(".header-icon { font-size: 48px; margin-bottom: 10px; }");
-        html.append(".header h1 { font-size: 28px; font-weight: 600; margin-bottom: 8px; }");
-        html.append(".header p { font-size: 16px; opacity: 0.95; }");
-        
-        // Content styling
-        html.append(".content { padding: 40px 30px; }");
-        html.append(".greeting { font-size: 18px; color: #1f2937; margin-bottom: 20px; }");
-        
-        // Alert box styling
-        html.append(".alert-box { background: #fef3c7; border-left: 4px solid #f59e0b; padding: 20px; border-radius: 8px; margin: 25px 0; }");
-        html.append(".alert-box .alert-title { font-size: 18px; font-weight: 600; color: #92400e; margin-bottom: 8px; }");
-        html.append(".alert-box .alert-message { font-size: 16px; color: #78350f; line-height: 1.6; }");
-        
-        // Application card styling
-        html.append(".app-card { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); border-radius: 12px; padding: 25px; margin: 25px 0; color: white; }");
-        html.append(".app-card .job-title { font-size: 22px; font-weight: 700; margin-bottom: 8px; }");
-        html.append(".app-card .company { font-size: 18px; font-weight: 500; margin-bottom: 8px; opacity: 0.95; }");
-        html.append(".app-card .location { font-size: 14px; opacity: 0.9; }");
-        
-        // Info grid styling
-        html.append(".info-grid { display: grid; grid-template-columns: repeat(auto-fit, minmax(200px, 1fr)); gap: 15px; margin: 25px 0; }");
-        html.append(".info-item { background: #f9fafb; border-radius: 8px; padding: 15px; border: 1px solid #e5e7eb; }");
-        html.append(".info-item .label { font-size: 12px; color: #6b7280; text-transform: uppercase; letter-spacing: 0.5px; margin-bottom: 5px; font-weight: 600; }");
-        html.append(".info-item .value { font-size: 16px; color: #1f2937; font-weight: 600; }");
-        
-        // Button styling
-        html.append(".button-container { text-align: center; margin: 30px 0; }");
-        html.append(".button { display: inline-block; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; text-decoration: none; padding: 14px 32px; border-radius: 8px; font-size: 16px; font-weight: 600; box-shadow: 0 4px 6px rgba(102, 126, 234, 0.3); transition: all 0.3s; }");
-        html.append(".button:hover { box-shadow: 0 6px 8px rgba(102, 126, 234, 0.4); transform: translateY(-2px); }");
-        
-        // Footer styling
-        html.append(".footer { background: #f9fafb; padding: 25px 30px; text-align: center; border-top: 1px solid #e5e7eb; }");
-        html.append(".footer p { color: #6b7280; font-size: 14px; line-height: 1.6; margin-bottom: 8px; }");
-        html.append(".footer .links { margin-top: 15px; }");
-        html.append(".footer a { color: #667eea; text-decoration: none; margin: 0 10px; font-size: 13px; }");
-        html.append(".footer a:hover { text-decoration: underline; }");
-        
-        // Divider
-        html.append(".divider { height: 1px; background: linear-gradient(to right, transparent, #e5e7eb, transparent); margin: 25px 0; }");
-        
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        
-        html.append("<div class='email-container'>");
-        
-        // Header with icon and title
-        html.append("<div class='header'>");
-        html.append("<div class='header-icon'>").append(getNotificationIcon(notification.getType())).append("</div>");
-        html.append("<h1>").append(getNotificationTitle(notification.getType())).append("</h1>");
-        html.append("<p>JobTracker Notification</p>");
-        html.append("</div>");
-        
-        // Content
-        html.append("<div class='content'>");
-        
-        // Greeting
-        html.append("<p class='greeting'>Hi ").append(user.getFirstName()).append(",</p>");
-        
-        // Alert box with custom message
-        html.append("<div class='alert-box'>");
-        html.append("<div class='alert-title'>").append(getAlertTitle(notification.getType())).append("</div>");
-        html.append("<div class='alert-message'>").append(notification.getMessage()).append("</div>");
-        html.append("</div>");
-        
-        // Application details card (if available)
-        if (app != null) {
-            html.append("<div class='app-card'>");
-            html.append("<div class='job-title'>📋 ").append(app.getJobTitle()).append("</div>");
-            html.append("<div class='company'>🏢 ").append(app.getCompanyName()).append("</div>");
-            if (app.getJobLocation() != null && !app.getJobLocation().isEmpty()) {
-                html.append("<div class='location'>📍 ").append(app.getJobLocation()).append("</div>");
-            }
-            html.append("</div>");
+    public Notification markRead(Notification n) {
+        Notification before = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(n.getId()).and("read").is(false)),
+                new Update().set("read", true),
+                FindAndModifyOptions.options().returnNew(false),
+                Notification.class);
+        if (before == null) {
+            n.setRead(true);   // already read (or gone)
+            return n;
         }
-        
-        // Info grid with event details
-        html.append("<div class='info-grid'>");
-        
-        // Notification type specific info
-        if (notification.getEventDate() != null) {
-            html.append("<div class='info-item'>");
-            html.append("<div class='label'>Event Date</div>");
-            html.append("<div class='value'>").append(eventDateStr).append("</div>");
-            html.append("</div>");
-            
-            html.append("<div class='info-item'>");
-            html.append("<div class='label'>Event Time</div>");
-            html.append("<div class='value'>").append(eventTimeStr).append("</div>");
-            html.append("</div>");
-        }
-        
-        html.append("<div class='info-item'>");
-        html.append("<div class='label'>Reminder Sent</div>");
-        html.append("<div class='value'>").append(formattedDate).append("</div>");
-        html.append("</div>");
-        
-        html.append("<div class='info-item'>");
-        html.append("<div class='label'>Time</div>");
-        html.append("<div class='value'>").append(formattedTime).append("</div>");
-        html.append("</div>");
-        
-        html.append("</div>"); // Close info-grid
-        
-        // Action button
-        html.append("<div class='button-container'>");
-        html.append("<a href='http://localhost:3000/applications' class='button'>View Application Details</a>");
-        html.append("</div>");
-        
-        // Divider
-        html.append("<div class='divider'></div>");
-        
-        // Tips section based on notification type
-        html.append(getTipsSection(notification.getType()));
-        
-        html.append("</div>"); // Close content
-        
-        // Footer
-        html.append("<div class='footer'>");
-        html.append("<p><strong>JobTracker</strong> - Your Personal Job Application Assistant</p>");
-        html.append("<p>This is an automated reminder to help you stay on top of your job search.</p>");
-        html.append("<div class='links'>");
-        html.append("<a href='http://localhost:3000/settings'>Manage Notifications</a>");
-        html.append("<a href='http://localhost:3000/applications'>View All Applications</a>");
-        html.append("<a href='http://localhost:3000/help'>Get Help</a>");
-        html.append("</div>");
-        html.append("</div>");
-        
-        html.append("</div>"); // Close email-container
-        html.append("</body>");
-        html.append("</html>");
-        
-        return html.toString();
+        if (before.isSent()) unreadCounters.add(before.getUserId(), -1);
+        before.setRead(true);
+        eventHub.publishLocal(NotificationEvent.of(NotificationEvent.Kind.UPDATED, before));
+        return before;
     }
 
+    private record EmailJob(Notification notification, User user, ZoneId zone, Application app) {}
+
     /**
-     * Get gradient color based on notification type
+     * Send the batch's emails concurrently through the mail dispatcher and wait for all of
+     * them; returns the IDs of notifications whose email went out. A large batch at the SES
+     * rate can take longer than the lease, so the claim (token) is extended every third of
+     * a lease while sends are still in flight. Same-type notifications
+     * go as SES bulk templated sends when jobs.mail.bulkTemplatePrefix names the templates
+     * (prefix + type, e.g. "jobtracker-FOLLOW_UP"); otherwise each gets its rendered HTML.
      */
-    private String getGradientColor(Notification.NotificationType type) {
-        switch (type) {
-            case INTERVIEW:
-                return "linear-gradient(135deg, #667eea 0%, #764ba2 100%)";
-            case DEADLINE:
-                return "linear-gradient(135deg, #f093fb 0%, #f5576c 100%)";
-            case FOLLOW_UP:
-                return "linear-gradient(135deg, #4facfe 0%, #00f2fe 100%)";
-            case CUSTOM:
-                return "linear-gradient(135deg, #43e97b 0%, #38f9d7 100%)";
-            default:
-                return "linear-gradient(135deg, #667eea 0%, #764ba2 100%)";
+    private List<String> sendEmails(Map<Notification.NotificationType, List<EmailJob>> byType, String token) {
+        List<CompletableFuture<MailDispatcher.Result>> pending = new ArrayList<>();
+        for (Map.Entry<Notification.NotificationType, List<EmailJob>> e : byType.entrySet()) {
+            if (!bulkTemplatePrefix.isEmpty()) {
+                List<MailDispatcher.TemplatedEmail> templated = new ArrayList<>();
+                for (EmailJob job : e.getValue()) {
+                    templated.add(new MailDispatcher.TemplatedEmail(job.notification().getId(),
+                            job.user().getEmail(), templateData(job)));
+                }
+                pending.addAll(mailDispatcher.sendBulk(bulkTemplatePrefix + e.getKey().name(), "{}", templated));
+            } else {
+                for (EmailJob job : e.getValue()) {
+                    pending.add(mailDispatcher.send(new MailDispatcher.Email(job.notification().getId(),
+                            job.user().getEmail(), EmailTemplates.subject(job.notification().getType()),
+                            buildEmailHtml(job.user(), job.zone(), job.notification(), job.app()))));
+                }
+            }
         }
-    }
 
-    /**
-     * Get emoji icon based on notification type
-     */
-    private String getNotificationIcon(Notification.NotificationType type) {
-        switch (type) {
-            case INTERVIEW:
-                return "🎯";
-            case DEADLINE:
-                return "⏰";
-            case FOLLOW_UP:
-                return "📬";
-            case CUSTOM:
-                return "🔔";
-            default:
-                return "📋";
+        CompletableFuture<Void> all = CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+        long renewMs = Math.max(leaseDuration.toMillis() / 3, 1000);
+        while (!all.isDone()) {
+            try {
+                all.get(renewMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                renewLease(token);
+            } catch (ExecutionException e) {
+                break;   // reported per send below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
+
+        List<String> delivered = new ArrayList<>();
+        for (CompletableFuture<MailDispatcher.Result> f : pending) {
+            MailDispatcher.Result r = f.join();
+            if (r.ok()) {
+                delivered.add(r.key());
+            } else {
+                // Left unsent: retried once the claim's lease runs out
+                System.err.println("❌ Failed to send email for notification " + r.key() + ": " + r.error());
+            }
+        }
+        return delivered;
     }
 
-    /**
-     * Get notification title based on type
-     */
-    private String getNotificationTitle(Notification.NotificationType type) {
-        switch (type) {
-            case INTERVIEW:
-                return "Interview Reminder";
-            case DEADLINE:
-                return "Deadline Alert";
-            case FOLLOW_UP:
-                return "Follow-Up Reminder";
-            case CUSTOM:
-                return "Custom Reminder";
-            default:
-                return "Job Application Reminder";
+    // Push the lease of every still-unsent notification under this claim token
+    private void renewLease(String token) {
+        long renewed = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("claimedBy").is(token).and("sent").is(false)),
+                new Update().set("leaseUntil", Instant.now().plus(leaseDuration)),
+                Notification.class).getMatchedCount();
+        if (renewed == 0) {
+            System.err.println("⚠️ Notification claim " + token + " has no unsent notifications left to renew");
         }
     }
 
-    /**
-     * Get alert title based on notification type
-     */
-    private String getAlertTitle(Notification.NotificationType type) {
-        switch (type) {
-            case INTERVIEW:
-                return "⚡ Your Interview is Tomorrow!";
-            case DEADLINE:
-                return "⚠️ Deadline Approaching!";
-            case FOLLOW_UP:
-                return "💼 Time to Follow Up";
-            case CUSTOM:
-                return "📌 Reminder";
-            default:
-                return "📢 Important Reminder";
+    // Replacement data for the SES template of this notification's type
+    private String templateData(EmailJob job) {
+        Notification n = job.notification();
+        ZoneId zone = job.zone();
+        Map<String, String> data = new HashMap<>();
+        data.put("firstName", job.user().getFirstName());
+        data.put("subject", EmailTemplates.subject(n.getType()));
+        data.put("title", EmailTemplates.alertTitle(n.getType()));
+        data.put("message", n.getMessage());
+        data.put("date", n.getNotifyAt().atZone(zone).format(DATE_FORMAT));
+        data.put("time", n.getNotifyAt().atZone(zone).format(TIME_FORMAT));
+        if (n.getEventDate() != null) {
+            data.put("eventDate", n.getEventDate().atZone(zone).format(DATE_FORMAT));
+            data.put("eventTime", n.getEventDate().atZone(zone).format(TIME_FORMAT));
+        }
+        if (job.app() != null) {
+            data.put("jobTitle", job.app().getJobTitle());
+            data.put("company", job.app().getCompanyName());
+            data.put("location", job.app().getJobLocation());
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Template data not serializable", e);
         }
     }
 
     /**
-     * Get helpful tips based on notification type
+     * Build beautiful HTML email with application details (compiled template per type;
+     * user and application text is HTML-escaped)
      */
-    private String getTipsSection(Notification.NotificationType type) {
-        StringBuilder tips = new StringBuilder();
-        
-        tips.append("<div style='background: #f0f9ff; border-radius: 8px; padding: 20px; border-left: 4px solid #0284c7;'>");
-        tips.append("<h3 style='color: #0c4a6e; font-size: 16px; margin-bottom: 12px; font-weight: 600;'>💡 Quick Tips</h3>");
-        tips.append("<ul style='color: #075985; font-size: 14px; line-height: 1.8; padding-left: 20px;'>");
-        
-        switch (type) {
-            case INTERVIEW:
-                tips.append("<li>Review the job description and your resume</li>");
-                tips.append("<li>Prepare answers for common interview questions</li>");
-                tips.append("<li>Research the company and interviewer on LinkedIn</li>");
-                tips.append("<li>Test your video/audio setup if it's a virtual interview</li>");
-                tips.append("<li>Prepare thoughtful questions to ask the interviewer</li>");
-                break;
-            case DEADLINE:
-                tips.append("<li>Set aside dedicated time to complete the assessment</li>");
-                tips.append("<li>Review any materials or instructions provided</li>");
-                tips.append("<li>Test your internet connection and equipment</li>");
-                tips.append("<li>Complete in a quiet environment without distractions</li>");
-                tips.append("<li>Submit with time to spare in case of technical issues</li>");
-                break;
-            case FOLLOW_UP:
-                tips.append("<li>Send a polite follow-up email to the hiring manager</li>");
-                tips.append("<li>Reference your application date and position</li>");
-                tips.append("<li>Express continued interest in the role</li>");
-                tips.append("<li>Keep it brief and professional (3-4 sentences)</li>");
-                tips.append("<li>Include any updates to your qualifications</li>");
-                break;
-            default:
-                tips.append("<li>Stay organized with your job search</li>");
-                tips.append("<li>Keep track of all your applications</li>");
-                tips.append("<li>Follow up regularly with recruiters</li>");
-                tips.append("<li>Continue improving your skills</li>");
-                break;
+    private String buildEmailHtml(User user, ZoneId userZone, Notification notification, Application app) {
+        String[] values = new String[EmailTemplate.Slot.values().length];
+        values[EmailTemplate.Slot.FIRST_NAME.ordinal()] = user.getFirstName();
+        values[EmailTemplate.Slot.MESSAGE.ordinal()] = notification.getMessage();
+        values[EmailTemplate.Slot.DATE.ordinal()] = notification.getNotifyAt().atZone(userZone).format(DATE_FORMAT);
+        values[EmailTemplate.Slot.TIME.ordinal()] = notification.getNotifyAt().atZone(userZone).format(TIME_FORMAT);
+        if (notification.getEventDate() != null) {
+            values[EmailTemplate.Slot.EVENT_DATE.ordinal()] = notification.getEventDate().atZone(userZone).format(DATE_FORMAT);
+            values[EmailTemplate.Slot.EVENT_TIME.ordinal()] = notification.getEventDate().atZone(userZone).format(TIME_FORMAT);
         }
-        
-        tips.append("</ul>");
-        tips.append("</div>");
-        
-        return tips.toString();
-    }
-
-    private String getEmailSubject(Notification.NotificationType type) {
-        switch (type) {
-            case FOLLOW_UP:
-                return "🔔 Follow-up Reminder - Job Application";
-            case INTERVIEW:
-                return "📅 Interview Reminder - Tomorrow!";
-            case DEADLINE:
-                return "⏰ Assessment Deadline - Tomorrow!";
-            case CUSTOM:
-                return "🔔 Custom Notification";
-            default:
-                return "🔔 Job Tracker Notification";
+        // Application details card (if available)
+        if (app != null) {
+            values[EmailTemplate.Slot.JOB_TITLE.ordinal()] = String.valueOf(app.getJobTitle());
+            values[EmailTemplate.Slot.COMPANY.ordinal()] = String.valueOf(app.getCompanyName());
+            if (app.getJobLocation() != null && !app.getJobLocation().isEmpty()) {
+                values[EmailTemplate.Slot.LOCATION.ordinal()] = app.getJobLocation();
+            }
         }
+        return emailTemplates.render(notification.getType(), values);
     }
-}
\ No newline at end of file
+}
@@ -18,6 +18,10 @@ public class ResumeLLMExtractionService {
     @Value("${openai.enabled:false}")
     private boolean openAiEnabled;
 
+    public boolean isEnabled() {
+        return openAiEnabled;
+    }
+
     public ResumeStructuredData extract(String rawText) {
         if (!openAiEnabled) {
             ResumeStructuredData data = new ResumeStructuredData();
@@ -31,6 +31,7 @@ public class ResumePipelineService {
     private final ResumeParsingService resumeParsingService;
 
     private final ResumeLLMExtractionService resumeLLMExtractionService;
+    private final ResumeRuleExtractionService resumeRuleExtractionService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${aws.s3.bucket:job-tracker-app-v0.1}")
@@ -137,24 +138,26 @@ public class ResumePipelineService {
             // keep rawText stored (same field) for debugging
             record.setRawText(rawText);
 
-            // v2 structured extraction
-            ResumeStructuredData data = resumeLLMExtractionService.extract(rawText);
-
-            if (data.getMetadata() == null) {
-                ResumeStructuredData.Metadata md = new ResumeStructuredData.Metadata();
-                md.setSource("LLM");
-                md.setConfidence(0.7);
-                data.setMetadata(md);
-            } else if (data.getMetadata().getSource() == null) {
-                data.getMetadata().setSource("LLM");
+            // v2 structured extraction: dictionary/rules first (milliseconds, always available),
+            // the LLM only enriches it when enabled
+            ResumeStructuredData data = resumeRuleExtractionService.extract(rawText);
+
+            if (resumeLLMExtractionService.isEnabled()) {
+                try {
+                    data = resumeRuleExtractionService.merge(resumeLLMExtractionService.extract(rawText), data);
+                    record.setModel("gpt-5-mini");
+                } catch (Exception e) {
+                    System.err.println("⚠️ LLM resume extraction failed, keeping rule-based result: " + e.getMessage());
+                    if (data.getMetadata().getWarnings() != null) {
+                        data.getMetadata().getWarnings().add("LLM extraction failed: " + e.getMessage());
+                    }
+                }
             }
 
             // store JSON string in parsedJson (same field; parserVersion distinguishes)
             String parsedJson = objectMapper.writeValueAsString(data);
             record.setParsedJson(parsedJson);
 
-            record.setModel("gpt-5-mini");
-
             record.setStatus("SUCCESS");
             parsedResumeRepository.save(record);
 
@@ -0,0 +1,271 @@
+package com.jobtracker.service;
+
+import com.jobtracker.dto.resume.ResumeStructuredData;
+import com.jobtracker.service.jobmatch.SkillAutomaton;
+import com.jobtracker.service.jobmatch.SkillExtractor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic resume extraction from ParsedResume.rawText, no LLM involved.
+ *
+ * Skills and titles come from the shared SkillExtractor dictionary (one linear pass);
+ * contact details, summary and dated experience entries from simple line rules. The
+ * result is a complete-enough ResumeStructuredData for CandidateProfileBuilderService;
+ * when the LLM is enabled its output is merged on top (see merge).
+ */
+@Service
+public class ResumeRuleExtractionService {
+
+    private static final Pattern EMAIL = Pattern.compile("[\\w.%+-]+@[\\w-]+(?:\\.[\\w-]+)+");
+    private static final Pattern PHONE = Pattern.compile(
+            "(?:\\+?\\d{1,2}[\\s.-]?)?\\(?\\d{3}\\)?[\\s.-]?\\d{3}[\\s.-]?\\d{4}");
+    private static final Pattern LINK = Pattern.compile(
+            "(?i)(?:https?://|www\\.|(?=linkedin\\.com|github\\.com))[^\\s,;|]+");
+
+    private static final String MONTH = "(jan|feb|mar|apr|may|jun|jul|aug|sep|oct|nov|dec)[a-z]*\\.?";
+    private static final Pattern DATE_RANGE = Pattern.compile(
+            "(?i)\\b(?:" + MONTH + "\\s*|(\\d{1,2})/)?((?:19|20)\\d{2})\\s*(?:-|–|—|to)\\s*"
+                    + "(?:(?:" + MONTH + "\\s*|(\\d{1,2})/)?((?:19|20)\\d{2})|(present|current|now|today))");
+    private static final List<String> MONTHS = List.of(
+            "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec");
+
+    private enum Section { NONE, SUMMARY, EXPERIENCE, EDUCATION, OTHER }
+
+    private static final Map<String, Section> HEADINGS = Map.ofEntries(
+            Map.entry("summary", Section.SUMMARY),
+            Map.entry("professional summary", Section.SUMMARY),
+            Map.entry("profile", Section.SUMMARY),
+            Map.entry("about", Section.SUMMARY),
+            Map.entry("about me", Section.SUMMARY),
+            Map.entry("objective", Section.SUMMARY),
+            Map.entry("experience", Section.EXPERIENCE),
+            Map.entry("work experience", Section.EXPERIENCE),
+            Map.entry("professional experience", Section.EXPERIENCE),
+            Map.entry("employment", Section.EXPERIENCE),
+            Map.entry("employment history", Section.EXPERIENCE),
+            Map.entry("work history", Section.EXPERIENCE),
+            Map.entry("education", Section.EDUCATION),
+            Map.entry("projects", Section.OTHER),
+            Map.entry("skills", Section.OTHER),
+            Map.entry("technical skills", Section.OTHER),
+            Map.entry("certifications", Section.OTHER),
+            Map.entry("awards", Section.OTHER),
+            Map.entry("publications", Section.OTHER),
+            Map.entry("volunteering", Section.OTHER),
+            Map.entry("interests", Section.OTHER),
+            Map.entry("languages", Section.OTHER)
+    );
+
+    private static final int MAX_SUMMARY = 1000;
+
+    private final SkillExtractor skillExtractor;
+    private final Timer extractTimer;
+
+    public ResumeRuleExtractionService(SkillExtractor skillExtractor, MeterRegistry meterRegistry) {
+        this.skillExtractor = skillExtractor;
+        this.extractTimer = Timer.builder("resume.extract.rules")
+                .description("Time to extract a structured resume from raw text without the LLM")
+                .register(meterRegistry);
+    }
+
+    public ResumeStructuredData extract(String rawText) {
+        return extractTimer.record(() -> doExtract(rawText == null ? "" : rawText));
+    }
+
+    private ResumeStructuredData doExtract(String text) {
+        ResumeStructuredData data = new ResumeStructuredData();
+        List<String> warnings = new ArrayList<>();
+        String[] lines = text.split("\\R");
+
+        // Contact details
+        ResumeStructuredData.Basics basics = new ResumeStructuredData.Basics();
+        basics.setEmail(firstMatch(EMAIL, text));
+        basics.setPhone(firstMatch(PHONE, text));
+        basics.setFullName(guessName(lines));
+        basics.setLinks(links(text));
+        data.setBasics(basics);
+
+        // Skills and titles mentioned anywhere, one pass over the whole text
+        SkillAutomaton.Extraction found = skillExtractor.extractAll(text);
+        ResumeStructuredData.Skills skills = new ResumeStructuredData.Skills();
+        skills.setPrimary(found.skills());
+        data.setSkills(skills);
+        if (found.skills().isEmpty()) warnings.add("No known skills found in resume text");
+
+        // Line rules: summary section, dated experience entries
+        StringBuilder summary = new StringBuilder();
+        List<ResumeStructuredData.Experience> experience = new ArrayList<>();
+        Section section = Section.NONE;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty()) continue;
+
+            Section heading = heading(line);
+            if (heading != null) {
+                section = heading;
+                continue;
+            }
+
+            if (section == Section.SUMMARY && summary.length() < MAX_SUMMARY) {
+                if (!summary.isEmpty()) summary.append(' ');
+                summary.append(line);
+                continue;
+            }
+
+            if (section == Section.EDUCATION || section == Section.OTHER) continue;
+            Matcher m = DATE_RANGE.matcher(line);
+            if (!m.find()) continue;
+
+            // Title on the same line, else on the line above (common "Title - Company" / dates layouts)
+            String title = firstTitle(line, i > 0 ? lines[i - 1] : null);
+            if (section == Section.NONE && title == null) continue; // undated sections, education, ...
+
+            ResumeStructuredData.Experience e = new ResumeStructuredData.Experience();
+            e.setTitle(title);
+            e.setStartDate(yearMonth(m.group(3), m.group(1), m.group(2)));
+            e.setEndDate(m.group(7) != null ? "PRESENT" : yearMonth(m.group(6), m.group(4), m.group(5)));
+            experience.add(e);
+        }
+
+        // Titles without dates still tell the builder what the candidate does
+        if (experience.isEmpty()) {
+            for (String t : found.titles()) {
+                ResumeStructuredData.Experience e = new ResumeStructuredData.Experience();
+                e.setTitle(t);
+                experience.add(e);
+            }
+            if (!found.titles().isEmpty()) warnings.add("No dated experience found; titles only");
+        }
+        data.setExperience(experience);
+        if (!found.titles().isEmpty()) basics.setHeadline(found.titles().get(0));
+
+        if (!summary.isEmpty()) {
+            data.setSummary(summary.length() > MAX_SUMMARY ? summary.substring(0, MAX_SUMMARY) : summary.toString());
+        }
+
+        ResumeStructuredData.Metadata md = new ResumeStructuredData.Metadata();
+        md.setSource("RULES");
+        md.setConfidence(0.5);
+        md.setWarnings(warnings);
+        data.setMetadata(md);
+        return data;
+    }
+
+    /**
+     * LLM output enriched with what the rules found: missing contact fields and summary,
+     * dictionary skills the LLM didn't list, and dated experience if the LLM had none
+     */
+    public ResumeStructuredData merge(ResumeStructuredData llm, ResumeStructuredData rules) {
+        if (llm == null) return rules;
+
+        if (llm.getBasics() == null) {
+            llm.setBasics(rules.getBasics());
+        } else if (rules.getBasics() != null) {
+            ResumeStructuredData.Basics b = llm.getBasics();
+            ResumeStructuredData.Basics r = rules.getBasics();
+            if (isBlank(b.getFullName())) b.setFullName(r.getFullName());
+            if (isBlank(b.getEmail())) b.setEmail(r.getEmail());
+            if (isBlank(b.getPhone())) b.setPhone(r.getPhone());
+            if (isBlank(b.getHeadline())) b.setHeadline(r.getHeadline());
+            if (b.getLinks() == null || b.getLinks().isEmpty()) b.setLinks(r.getLinks());
+        }
+        if (isBlank(llm.getSummary())) llm.setSummary(rules.getSummary());
+
+        if (llm.getSkills() == null) llm.setSkills(new ResumeStructuredData.Skills());
+        ResumeStructuredData.Skills s = llm.getSkills();
+        Set<String> known = new HashSet<>();
+        known.addAll(skillExtractor.canonicalize(s.getPrimary()));
+        known.addAll(skillExtractor.canonicalize(s.getSecondary()));
+        known.addAll(skillExtractor.canonicalize(s.getTools()));
+        known.addAll(skillExtractor.canonicalize(s.getLanguages()));
+        List<String> secondary = s.getSecondary() == null ? new ArrayList<>() : new ArrayList<>(s.getSecondary());
+        for (String skill : rules.getSkills().getPrimary()) {
+            if (known.add(skill)) secondary.add(skill);
+        }
+        s.setSecondary(secondary);
+
+        if (llm.getExperience() == null || llm.getExperience().isEmpty()) {
+            llm.setExperience(rules.getExperience());
+        }
+
+        if (llm.getMetadata() == null) llm.setMetadata(new ResumeStructuredData.Metadata());
+        llm.getMetadata().setSource("LLM+RULES");
+        return llm;
+    }
+
+    private String firstTitle(String line, String previous) {
+        List<String> titles = skillExtractor.extractAll(line).titles();
+        if (titles.isEmpty() && previous != null) titles = skillExtractor.extractAll(previous).titles();
+        return titles.isEmpty() ? null : titles.get(0);
+    }
+
+    private static Section heading(String line) {
+        if (line.length() > 40) return null;
+        String h = line.toLowerCase(Locale.ROOT).replaceAll("[:\\s]+$", "").trim();
+        return HEADINGS.get(h);
+    }
+
+    // First short line of letters only near the top, e.g. "Jane Q. Doe"
+    private static String guessName(String[] lines) {
+        int checked = 0;
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty()) continue;
+            if (++checked > 5) break;
+            if (heading(line) != null || line.contains("@")) continue;
+            String[] words = line.split("\\s+");
+            if (words.length < 2 || words.length > 4) continue;
+            boolean letters = true;
+            for (String w : words) {
+                if (!w.matches("[\\p{L}][\\p{L}.'-]*")) {
+                    letters = false;
+                    break;
+                }
+            }
+            if (letters) return line;
+        }
+        return null;
+    }
+
+    private static List<ResumeStructuredData.Link> links(String text) {
+        List<ResumeStructuredData.Link> links = new ArrayList<>();
+        Matcher m = LINK.matcher(text);
+        while (m.find() && links.size() < 5) {
+            String url = m.group();
+            ResumeStructuredData.Link link = new ResumeStructuredData.Link();
+            String lower = url.toLowerCase(Locale.ROOT);
+            link.setLabel(lower.contains("linkedin.com") ? "LinkedIn" : lower.contains("github.com") ? "GitHub" : "Website");
+            link.setUrl(url);
+            links.add(link);
+        }
+        return links;
+    }
+
+    private static String firstMatch(Pattern p, String text) {
+        Matcher m = p.matcher(text);
+        return m.find() ? m.group().trim() : null;
+    }
+
+    // YYYY-MM from a year plus an optional month name or number (missing month: January)
+    private static String yearMonth(String year, String monthName, String monthNumber) {
+        if (year == null) return null;
+        int month = 1;
+        if (monthName != null) {
+            month = MONTHS.indexOf(monthName.toLowerCase(Locale.ROOT).substring(0, 3)) + 1;
+        } else if (monthNumber != null) {
+            int n = Integer.parseInt(monthNumber);
+            if (n >= 1 && n <= 12) month = n;
+        }
+        return String.format("%s-%02d", year, month);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
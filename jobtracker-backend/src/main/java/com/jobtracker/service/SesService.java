@@ -6,6 +6,11 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
+import java.util.List;
+
+/**
+ * Thin SES calls. Rate limiting, concurrency and batching live in MailDispatcher.
+ */
 @Service
 public class SesService {
 
@@ -20,61 +25,66 @@ public class SesService {
     }
 
     public void sendHtmlEmail(String toAddress, String subject, String htmlBody) {
-        System.out.println("📧 ========== EMAIL SENDING DEBUG ==========");
-        System.out.println("📧 Time: " + java.time.LocalDateTime.now());
-        System.out.println("📧 Sender: " + senderEmail);
-        System.out.println("📧 Recipient: " + toAddress);
-        System.out.println("📧 Subject: " + subject);
-        
-        try {
-            Destination destination = Destination.builder()
-                    .toAddresses(toAddress)
-                    .build();
-            System.out.println("✅ Destination built");
+        String messageId = send(toAddress, subject, htmlBody);
+        System.out.println("✅ Email sent to " + toAddress + " (MessageId " + messageId + ")");
+    }
 
-            Message msg = Message.builder()
-                    .subject(Content.builder().data(subject).build())
-                    .body(Body.builder()
-                            .html(Content.builder().data(htmlBody).build())
+    /**
+     * Send one HTML email; returns the SES message ID
+     */
+    public String send(String toAddress, String subject, String htmlBody) {
+        try {
+            SendEmailRequest req = SendEmailRequest.builder()
+                    .destination(Destination.builder().toAddresses(toAddress).build())
+                    .message(Message.builder()
+                            .subject(Content.builder().data(subject).build())
+                            .body(Body.builder()
+                                    .html(Content.builder().data(htmlBody).build())
+                                    .build())
                             .build())
+                    .source(senderEmail)
                     .build();
-            System.out.println("✅ Message built");
+            return sesClient.sendEmail(req).messageId();
+        } catch (SesException e) {
+            throw failure(toAddress, e);
+        }
+    }
 
-            SendEmailRequest req = SendEmailRequest.builder()
-                    .destination(destination)
-                    .message(msg)
+    /**
+     * One SendBulkTemplatedEmail call (at most 50 destinations); statuses are in destination order
+     */
+    public List<BulkEmailDestinationStatus> sendBulkTemplated(String template, String defaultTemplateData,
+                                                              List<BulkEmailDestination> destinations) {
+        try {
+            SendBulkTemplatedEmailRequest req = SendBulkTemplatedEmailRequest.builder()
                     .source(senderEmail)
+                    .template(template)
+                    .defaultTemplateData(defaultTemplateData)
+                    .destinations(destinations)
                     .build();
-            System.out.println("✅ Request built");
-
-            System.out.println("📤 Sending via AWS SES...");
-            SendEmailResponse response = sesClient.sendEmail(req);
-            
-            System.out.println("✅ ========== EMAIL SENT SUCCESSFULLY ==========");
-            System.out.println("✅ MessageId: " + response.messageId());
-            System.out.println("✅ To: " + toAddress);
-            System.out.println("================================================");
-            
-        } catch (MessageRejectedException e) {
-            System.err.println("❌ EMAIL REJECTED");
-            System.err.println("❌ Message: " + e.getMessage());
-            System.err.println("❌ Reason: " + e.awsErrorDetails().errorMessage());
-            System.err.println("❌ Action: Verify email in AWS SES Console");
-            throw new RuntimeException("Email rejected: " + e.getMessage(), e);
-            
+            return sesClient.sendBulkTemplatedEmail(req).status();
         } catch (SesException e) {
-            System.err.println("❌ AWS SES ERROR");
-            System.err.println("❌ Error Code: " + e.awsErrorDetails().errorCode());
-            System.err.println("❌ Error Message: " + e.awsErrorDetails().errorMessage());
-            System.err.println("❌ Service: " + e.awsErrorDetails().serviceName());
-            throw new RuntimeException("SES error: " + e.getMessage(), e);
-            
+            throw failure(template + " x" + destinations.size(), e);
+        }
+    }
+
+    /**
+     * Account send rate (emails/second), or 0 if SES can't be asked
+     */
+    public double maxSendRate() {
+        try {
+            return sesClient.getSendQuota().maxSendRate();
         } catch (Exception e) {
-            System.err.println("❌ UNEXPECTED ERROR");
-            System.err.println("❌ Type: " + e.getClass().getName());
-            System.err.println("❌ Message: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+            System.err.println("⚠️ Could not read SES send quota: " + e.getMessage());
+            return 0;
         }
     }
-}
\ No newline at end of file
+
+    private static RuntimeException failure(String target, SesException e) {
+        String code = e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : "unknown";
+        System.err.println("❌ SES " + (e instanceof MessageRejectedException ? "rejected" : "error")
+                + " for " + target + " [" + code + "]: " + e.getMessage());
+        return new RuntimeException((e instanceof MessageRejectedException ? "Email rejected: " : "SES error: ")
+                + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,166 @@
+package com.jobtracker.service;
+
+import com.jobtracker.model.NotificationPreference;
+import com.jobtracker.model.User;
+import com.jobtracker.repository.NotificationPreferenceRepository;
+import com.jobtracker.repository.UserRepository;
+import com.jobtracker.service.cache.BoundedCache;
+import com.jobtracker.service.cache.CacheInvalidationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user settings the notification paths read all the time: the user, their resolved
+ * ZoneId and their notification preferences (defaults when none are saved).
+ *
+ * Bounded and TTL'd; entries are evicted when a User or NotificationPreference is saved or
+ * deleted (UserSettingsInvalidationListener), and the eviction is broadcast to the other
+ * nodes over the CacheInvalidationBus. The TTL only bounds staleness if a broadcast is lost.
+ */
+@Service
+public class UserSettingsCache {
+
+    public static final String CHANNEL = "user-settings";
+    private static final String ALL = "*";
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final Map<String, String> TZ_ABBR = Map.of(
+            "EST", "America/Toronto", "EDT", "America/Toronto",
+            "PST", "America/Los_Angeles", "PDT", "America/Los_Angeles",
+            "CST", "America/Chicago", "CDT", "America/Chicago",
+            "IST", "Asia/Kolkata"
+    );
+
+    /**
+     * user is null when the account doesn't exist (cached too, so unknown IDs don't hit Mongo)
+     */
+    public record UserSettings(String userId, User user, ZoneId zone, NotificationPreference preference) {}
+
+    private final UserRepository userRepository;
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final CacheInvalidationBus bus;
+    private final long ttlNanos;
+
+    private final BoundedCache<String, Entry> entries;
+    // Bumped on every eviction; a load that raced one is returned but not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserSettingsCache(UserRepository userRepository,
+                             NotificationPreferenceRepository preferenceRepository,
+                             CacheInvalidationBus bus,
+                             @Value("${jobs.userSettings.ttlSeconds:600}") long ttlSeconds,
+                             @Value("${jobs.userSettings.maxEntries:20000}") int maxEntries,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.bus = bus;
+        this.ttlNanos = Duration.ofSeconds(Math.max(ttlSeconds, 1)).toNanos();
+        this.entries = new BoundedCache<>(Math.max(maxEntries, 100));
+        this.hits = meterRegistry.counter("jobs.userSettings.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jobs.userSettings.cache", "result", "miss");
+        meterRegistry.gauge("jobs.userSettings.cache.size", Tags.empty(), entries, BoundedCache::size);
+        bus.subscribe(CHANNEL, this::evictLocal);
+    }
+
+    public UserSettings get(String userId) {
+        return getAll(Set.of(userId)).get(userId);
+    }
+
+    public ZoneId zone(String userId) {
+        return get(userId).zone();
+    }
+
+    /**
+     * Settings for every ID; misses are loaded together (one query per collection)
+     */
+    public Map<String, UserSettings> getAll(Collection<String> userIds) {
+        Map<String, UserSettings> result = new HashMap<>(userIds.size() * 2);
+        Set<String> missing = new HashSet<>();
+        long now = System.nanoTime();
+        for (String id : userIds) {
+            Entry e = entries.get(id);
+            if (e != null && now - e.loadedAt < ttlNanos) {
+                result.put(id, e.settings);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.increment(result.size());
+        if (missing.isEmpty()) return result;
+        misses.increment(missing.size());
+
+        long generation = evictions.get();
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(missing).forEach(u -> users.put(u.getUserId(), u));
+        Map<String, NotificationPreference> prefs = new HashMap<>();
+        for (NotificationPreference p : preferenceRepository.findByUserIdIn(missing)) {
+            prefs.putIfAbsent(p.getUserId(), p);
+        }
+
+        boolean cacheable = evictions.get() == generation;
+        for (String id : missing) {
+            User user = users.get(id);
+            NotificationPreference pref = prefs.get(id);
+            if (pref == null) pref = new NotificationPreference(id, true, true, Instant.now());
+            UserSettings settings = new UserSettings(id, user, zoneOf(user), pref);
+            result.put(id, settings);
+            if (cacheable) entries.put(id, new Entry(settings, now));
+        }
+        return result;
+    }
+
+    /**
+     * Drop a user's settings here and on every other node
+     */
+    public void invalidate(String userId) {
+        evictLocal(userId);
+        bus.publish(CHANNEL, userId);
+    }
+
+    public void invalidateAll() {
+        evictLocal(ALL);
+        bus.publish(CHANNEL, ALL);
+    }
+
+    private void evictLocal(String userId) {
+        evictions.incrementAndGet();
+        if (ALL.equals(userId)) {
+            entries.clear();
+        } else {
+            entries.remove(userId);
+        }
+    }
+
+    /**
+     * The user's IANA zone; US/IST abbreviations are mapped, anything unknown or unset is UTC
+     */
+    public static ZoneId zoneOf(User user) {
+        String id = user == null ? null : user.getTimezone();
+
+        if (id == null || id.isBlank()) return UTC;
+        String canonical = TZ_ABBR.getOrDefault(id.trim(), id.trim());
+        try {
+            return ZoneId.of(canonical); // IANA only
+        } catch (Exception e) {
+            return UTC;
+        }
+    }
+
+    private record Entry(UserSettings settings, long loadedAt) {}
+}
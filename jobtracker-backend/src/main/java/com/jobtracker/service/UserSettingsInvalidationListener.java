@@ -0,0 +1,42 @@
+package com.jobtracker.service;
+
+import com.jobtracker.model.NotificationPreference;
+import com.jobtracker.model.User;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached user settings whenever a User or NotificationPreference is saved or deleted,
+ * whichever code path does it (profile edits, preference updates, OAuth sign-up).
+ */
+@Component
+public class UserSettingsInvalidationListener extends AbstractMongoEventListener<Object> {
+
+    private final UserSettingsCache settingsCache;
+
+    public UserSettingsInvalidationListener(UserSettingsCache settingsCache) {
+        this.settingsCache = settingsCache;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (event.getSource() instanceof User user && user.getUserId() != null) {
+            settingsCache.invalidate(user.getUserId());
+        } else if (event.getSource() instanceof NotificationPreference pref && pref.getUserId() != null) {
+            settingsCache.invalidate(pref.getUserId());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if ("users".equals(event.getCollectionName())) {
+            Object id = event.getSource().get("_id");
+            if (id != null) settingsCache.invalidate(id.toString());
+        } else if ("notification_preferences".equals(event.getCollectionName())) {
+            // Deleted by preference ID, not user ID
+            settingsCache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jobtracker.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded in-process map with least-recently-used eviction, for the caches that keep a
+ * hot set of per-ID data (listing cards, listing term sets, match rankings, user settings).
+ *
+ * Keys are spread over segments, each an access-ordered LinkedHashMap under its own lock, so
+ * callers only contend within a segment. Eviction is exact LRU inside a segment and close to
+ * LRU overall; the bound is maxEntries rounded up to a multiple of the segment count.
+ */
+public final class BoundedCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    public BoundedCache(int maxEntries) {
+        this(maxEntries, SEGMENTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    BoundedCache(int maxEntries, int segmentCount) {
+        int n = Integer.highestOneBit(Math.max(segmentCount, 1));
+        int perSegment = Math.max((Math.max(maxEntries, 1) + n - 1) / n, 1);
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * The cached value, or null; a hit makes the entry the most recently used of its segment
+     */
+    public V get(K key) {
+        Segment<K, V> s = segmentFor(key);
+        synchronized (s) {
+            return s.get(key);
+        }
+    }
+
+    /**
+     * Insert or replace; evicts the least recently used entry of the segment when it is full
+     */
+    public void put(K key, V value) {
+        Segment<K, V> s = segmentFor(key);
+        synchronized (s) {
+            s.put(key, value);
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> s = segmentFor(key);
+        synchronized (s) {
+            s.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> s : segments) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> s : segments) {
+            synchronized (s) {
+                size += s.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(Math.min(capacity, 1024), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
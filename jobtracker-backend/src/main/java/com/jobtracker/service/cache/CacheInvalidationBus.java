@@ -0,0 +1,149 @@
+package com.jobtracker.service.cache;
+
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cross-node cache invalidation over a small capped Mongo collection.
+ *
+ * publish() appends {channel, key, node}; every node tails the collection with a tailable
+ * cursor and hands other nodes' messages to the local subscribers of that channel. No extra
+ * infrastructure, and it works on a standalone mongod (unlike change streams). Delivery is
+ * best effort: subscribers only evict, so a replay after reconnect is harmless, and a lost
+ * message is bounded by the cache's own TTL.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final String COLLECTION = "cache_invalidations";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long capBytes;
+    private final String nodeId = "node-" + UUID.randomUUID();
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread tailer;
+
+    public CacheInvalidationBus(MongoTemplate mongoTemplate,
+                                @Value("${jobs.cacheBus.enabled:true}") boolean enabled,
+                                @Value("${jobs.cacheBus.capBytes:1048576}") long capBytes) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.capBytes = Math.max(capBytes, 4096);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            System.out.println("📡 Cache invalidation bus disabled (single node)");
+            return;
+        }
+        running = true;
+        tailer = new Thread(this::tail, "cache-bus");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (tailer != null) tailer.interrupt();
+    }
+
+    public void subscribe(String channel, Consumer<String> subscriber) {
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    /**
+     * Tell the other nodes to drop key from channel's cache (the caller has already dropped its own)
+     */
+    public void publish(String channel, String key) {
+        if (!enabled) return;
+        try {
+            mongoTemplate.getCollection(COLLECTION)
+                    .insertOne(new Document("channel", channel).append("key", key).append("node", nodeId));
+        } catch (Exception e) {
+            // Other nodes fall back to the TTL for this key
+            System.err.println("⚠️ Cache invalidation publish failed (" + channel + "/" + key + "): " + e.getMessage());
+        }
+    }
+
+    private void tail() {
+        while (running) {
+            try {
+                MongoCollection<Document> collection = ensureCollection();
+                // A tailable cursor on an empty capped collection is dead on arrival
+                if (collection.estimatedDocumentCount() == 0) {
+                    collection.insertOne(new Document("channel", "").append("key", "").append("node", nodeId));
+                }
+                // From the start of the (small) collection: replayed evictions are harmless
+                try (MongoCursor<Document> cursor = collection.find()
+                        .cursorType(CursorType.TailableAwait)
+                        .maxAwaitTime(1, TimeUnit.SECONDS)
+                        .noCursorTimeout(true)
+                        .iterator()) {
+                    while (running && cursor.getServerCursor() != null) {
+                        Document message = cursor.tryNext();
+                        if (message != null && !nodeId.equals(message.getString("node"))) {
+                            deliver(message.getString("channel"), message.getString("key"));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) return;
+                System.err.println("⚠️ Cache invalidation bus: " + e.getMessage() + "; reconnecting");
+                sleep(5000);
+            }
+        }
+    }
+
+    private void deliver(String channel, String key) {
+        List<Consumer<String>> list = subscribers.get(channel);
+        if (list == null || key == null) return;
+        for (Consumer<String> subscriber : list) {
+            try {
+                subscriber.accept(key);
+            } catch (Exception e) {
+                System.err.println("⚠️ Cache invalidation subscriber failed (" + channel + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private MongoCollection<Document> ensureCollection() {
+        if (!mongoTemplate.collectionExists(COLLECTION)) {
+            try {
+                mongoTemplate.createCollection(COLLECTION, CollectionOptions.empty().capped().size(capBytes));
+                System.out.println("📡 Created capped collection '" + COLLECTION + "' (" + capBytes + " bytes)");
+            } catch (Exception e) {
+                // Another node created it first
+            }
+        }
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    private void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.jobtracker.service.cache;
+
+import com.jobtracker.model.SharedSearchCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for the shared search cache.
+ * Used for single-node/local runs and tests (jobs.searchCache.store=memory).
+ */
+public class InMemorySearchCacheStore implements SearchCacheStore {
+
+    private final ConcurrentHashMap<String, SharedSearchCache> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<SharedSearchCache> get(String userId) {
+        SharedSearchCache e = entries.get(userId);
+        if (e == null || e.getJobIds() == null || isExpired(e)) return Optional.empty();
+        return Optional.of(copy(e));
+    }
+
+    @Override
+    public Optional<Long> version(String userId) {
+        return get(userId).map(SharedSearchCache::getVersion);
+    }
+
+    @Override
+    public OptionalLong put(String userId, String owner, String query, String location, List<String> jobIds, Instant expiresAt) {
+        Instant now = Instant.now();
+        boolean[] stored = new boolean[1];
+        SharedSearchCache updated = entries.compute(userId, (k, e) -> {
+            if (e != null && heldByOther(e, owner, now)) return e;
+            stored[0] = true;
+            SharedSearchCache next = e != null ? e : new SharedSearchCache();
+            next.setUserId(userId);
+            next.setQuery(query);
+            next.setLocation(location);
+            next.setJobIds(List.copyOf(jobIds));
+            next.setCachedAt(Instant.now());
+            next.setExpiresAt(expiresAt);
+            next.setVersion(next.getVersion() + 1);
+            next.setFillOwner(null);
+            next.setFillLeaseUntil(null);
+            return next;
+        });
+        return stored[0] ? OptionalLong.of(updated.getVersion()) : OptionalLong.empty();
+    }
+
+    @Override
+    public boolean tryAcquireFill(String userId, String owner, Duration lease) {
+        Instant now = Instant.now();
+        SharedSearchCache locked = entries.compute(userId, (k, e) -> {
+            SharedSearchCache next = e != null ? e : new SharedSearchCache();
+            next.setUserId(userId);
+            if (next.getFillLeaseUntil() == null || next.getFillLeaseUntil().isBefore(now)) {
+                next.setFillOwner(owner);
+                next.setFillLeaseUntil(now.plus(lease));
+            }
+            return next;
+        });
+        return owner.equals(locked.getFillOwner());
+    }
+
+    @Override
+    public void releaseFill(String userId, String owner) {
+        entries.computeIfPresent(userId, (k, e) -> {
+            if (owner.equals(e.getFillOwner())) {
+                e.setFillOwner(null);
+                e.setFillLeaseUntil(null);
+            }
+            return e;
+        });
+    }
+
+    @Override
+    public void evict(String userId) {
+        entries.remove(userId);
+    }
+
+    @Override
+    public void evictAll() {
+        entries.clear();
+    }
+
+    private boolean heldByOther(SharedSearchCache e, String owner, Instant now) {
+        return e.getFillLeaseUntil() != null && !e.getFillLeaseUntil().isBefore(now)
+                && !owner.equals(e.getFillOwner());
+    }
+
+    private boolean isExpired(SharedSearchCache e) {
+        return e.getExpiresAt() == null || !Instant.now().isBefore(e.getExpiresAt());
+    }
+
+    private SharedSearchCache copy(SharedSearchCache e) {
+        SharedSearchCache c = new SharedSearchCache();
+        c.setUserId(e.getUserId());
+        c.setQuery(e.getQuery());
+        c.setLocation(e.getLocation());
+        c.setJobIds(e.getJobIds());
+        c.setVersion(e.getVersion());
+        c.setCachedAt(e.getCachedAt());
+        c.setExpiresAt(e.getExpiresAt());
+        c.setFillOwner(e.getFillOwner());
+        c.setFillLeaseUntil(e.getFillLeaseUntil());
+        return c;
+    }
+}
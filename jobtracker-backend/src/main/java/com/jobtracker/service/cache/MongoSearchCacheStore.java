@@ -0,0 +1,127 @@
+package com.jobtracker.service.cache;
+
+import com.jobtracker.model.SharedSearchCache;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Mongo-backed L2 search cache. Expiry is enforced by the TTL index on
+ * {@code expiresAt}; reads also filter on it because the TTL monitor only runs once a minute.
+ */
+public class MongoSearchCacheStore implements SearchCacheStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoSearchCacheStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<SharedSearchCache> get(String userId) {
+        Query q = liveEntry(userId);
+        return Optional.ofNullable(mongoTemplate.findOne(q, SharedSearchCache.class));
+    }
+
+    @Override
+    public Optional<Long> version(String userId) {
+        Query q = liveEntry(userId);
+        q.fields().include("version");
+        SharedSearchCache entry = mongoTemplate.findOne(q, SharedSearchCache.class);
+        return entry == null ? Optional.empty() : Optional.of(entry.getVersion());
+    }
+
+    @Override
+    public OptionalLong put(String userId, String owner, String query, String location, List<String> jobIds, Instant expiresAt) {
+        // Our own lease, no lease, or a lapsed one; a live lease of another node's fill is left alone
+        Query q = Query.query(new Criteria().andOperator(
+                Criteria.where("_id").is(userId),
+                new Criteria().orOperator(
+                        Criteria.where("fillOwner").is(owner),
+                        Criteria.where("fillLeaseUntil").is(null),
+                        Criteria.where("fillLeaseUntil").lt(Instant.now()))));
+
+        Update update = new Update()
+                .set("query", query)
+                .set("location", location)
+                .set("jobIds", jobIds)
+                .set("cachedAt", Instant.now())
+                .set("expiresAt", expiresAt)
+                .inc("version", 1)
+                .unset("fillOwner")
+                .unset("fillLeaseUntil");
+
+        try {
+            SharedSearchCache saved = mongoTemplate.findAndModify(
+                    q, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    SharedSearchCache.class);
+            return saved != null ? OptionalLong.of(saved.getVersion()) : OptionalLong.empty();
+        } catch (DuplicateKeyException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public boolean tryAcquireFill(String userId, String owner, Duration lease) {
+        Instant now = Instant.now();
+        Instant leaseUntil = now.plus(lease);
+
+        // Matches when nobody holds the lease or it has lapsed (crashed node).
+        // If another node holds it, the upsert collides on _id and we lose the race.
+        Query q = Query.query(new Criteria().andOperator(
+                Criteria.where("_id").is(userId),
+                new Criteria().orOperator(
+                        Criteria.where("fillLeaseUntil").is(null),
+                        Criteria.where("fillLeaseUntil").lt(now))));
+
+        Update update = new Update()
+                .set("fillOwner", owner)
+                .set("fillLeaseUntil", leaseUntil)
+                .setOnInsert("version", 0L)
+                .setOnInsert("expiresAt", leaseUntil);
+
+        try {
+            SharedSearchCache locked = mongoTemplate.findAndModify(
+                    q, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    SharedSearchCache.class);
+            return locked != null && owner.equals(locked.getFillOwner());
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void releaseFill(String userId, String owner) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId).and("fillOwner").is(owner)),
+                new Update().unset("fillOwner").unset("fillLeaseUntil"),
+                SharedSearchCache.class);
+    }
+
+    @Override
+    public void evict(String userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), SharedSearchCache.class);
+    }
+
+    @Override
+    public void evictAll() {
+        mongoTemplate.remove(new Query(), SharedSearchCache.class);
+    }
+
+    private Query liveEntry(String userId) {
+        return Query.query(Criteria.where("_id").is(userId)
+                .and("jobIds").exists(true)
+                .and("expiresAt").gt(Instant.now()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.jobtracker.service.cache;
+
+import com.jobtracker.model.SharedSearchCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Shared (L2) store for per-user search results.
+ * Entries hold only ordered job IDs; the caller hydrates listings itself.
+ */
+public interface SearchCacheStore {
+
+    /**
+     * Get the live entry for a user (expired entries are treated as absent)
+     */
+    Optional<SharedSearchCache> get(String userId);
+
+    /**
+     * Get only the version of the live entry - cheap revalidation for L1 copies
+     */
+    Optional<Long> version(String userId);
+
+    /**
+     * Store fresh results, bump the version and release the fill lease - unless another
+     * owner holds a live lease, in which case nothing is written (its fill wins).
+     * @return the new version, or empty when the entry belongs to another owner's fill
+     */
+    OptionalLong put(String userId, String owner, String query, String location, List<String> jobIds, Instant expiresAt);
+
+    /**
+     * Try to become the single node that fills this user's entry
+     */
+    boolean tryAcquireFill(String userId, String owner, Duration lease);
+
+    /**
+     * Release a fill lease without storing results (e.g. the search failed)
+     */
+    void releaseFill(String userId, String owner);
+
+    void evict(String userId);
+
+    void evictAll();
+}
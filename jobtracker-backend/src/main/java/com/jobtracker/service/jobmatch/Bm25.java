@@ -0,0 +1,73 @@
+package com.jobtracker.service.jobmatch;
+
+/**
+ * BM25 over a listing's term sets, for one candidate.
+ *
+ * Term sets are binary, so tf counts the fields a term appears in (all, primary,
+ * skills): a term in the title or skills list weighs more than one only in the
+ * description. Document length is |all|. Scores are divided by the best score any
+ * listing could reach for this candidate, so they stay in 0..1 like the F1 scorer.
+ *
+ * Corpus statistics (document frequency, average length) come from JobMatchIndex,
+ * which maintains them incrementally as listings are indexed and removed.
+ */
+public final class Bm25 {
+
+    public static final double K1 = 1.2;
+    public static final double B = 0.75;
+
+    private static final int MAX_TF = 3;
+
+    private final int[] candidate;
+    private final double[] idf;
+    private final double avgLength;
+    private final double norm;
+
+    /**
+     * @param candidate  sorted candidate term IDs
+     * @param df         document frequency per term ID (IDs past the end have df 0)
+     * @param docCount   listings the statistics cover
+     * @param avgLength  average |all| over those listings
+     */
+    public Bm25(int[] candidate, int[] df, int docCount, double avgLength) {
+        this.candidate = candidate;
+        this.idf = new double[candidate.length];
+        this.avgLength = avgLength > 0 ? avgLength : 1.0;
+
+        double best = 0.0;
+        for (int i = 0; i < candidate.length; i++) {
+            int term = candidate[i];
+            int n = term < df.length ? df[term] : 0;
+            idf[i] = Math.log(1.0 + (docCount - n + 0.5) / (n + 0.5));
+            best += idf[i] * saturation(MAX_TF, 0);
+        }
+        this.norm = best;
+    }
+
+    public double score(EncodedTerms doc) {
+        if (norm == 0.0) return 0.0;
+        int len = doc.all().length;
+        double s = 0.0;
+        for (int i = 0; i < candidate.length; i++) {
+            int term = candidate[i];
+            int tf = (TermSets.contains(doc.all(), term) ? 1 : 0)
+                    + (TermSets.contains(doc.primary(), term) ? 1 : 0)
+                    + (TermSets.contains(doc.skills(), term) ? 1 : 0);
+            if (tf > 0) s += idf[i] * saturation(tf, len);
+        }
+        return s / norm;
+    }
+
+    /**
+     * Most the i-th candidate term can add to any listing's score, given the most fields
+     * it occurs in and the shortest listing containing it
+     */
+    public double upperBound(int i, int maxTf, int minLength) {
+        if (norm == 0.0 || maxTf == 0) return 0.0;
+        return idf[i] * saturation(Math.min(maxTf, MAX_TF), minLength) / norm;
+    }
+
+    private double saturation(int tf, int length) {
+        return tf * (K1 + 1.0) / (tf + K1 * (1.0 - B + B * length / avgLength));
+    }
+}
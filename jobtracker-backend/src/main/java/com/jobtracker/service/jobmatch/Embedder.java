@@ -0,0 +1,20 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.Map;
+
+/**
+ * Turns weighted match terms into a fixed-size, L2-normalized vector for the vector index.
+ * The default is HashingEmbedder; a model-backed embedder can replace it by declaring
+ * its own Embedder bean and setting jobs.vectorIndex.embedder to something else.
+ */
+public interface Embedder {
+
+    /**
+     * Identifies the vector space; snapshots written by a different embedder are discarded
+     */
+    String name();
+
+    int dimension();
+
+    float[] embed(Map<String, Float> weightedTerms);
+}
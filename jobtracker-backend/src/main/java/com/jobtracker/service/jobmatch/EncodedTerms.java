@@ -0,0 +1,17 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.JobListing;
+
+/**
+ * A listing's stored match terms as int[] term sets (see TermSets).
+ * Sizes equal the stored list sizes, since stored lists are already de-duplicated.
+ */
+public record EncodedTerms(int[] primary, int[] all, int[] skills) {
+
+    public static EncodedTerms of(JobListing j, TermDictionary dict) {
+        return new EncodedTerms(
+                TermSets.encode(j.getPrimaryTerms(), dict),
+                TermSets.encode(j.getAllTerms(), dict),
+                TermSets.encode(j.getSkillTerms(), dict));
+    }
+}
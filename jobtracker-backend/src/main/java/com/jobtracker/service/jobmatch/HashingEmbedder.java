@@ -0,0 +1,77 @@
+package com.jobtracker.service.jobmatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Local embedder, no model download: each term is hashed into a few signed buckets
+ * (a sparse random projection of the term space), then the vector is L2-normalized.
+ * Dot products approximate the weighted cosine overlap of the term sets, so nearby
+ * vectors share many terms - a cheap candidate generator for the exact scorers.
+ */
+@Component
+@ConditionalOnProperty(name = "jobs.vectorIndex.embedder", havingValue = "hashing", matchIfMissing = true)
+public class HashingEmbedder implements Embedder {
+
+    private static final int HASHES_PER_TERM = 2;
+
+    private final int dimension;
+
+    public HashingEmbedder(@Value("${jobs.vectorIndex.dimension:256}") int dimension) {
+        this.dimension = Math.max(dimension, 16);
+    }
+
+    @Override
+    public String name() {
+        return "hashing-v1-" + dimension;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float[] embed(Map<String, Float> weightedTerms) {
+        float[] v = new float[dimension];
+        float perHash = (float) (1.0 / Math.sqrt(HASHES_PER_TERM));
+        for (Map.Entry<String, Float> e : weightedTerms.entrySet()) {
+            long h = hash(e.getKey());
+            float w = e.getValue() * perHash;
+            for (int i = 0; i < HASHES_PER_TERM; i++) {
+                // Each 32-bit half picks a bucket (low bits) and a sign (top bit)
+                int part = (int) (h >>> (32 * i));
+                int bucket = Math.floorMod(part & 0x7FFFFFFF, dimension);
+                v[bucket] += part < 0 ? -w : w;
+            }
+        }
+        normalize(v);
+        return v;
+    }
+
+    // FNV-1a over the chars, then a murmur3 finalizer so both halves are well mixed
+    private static long hash(String term) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < term.length(); i++) {
+            h ^= term.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static void normalize(float[] v) {
+        double norm = 0;
+        for (float x : v) norm += x * x;
+        if (norm == 0) return;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) v[i] *= inv;
+    }
+}
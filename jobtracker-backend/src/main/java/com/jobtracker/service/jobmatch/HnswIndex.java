@@ -0,0 +1,479 @@
+package com.jobtracker.service.jobmatch;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest-neighbour search
+ * over L2-normalized vectors (similarity = dot product).
+ *
+ * Vectors live off-heap: in a direct buffer while building, or straight in the mapped
+ * snapshot file after load. Neighbour lists are copy-on-write int[] (slot 0 = count),
+ * published with release/acquire, so searches never lock and concurrent inserts only
+ * lock the node whose list they rewrite. Deletions are tombstones, skipped in results
+ * and purged by the next full build.
+ */
+public final class HnswIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357; // "HNSW"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final VarHandle LINKS = MethodHandles.arrayElementVarHandle(int[][].class);
+
+    private final int dim;
+    private final int m;
+    private final int m0;
+    private final int efConstruction;
+    private final double levelFactor;
+
+    // Grown under this; readers only touch nodes below the published size
+    private volatile FloatBuffer vectors;
+    private int capacity;
+    private int[] levels;
+    private int[][][] links;         // links[node][layer] = {count, ids...}
+    private volatile int size;
+
+    private final BitSet deleted = new BitSet();
+    private final Object[] nodeLocks = new Object[1024];
+    private final ThreadLocal<float[]> scratch;
+
+    private volatile int entryPoint = -1;
+    private volatile int maxLevel = -1;
+
+    public HnswIndex(int dim, int m, int efConstruction, int initialCapacity) {
+        this.dim = dim;
+        this.m = m;
+        this.m0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1.0 / Math.log(m);
+        this.capacity = Math.max(initialCapacity, 16);
+        this.vectors = allocate(capacity);
+        this.levels = new int[capacity];
+        this.links = new int[capacity][][];
+        for (int i = 0; i < nodeLocks.length; i++) nodeLocks[i] = new Object();
+        this.scratch = ThreadLocal.withInitial(() -> new float[dim]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimension() {
+        return dim;
+    }
+
+    public void markDeleted(int node) {
+        synchronized (deleted) {
+            deleted.set(node);
+        }
+    }
+
+    public boolean isDeleted(int node) {
+        synchronized (deleted) {
+            return deleted.get(node);
+        }
+    }
+
+    /**
+     * Insert a normalized vector; returns its node ID. Safe to call from many threads.
+     */
+    public int add(float[] vector) {
+        int level = randomLevel();
+        int node;
+        synchronized (this) {
+            node = size;
+            if (node == capacity) grow();
+            FloatBuffer v = vectors;
+            v.put(node * dim, vector);
+            levels[node] = level;
+            int[][] layers = new int[level + 1][];
+            for (int l = 0; l <= level; l++) layers[l] = new int[]{0};
+            links[node] = layers;
+            size = node + 1;
+        }
+
+        int ep;
+        int top;
+        synchronized (this) {
+            ep = entryPoint;
+            top = maxLevel;
+            if (ep < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return node;
+            }
+        }
+
+        // Greedy descent through the layers above the new node's level
+        for (int l = top; l > level; l--) {
+            ep = greedyClosest(vector, ep, l);
+        }
+
+        for (int l = Math.min(level, top); l >= 0; l--) {
+            List<Candidate> found = searchLayer(vector, ep, efConstruction, l);
+            int maxLinks = l == 0 ? m0 : m;
+            int[] chosen = selectNeighbors(found, m);
+            setLinks(node, l, chosen);
+            for (int neighbor : chosen) {
+                connect(neighbor, node, l, maxLinks);
+            }
+            ep = found.get(0).node;
+        }
+
+        if (level > maxLevel) {
+            synchronized (this) {
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = node;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Copy of a stored vector
+     */
+    public float[] vector(int node) {
+        float[] out = new float[dim];
+        vectors.get(node * dim, out);
+        return out;
+    }
+
+    /**
+     * The k nearest live nodes to a normalized query, most similar first
+     */
+    public List<Candidate> search(float[] query, int k, int ef) {
+        int ep = entryPoint;
+        if (ep < 0) return List.of();
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedyClosest(query, ep, l);
+        }
+        List<Candidate> found = searchLayer(query, ep, Math.max(ef, k), 0);
+        List<Candidate> out = new ArrayList<>(k);
+        for (Candidate c : found) {
+            if (isDeleted(c.node)) continue;
+            out.add(c);
+            if (out.size() == k) break;
+        }
+        return out;
+    }
+
+    public record Candidate(int node, float similarity) {}
+
+    // ---------------------------------------------------------------- graph internals
+
+    private int greedyClosest(float[] q, int ep, int layer) {
+        int current = ep;
+        float best = similarity(q, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] list = links(current, layer);
+            for (int i = 1; i <= list[0]; i++) {
+                int n = list[i];
+                float s = similarity(q, n);
+                if (s > best) {
+                    best = s;
+                    current = n;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search within one layer; returns up to ef nodes, most similar first
+    private List<Candidate> searchLayer(float[] q, int ep, int ef, int layer) {
+        BitSet visited = new BitSet(size);
+        Heap frontier = new Heap(ef * 2);   // best first
+        Heap results = new Heap(ef + 1);    // worst first (keys negated)
+
+        float s0 = similarity(q, ep);
+        visited.set(ep);
+        frontier.push(s0, ep);
+        results.push(-s0, ep);
+
+        while (frontier.size > 0) {
+            float cs = frontier.topKey();
+            int c = frontier.pop();
+            if (results.size >= ef && cs < -results.topKey()) break;
+
+            int[] list = links(c, layer);
+            for (int i = 1; i <= list[0]; i++) {
+                int n = list[i];
+                if (visited.get(n)) continue;
+                visited.set(n);
+                float s = similarity(q, n);
+                if (results.size < ef || s > -results.topKey()) {
+                    frontier.push(s, n);
+                    results.push(-s, n);
+                    if (results.size > ef) results.pop();
+                }
+            }
+        }
+
+        // Drain worst-first, fill from the back
+        Candidate[] out = new Candidate[results.size];
+        for (int i = out.length - 1; i >= 0; i--) {
+            float s = -results.topKey();
+            out[i] = new Candidate(results.pop(), s);
+        }
+        return Arrays.asList(out);
+    }
+
+    // Primitive binary max-heap of (key, node)
+    private static final class Heap {
+        private float[] keys;
+        private int[] nodes;
+        private int size;
+
+        Heap(int capacity) {
+            keys = new float[Math.max(capacity, 4)];
+            nodes = new int[keys.length];
+        }
+
+        float topKey() {
+            return keys[0];
+        }
+
+        void push(float key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] >= key) break;
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            float key = keys[--size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] > keys[child]) child++;
+                if (key >= keys[child]) break;
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+    }
+
+    // Neighbour selection heuristic: skip a candidate that is closer to an already chosen
+    // neighbour than to the base, so links spread out; fill up with skipped ones if short
+    private int[] selectNeighbors(List<Candidate> sortedBySimilarity, int max) {
+        List<Candidate> chosen = new ArrayList<>(max);
+        float[][] chosenVectors = new float[max][];
+        List<Candidate> skipped = new ArrayList<>();
+        for (Candidate c : sortedBySimilarity) {
+            if (chosen.size() >= max) break;
+            float[] cv = vector(c.node);
+            boolean diverse = true;
+            for (int i = 0; i < chosen.size(); i++) {
+                if (dot(cv, chosenVectors[i]) > c.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                chosenVectors[chosen.size()] = cv;
+                chosen.add(c);
+            } else {
+                skipped.add(c);
+            }
+        }
+        for (int i = 0; i < skipped.size() && chosen.size() < max; i++) {
+            chosen.add(skipped.get(i));
+        }
+        int[] ids = new int[chosen.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = chosen.get(i).node;
+        return ids;
+    }
+
+    private void connect(int node, int newNeighbor, int layer, int maxLinks) {
+        synchronized (nodeLocks[node % nodeLocks.length]) {
+            int[] list = links(node, layer);
+            int n = list[0];
+            if (n < maxLinks) {
+                int[] next = Arrays.copyOf(list, Math.max(list.length, n + 2));
+                next[n + 1] = newNeighbor;
+                next[0] = n + 1;
+                LINKS.setRelease(links[node], layer, next);
+                return;
+            }
+            // Full: re-select among current neighbours plus the new one
+            float[] base = vector(node);
+            List<Candidate> pool = new ArrayList<>(n + 1);
+            for (int i = 1; i <= n; i++) pool.add(new Candidate(list[i], similarity(base, list[i])));
+            pool.add(new Candidate(newNeighbor, similarity(base, newNeighbor)));
+            pool.sort((a, b) -> Float.compare(b.similarity, a.similarity));
+            setLinks(node, layer, selectNeighbors(pool, maxLinks));
+        }
+    }
+
+    private void setLinks(int node, int layer, int[] ids) {
+        int[] next = new int[ids.length + 1];
+        next[0] = ids.length;
+        System.arraycopy(ids, 0, next, 1, ids.length);
+        LINKS.setRelease(links[node], layer, next);
+    }
+
+    private int[] links(int node, int layer) {
+        int[][] layers = links[node];
+        return layer < layers.length ? (int[]) LINKS.getAcquire(layers, layer) : EMPTY_LINKS;
+    }
+
+    private static final int[] EMPTY_LINKS = {0};
+
+    private float similarity(float[] q, int node) {
+        float[] v = scratch.get();
+        vectors.get(node * dim, v, 0, dim);
+        return dot(q, v);
+    }
+
+    // Bulk copy out of the off-heap buffer, then a plain array loop the JIT can vectorize
+    private float dot(float[] a, float[] b) {
+        float s = 0f;
+        for (int i = 0; i < dim; i++) s += a[i] * b[i];
+        return s;
+    }
+
+    private int randomLevel() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        return (int) (-Math.log(1.0 - r) * levelFactor);
+    }
+
+    private void grow() {
+        int cap = Math.max(capacity * 2, 16);
+        FloatBuffer next = allocate(cap);
+        FloatBuffer current = vectors;
+        for (int i = 0, n = size * dim; i < n; i++) next.put(i, current.get(i));
+        vectors = next;
+        levels = Arrays.copyOf(levels, cap);
+        links = Arrays.copyOf(links, cap);
+        capacity = cap;
+    }
+
+    private FloatBuffer allocate(int nodes) {
+        return ByteBuffer.allocateDirect(nodes * dim * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    // ---------------------------------------------------------------- snapshots
+
+    /**
+     * Write the whole graph to a file (via a temp file, then an atomic move)
+     */
+    public synchronized void save(Path file) throws IOException {
+        int n = size;
+        long[] words;
+        synchronized (deleted) {
+            words = deleted.toLongArray();
+        }
+        long linkInts = 0;
+        for (int i = 0; i < n; i++) {
+            for (int l = 0; l <= levels[i]; l++) linkInts += 1 + links(i, l)[0];
+        }
+        long bytes = 4L * 7 + (long) n * dim * 4 + 4L * n + linkInts * 4 + 4 + words.length * 8L;
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            out.order(ByteOrder.nativeOrder());
+            out.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(dim).putInt(m)
+                    .putInt(n).putInt(entryPoint).putInt(maxLevel);
+            FloatBuffer v = vectors;
+            for (int i = 0, len = n * dim; i < len; i++) out.putFloat(v.get(i));
+            for (int i = 0; i < n; i++) out.putInt(levels[i]);
+            for (int i = 0; i < n; i++) {
+                for (int l = 0; l <= levels[i]; l++) {
+                    int[] list = links(i, l);
+                    for (int j = 0; j <= list[0]; j++) out.putInt(list[j]);
+                }
+            }
+            out.putInt(words.length);
+            for (long w : words) out.putLong(w);
+            out.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map a snapshot file: vectors are read in place from the mapping, the graph is loaded on heap
+     */
+    public static HnswIndex load(Path file, int efConstruction) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            in.order(ByteOrder.nativeOrder());
+            if (in.getInt() != SNAPSHOT_MAGIC || in.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not an HNSW snapshot: " + file);
+            }
+            int dim = in.getInt();
+            int m = in.getInt();
+            int n = in.getInt();
+            int entry = in.getInt();
+            int top = in.getInt();
+
+            HnswIndex index = new HnswIndex(dim, m, efConstruction, 0);
+            index.levels = new int[n];
+            index.links = new int[n][][];
+            int vectorBytes = n * dim * Float.BYTES;
+            ByteBuffer slice = in.slice(in.position(), vectorBytes).order(ByteOrder.nativeOrder());
+            index.vectors = slice.asFloatBuffer();
+            in.position(in.position() + vectorBytes);
+
+            for (int i = 0; i < n; i++) index.levels[i] = in.getInt();
+            for (int i = 0; i < n; i++) {
+                int[][] layers = new int[index.levels[i] + 1][];
+                for (int l = 0; l < layers.length; l++) {
+                    int count = in.getInt();
+                    int[] list = new int[count + 1];
+                    list[0] = count;
+                    for (int j = 1; j <= count; j++) list[j] = in.getInt();
+                    layers[l] = list;
+                }
+                index.links[i] = layers;
+            }
+            long[] words = new long[in.getInt()];
+            for (int i = 0; i < words.length; i++) words[i] = in.getLong();
+            index.deleted.or(BitSet.valueOf(words));
+
+            // Capacity == size, so the first insert copies the mapped vectors into a writable buffer
+            index.capacity = n;
+            index.size = n;
+            index.entryPoint = entry;
+            index.maxLevel = top;
+            return index;
+        }
+    }
+}
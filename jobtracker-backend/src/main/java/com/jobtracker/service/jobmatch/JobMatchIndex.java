@@ -0,0 +1,544 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.JobListing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory inverted index over every active job listing: term ID -> ordinals of the
+ * listings containing it, plus each listing's encoded terms for exact scoring.
+ *
+ * topK runs a MaxScore traversal: terms are ordered by their score upper bound, and
+ * once the K-th best score passes the summed bounds of the weakest terms, listings
+ * that only contain those terms are never visited. Results are the exact top-K over
+ * the whole corpus, not over a recency window. Both scorers (F1, BM25) are sums over
+ * terms, so both get per-term bounds.
+ *
+ * The index also owns the BM25 corpus statistics - document frequency per term ID and
+ * total length of served listings - updated as listings enter or leave the served set,
+ * never recomputed by a scan.
+ *
+ * Kept current on this node by JobListingIngestListener, and rebuilt from Mongo
+ * periodically (JobMatchIndexJob) to pick up writes made by other nodes.
+ *
+ * Term IDs come from a TermDictionary owned by the current state. A rebuild starts a fresh
+ * one and swaps it in with the new state, so terms of listings that were deleted or expired
+ * are dropped instead of accumulating (with the per-term arrays sized by them) for the life
+ * of the process. Anything encoded against dictionary() must be scored against the same one.
+ */
+@Component
+public class JobMatchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Float slack so rounding can never prune a listing that ties the threshold
+    private static final double EPS = 1e-9;
+
+    private final MongoTemplate mongoTemplate;
+    private final Timer queryTimer;
+    private final Timer rebuildTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State(new TermDictionary());
+    private volatile boolean ready;
+
+    // Upserts/removals seen while a rebuild is loading, replayed onto the new state
+    private List<Object> pendingDuringRebuild;
+
+    // Served-set changes kept for incremental consumers (MatchResultCache)
+    private static final int CHANGE_LOG_SIZE = 8192;
+
+    public record Hit(String listingId, double score, long posted) {}
+
+    /**
+     * A ranking plus the corpus generation it was computed at
+     */
+    public record Ranking(List<Hit> hits, long generation) {}
+
+    /**
+     * Served-set changes since a generation: listings now served (scored for the
+     * candidate) and every listing ID whose served state changed in between
+     */
+    public record Delta(List<Hit> added, Set<String> touched, long generation) {}
+
+    public JobMatchIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryTimer = Timer.builder("jobs.match.index.query")
+                .description("Time for one top-K traversal of the match index")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("jobs.match.index.rebuild")
+                .description("Time to rebuild the match index from Mongo")
+                .register(meterRegistry);
+        Gauge.builder("jobs.match.index.listings", this, JobMatchIndex::liveCount)
+                .description("Active, de-duplicated listings in the match index")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int liveCount() {
+        lock.readLock().lock();
+        try {
+            return state.live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bumped on every change to the set of served listings; never goes backwards
+     */
+    public long generation() {
+        lock.readLock().lock();
+        try {
+            return state.generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The dictionary the current state encodes with; replaced by every rebuild
+     */
+    public TermDictionary dictionary() {
+        lock.readLock().lock();
+        try {
+            return state.dictionary;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload every active listing from Mongo and swap the new index (and a fresh dictionary) in.
+     * A rebuild starts a new epoch: deltas across it are not available.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        State fresh = new State(new TermDictionary());
+        try {
+            String lastId = null;
+            List<JobListing> batch;
+            do {
+                Criteria c = Criteria.where("isActive").is(true);
+                if (lastId != null) c = c.and("_id").gt(lastId);
+                Query q = Query.query(c).with(Sort.by("_id")).limit(LOAD_BATCH_SIZE);
+                q.fields().exclude("description");
+                batch = mongoTemplate.find(q, JobListing.class);
+                for (JobListing j : batch) {
+                    fresh.add(j);
+                }
+                if (!batch.isEmpty()) lastId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Object change : pendingDuringRebuild) {
+                if (change instanceof JobListing j) fresh.add(j);
+                else fresh.remove((String) change);
+            }
+            pendingDuringRebuild = null;
+            fresh.startEpoch(state.generation);
+            state = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Index (or re-index) a saved listing; inactive listings are removed
+     */
+    public void upsert(JobListing j) {
+        if (j.getId() == null) return;
+        if (!j.isActive()) {
+            remove(j.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state.add(j);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(j);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String listingId) {
+        if (listingId == null) return;
+        lock.writeLock().lock();
+        try {
+            state.remove(listingId);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Exact top-K listings for a candidate, best first (ties: newest posting first).
+     * If fewer than K listings share a term with the candidate, the newest remaining
+     * listings are appended with score 0, as the windowed scan would have returned them.
+     */
+    public Ranking topK(Set<String> candidateTerms, int k, MatchScorer scorer) {
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = queryTimer.record(() -> state.topK(candidateTerms.size(),
+                    TermSets.lookup(candidateTerms, state.dictionary), k, scorer));
+            return new Ranking(hits, state.generation);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes since a generation, with added listings scored by weighted F1 (whose
+     * per-listing scores don't depend on the rest of the corpus).
+     * Null when the change log no longer reaches back that far.
+     */
+    public Delta changesSince(long generation, Set<String> candidateTerms) {
+        lock.readLock().lock();
+        try {
+            return state.changesSince(generation, candidateTerms.size(), TermSets.lookup(candidateTerms, state.dictionary));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 for a candidate over the current corpus statistics (used by the windowed scan);
+     * null when candidate was encoded against a dictionary a rebuild has since replaced
+     */
+    public Bm25 bm25(TermDictionary dict, int[] candidate) {
+        lock.readLock().lock();
+        try {
+            if (dict != state.dictionary) return null;
+            return state.bm25(candidate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class State {
+        private final TermDictionary dictionary;
+
+        // Per ordinal
+        private String[] listingIds = new String[1024];
+        private EncodedTerms[] terms = new EncodedTerms[1024];
+        private long[] posted = new long[1024];
+        private String[] dedupeKeys = new String[1024];
+        private int ordinals;
+
+        // Ordinals currently served (present and winning their dedupe group)
+        private final BitSet live = new BitSet();
+        private final Map<String, Integer> byListingId = new HashMap<>();
+        private final Map<String, List<Integer>> byDedupeKey = new HashMap<>();
+
+        // Per term ID; postings are ascending ordinals and may include dead ordinals
+        private int[][] postings = new int[0][];
+        private int[] postingSizes = new int[0];
+        private int[] minPrimary = new int[0];
+        private int[] minAll = new int[0];
+        private int[] minSkills = new int[0];
+
+        // BM25 statistics over served ordinals
+        private int[] df = new int[0];
+        private long servedLength;
+
+        // Generation and ring log of served-set toggles (one entry per generation)
+        private long generation;
+        private long epochStart;
+        private final long[] logGenerations = new long[CHANGE_LOG_SIZE];
+        private final int[] logOrdinals = new int[CHANGE_LOG_SIZE];
+        private long logCount;
+
+        // Continue numbering after the replaced state, with no deltas reaching back past it
+        void startEpoch(long previousGeneration) {
+            generation = Math.max(generation, previousGeneration) + 1;
+            epochStart = generation;
+            logCount = 0;
+        }
+
+        State(TermDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        void add(JobListing j) {
+            remove(j.getId());
+
+            // Listings without current terms are left out until the backfill reaches them
+            // (their description isn't loaded here, and scoring the snippet would be guessing)
+            if (j.getTermsVersion() != JobTermExtractor.TERMS_VERSION || j.getAllTerms() == null) return;
+
+            EncodedTerms t = EncodedTerms.of(j, dictionary);
+            int ord = ordinals++;
+            ensureDocCapacity(ordinals);
+            listingIds[ord] = j.getId();
+            terms[ord] = t;
+            posted[ord] = j.getPostedDate() == null ? Long.MIN_VALUE : j.getPostedDate().toEpochMilli();
+            dedupeKeys[ord] = JobTermExtractor.dedupeKey(j);
+
+            ensureTermCapacity(dictionary.size());
+            forEachTerm(t, term -> post(term, ord));
+            int[] all = t.all(), skills = t.skills();
+            for (int term : t.primary()) minPrimary[term] = Math.min(minPrimary[term], t.primary().length);
+            for (int term : all) minAll[term] = Math.min(minAll[term], all.length);
+            for (int term : skills) minSkills[term] = Math.min(minSkills[term], skills.length);
+
+            byListingId.put(j.getId(), ord);
+            byDedupeKey.computeIfAbsent(dedupeKeys[ord], key -> new ArrayList<>()).add(ord);
+            electWinner(dedupeKeys[ord]);
+        }
+
+        // Postings keep the dead ordinal; bounds stay valid (only ever looser) until the next rebuild
+        void remove(String listingId) {
+            Integer ord = byListingId.remove(listingId);
+            if (ord == null) return;
+            setLive(ord, false);
+            String key = dedupeKeys[ord];
+            List<Integer> group = byDedupeKey.get(key);
+            if (group != null) {
+                group.remove(ord);
+                if (group.isEmpty()) byDedupeKey.remove(key);
+                else electWinner(key);
+            }
+        }
+
+        // Of listings sharing a dedupe key, only the newest is served
+        private void electWinner(String key) {
+            List<Integer> group = byDedupeKey.get(key);
+            int best = -1;
+            for (int ord : group) {
+                if (best < 0 || posted[ord] > posted[best]) best = ord;
+            }
+            for (int ord : group) {
+                setLive(ord, ord == best);
+            }
+        }
+
+        // Every change to the served set goes through here, keeping df/length in step
+        private void setLive(int ord, boolean serve) {
+            if (live.get(ord) == serve) return;
+            live.set(ord, serve);
+            int delta = serve ? 1 : -1;
+            forEachTerm(terms[ord], term -> df[term] += delta);
+            servedLength += (long) delta * terms[ord].all().length;
+
+            generation++;
+            int slot = (int) (logCount++ % CHANGE_LOG_SIZE);
+            logGenerations[slot] = generation;
+            logOrdinals[slot] = ord;
+        }
+
+        Delta changesSince(long since, int candidateSize, int[] candidate) {
+            if (since < epochStart) return null;
+            long retained = Math.min(logCount, CHANGE_LOG_SIZE);
+            long first = logCount - retained;
+            if (retained > 0 && logGenerations[(int) (first % CHANGE_LOG_SIZE)] > since + 1) return null;
+            if (retained == 0 && since != generation) return null;
+
+            Set<Integer> changed = new LinkedHashSet<>();
+            for (long i = first; i < logCount; i++) {
+                int slot = (int) (i % CHANGE_LOG_SIZE);
+                if (logGenerations[slot] > since) changed.add(logOrdinals[slot]);
+            }
+
+            List<Hit> added = new ArrayList<>();
+            Set<String> touched = new HashSet<>();
+            for (int ord : changed) {
+                touched.add(listingIds[ord]);
+                if (live.get(ord)) {
+                    added.add(new Hit(listingIds[ord],
+                            MatchScores.score(candidateSize, candidate, terms[ord]), posted[ord]));
+                }
+            }
+            return new Delta(added, touched, generation);
+        }
+
+        // Every term in all ∪ skills (primary ⊆ all), ascending
+        private static void forEachTerm(EncodedTerms t, IntConsumer action) {
+            int[] all = t.all(), skills = t.skills();
+            int i = 0, s = 0;
+            while (i < all.length || s < skills.length) {
+                if (s >= skills.length || (i < all.length && all[i] < skills[s])) action.accept(all[i++]);
+                else if (i >= all.length || skills[s] < all[i]) action.accept(skills[s++]);
+                else {
+                    action.accept(all[i++]);
+                    s++;
+                }
+            }
+        }
+
+        private void post(int term, int ord) {
+            int[] list = postings[term];
+            int n = postingSizes[term];
+            if (list == null) {
+                list = new int[4];
+                postings[term] = list;
+            } else if (n == list.length) {
+                list = Arrays.copyOf(list, n * 2);
+                postings[term] = list;
+            }
+            list[n] = ord;
+            postingSizes[term] = n + 1;
+        }
+
+        private void ensureDocCapacity(int n) {
+            if (n <= listingIds.length) return;
+            int cap = Math.max(n, listingIds.length * 2);
+            listingIds = Arrays.copyOf(listingIds, cap);
+            terms = Arrays.copyOf(terms, cap);
+            posted = Arrays.copyOf(posted, cap);
+            dedupeKeys = Arrays.copyOf(dedupeKeys, cap);
+        }
+
+        private void ensureTermCapacity(int n) {
+            if (n <= postings.length) return;
+            int old = postings.length;
+            int cap = Math.max(n, old * 2);
+            postings = Arrays.copyOf(postings, cap);
+            postingSizes = Arrays.copyOf(postingSizes, cap);
+            minPrimary = Arrays.copyOf(minPrimary, cap);
+            minAll = Arrays.copyOf(minAll, cap);
+            minSkills = Arrays.copyOf(minSkills, cap);
+            df = Arrays.copyOf(df, cap);
+            Arrays.fill(minPrimary, old, cap, Integer.MAX_VALUE);
+            Arrays.fill(minAll, old, cap, Integer.MAX_VALUE);
+            Arrays.fill(minSkills, old, cap, Integer.MAX_VALUE);
+        }
+
+        Bm25 bm25(int[] candidate) {
+            int served = live.cardinality();
+            return new Bm25(candidate, df, served, served == 0 ? 0.0 : (double) servedLength / served);
+        }
+
+        List<Hit> topK(int candidateSize, int[] candidate, int k, MatchScorer scorer) {
+            TopK heap = new TopK(k);
+            Bm25 bm25 = scorer == MatchScorer.BM25 ? bm25(candidate) : null;
+
+            // Query terms that occur in the index, weakest upper bound first
+            int n = 0;
+            int[] qTerms = new int[candidate.length];
+            double[] ubs = new double[candidate.length];
+            for (int c = 0; c < candidate.length; c++) {
+                int term = candidate[c];
+                if (term >= postings.length || postingSizes[term] == 0) continue;
+                qTerms[n] = term;
+                if (bm25 != null) {
+                    int maxTf = (minAll[term] != Integer.MAX_VALUE ? 1 : 0)
+                            + (minPrimary[term] != Integer.MAX_VALUE ? 1 : 0)
+                            + (minSkills[term] != Integer.MAX_VALUE ? 1 : 0);
+                    int minLength = minAll[term] == Integer.MAX_VALUE ? 0 : minAll[term];
+                    ubs[n] = bm25.upperBound(c, maxTf, minLength) + EPS;
+                } else {
+                    ubs[n] = MatchScores.upperBound(candidateSize, minPrimary[term], minAll[term], minSkills[term]) + EPS;
+                }
+                n++;
+            }
+            sortByBound(qTerms, ubs, n);
+            double[] prefix = new double[n];
+            for (int i = 0; i < n; i++) prefix[i] = (i == 0 ? 0 : prefix[i - 1]) + ubs[i];
+
+            int[] cursor = new int[n];
+            int firstEssential = 0;
+
+            while (true) {
+                // Next ordinal among the essential lists
+                int doc = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < n; i++) {
+                    if (cursor[i] < postingSizes[qTerms[i]]) {
+                        doc = Math.min(doc, postings[qTerms[i]][cursor[i]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) break;
+
+                double bound = firstEssential == 0 ? 0.0 : prefix[firstEssential - 1];
+                for (int i = firstEssential; i < n; i++) {
+                    int term = qTerms[i];
+                    if (cursor[i] < postingSizes[term] && postings[term][cursor[i]] == doc) {
+                        bound += ubs[i];
+                        cursor[i]++;
+                    }
+                }
+
+                if (!live.get(doc)) continue;
+                if (bound < heap.threshold()) continue;
+
+                double score = bm25 != null ? bm25.score(terms[doc])
+                        : MatchScores.score(candidateSize, candidate, terms[doc]);
+                if (heap.offer(doc, score, posted[doc])) {
+                    // Terms whose cumulative bound can't reach the K-th score no longer drive the traversal
+                    double threshold = heap.threshold();
+                    while (firstEssential < n && prefix[firstEssential] < threshold) firstEssential++;
+                }
+            }
+
+            heap.sort();
+            List<Hit> hits = new ArrayList<>(k);
+            Set<Integer> taken = new HashSet<>();
+            for (int i = 0; i < heap.size(); i++) {
+                hits.add(new Hit(listingIds[heap.id(i)], heap.score(i), posted[heap.id(i)]));
+                taken.add(heap.id(i));
+            }
+
+            // Pad with the newest listings sharing no term with the candidate
+            if (hits.size() < k) {
+                TopK newest = new TopK(k - hits.size());
+                for (int ord = live.nextSetBit(0); ord >= 0; ord = live.nextSetBit(ord + 1)) {
+                    if (!taken.contains(ord)) newest.offer(ord, 0.0, posted[ord]);
+                }
+                newest.sort();
+                for (int i = 0; i < newest.size(); i++) {
+                    hits.add(new Hit(listingIds[newest.id(i)], 0.0, posted[newest.id(i)]));
+                }
+            }
+            return hits;
+        }
+
+        // Insertion sort: query term lists are short
+        private static void sortByBound(int[] qTerms, double[] ubs, int n) {
+            for (int i = 1; i < n; i++) {
+                int t = qTerms[i];
+                double u = ubs[i];
+                int j = i - 1;
+                while (j >= 0 && ubs[j] > u) {
+                    qTerms[j + 1] = qTerms[j];
+                    ubs[j + 1] = ubs[j];
+                    j--;
+                }
+                qTerms[j + 1] = t;
+                ubs[j + 1] = u;
+            }
+        }
+    }
+}
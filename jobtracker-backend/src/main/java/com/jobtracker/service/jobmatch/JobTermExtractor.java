@@ -0,0 +1,68 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.CandidateProfile;
+import com.jobtracker.model.JobListing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Computes the normalized term sets stored on each JobListing, so matching
+ * never has to re-tokenize titles or descriptions per request.
+ */
+public final class JobTermExtractor {
+
+    // Bump whenever tokenization changes so JobTermBackfillJob recomputes stored terms
+    // (2: skills extracted from descriptions by SkillExtractor)
+    public static final int TERMS_VERSION = 2;
+
+    private JobTermExtractor() {}
+
+    public static void apply(JobListing j) {
+        // Primary terms (high signal)
+        Set<String> primary = new LinkedHashSet<>();
+        MatchTokenizer.addTokens(primary, j.getTitle());
+        MatchTokenizer.addTokens(primary, j.getCompany());
+        MatchTokenizer.addTokens(primary, j.getLocation());
+        MatchTokenizer.addTokens(primary, j.getJobType());
+        MatchTokenizer.addTokens(primary, j.getExperienceLevel());
+        if (j.getSkills() != null) j.getSkills().forEach(s -> MatchTokenizer.addTokens(primary, s));
+
+        // Full terms = primary + description
+        Set<String> all = new LinkedHashSet<>(primary);
+        MatchTokenizer.addTokens(all, j.getDescription());
+
+        // Explicit skills, one term per skill
+        Set<String> skills = new LinkedHashSet<>();
+        MatchTokenizer.addTerms(skills, j.getSkills());
+
+        j.setPrimaryTerms(new ArrayList<>(primary));
+        j.setAllTerms(new ArrayList<>(all));
+        j.setSkillTerms(new ArrayList<>(skills));
+        j.setTermsVersion(TERMS_VERSION);
+    }
+
+    /**
+     * A candidate's match terms: skills/technologies/titles as whole terms, plus summary tokens
+     */
+    public static Set<String> candidateTerms(CandidateProfile p) {
+        Set<String> candidate = new HashSet<>();
+        MatchTokenizer.addTerms(candidate, p.getSkills());
+        MatchTokenizer.addTerms(candidate, p.getTechnologies());
+        MatchTokenizer.addTerms(candidate, p.getTitles());
+        MatchTokenizer.addTokens(candidate, p.getSummary());
+        return candidate;
+    }
+
+    /**
+     * Identity used to de-duplicate matches: externalId preferred, fallback to title+company+location
+     */
+    public static String dedupeKey(JobListing j) {
+        return (j.getExternalId() != null && !j.getExternalId().isBlank())
+                ? "ext:" + j.getExternalId()
+                : "tcl:" + MatchTokenizer.norm(j.getTitle()) + "|" + MatchTokenizer.norm(j.getCompany())
+                        + "|" + MatchTokenizer.norm(j.getLocation());
+    }
+}
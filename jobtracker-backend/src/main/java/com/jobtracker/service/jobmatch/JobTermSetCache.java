@@ -0,0 +1,73 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.JobListing;
+import com.jobtracker.service.cache.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Encoded term sets per listing, so repeated match requests don't re-encode
+ * the same listings. An entry is reused while the listing's fetchedAt and
+ * termsVersion are unchanged. Entries belong to one TermDictionary: the first
+ * request with a newer one (after an index rebuild) clears the cache, and requests
+ * still holding an older one are encoded without caching.
+ */
+@Component
+public class JobTermSetCache {
+
+    private static final int MAX_ENTRIES = 50_000;
+
+    private final BoundedCache<String, Entry> entries = new BoundedCache<>(MAX_ENTRIES);
+    // Epoch of the dictionary the entries were encoded with
+    private volatile long epoch;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public JobTermSetCache(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("jobs.match.termsets", "result", "hit");
+        this.misses = meterRegistry.counter("jobs.match.termsets", "result", "miss");
+    }
+
+    public EncodedTerms forListing(JobListing j, TermDictionary dictionary) {
+        if (!current(dictionary)) {
+            misses.increment();
+            return EncodedTerms.of(j, dictionary);
+        }
+        Entry cached = entries.get(j.getId());
+        if (cached != null && cached.epoch == dictionary.epoch() && cached.termsVersion == j.getTermsVersion()
+                && Objects.equals(cached.fetchedAt, j.getFetchedAt())) {
+            hits.increment();
+            return cached.terms;
+        }
+
+        misses.increment();
+        EncodedTerms terms = EncodedTerms.of(j, dictionary);
+        if (j.getId() != null) {
+            entries.put(j.getId(), new Entry(dictionary.epoch(), j.getTermsVersion(), j.getFetchedAt(), terms));
+        }
+        return terms;
+    }
+
+    // Moves the cache onto a newer dictionary; false for an older one
+    private boolean current(TermDictionary dictionary) {
+        if (dictionary.epoch() == epoch) return true;
+        synchronized (this) {
+            if (dictionary.epoch() > epoch) {
+                entries.clear();
+                epoch = dictionary.epoch();
+            }
+            return dictionary.epoch() == epoch;
+        }
+    }
+
+    public void evict(String listingId) {
+        entries.remove(listingId);
+    }
+
+    private record Entry(long epoch, int termsVersion, Instant fetchedAt, EncodedTerms terms) {}
+}
@@ -0,0 +1,155 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.service.cache.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match rankings per (profile, scorer), tagged with the index generation they were computed at.
+ *
+ * Entries hold K + slack hits. When the corpus has moved on, the F1 ranking is brought
+ * forward from the index change log instead of recomputed: listings that left are dropped,
+ * new ones are scored and merged. That stays exact while at least K hits remain, because
+ * an F1 score depends only on the candidate and the listing. BM25 scores depend on corpus
+ * statistics, so a BM25 entry is only reused at the generation it was computed at.
+ *
+ * A rebuilt profile (new generatedAt) always recomputes.
+ */
+@Component
+public class MatchResultCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final JobMatchIndex matchIndex;
+    private final int slack;
+    private final BoundedCache<String, Entry> entries = new BoundedCache<>(MAX_ENTRIES);
+
+    private final Counter hits;
+    private final Counter merges;
+    private final Counter misses;
+    private final Timer mergeTimer;
+    private final DistributionSummary mergeDelta;
+
+    public MatchResultCache(JobMatchIndex matchIndex,
+                            @Value("${jobs.matchCache.slack:20}") int slack,
+                            MeterRegistry meterRegistry) {
+        this.matchIndex = matchIndex;
+        this.slack = Math.max(slack, 0);
+        this.hits = meterRegistry.counter("jobs.match.cache", "result", "hit");
+        this.merges = meterRegistry.counter("jobs.match.cache", "result", "merge");
+        this.misses = meterRegistry.counter("jobs.match.cache", "result", "miss");
+        this.mergeTimer = Timer.builder("jobs.match.cache.merge")
+                .description("Time to merge index changes into a cached match ranking")
+                .register(meterRegistry);
+        this.mergeDelta = DistributionSummary.builder("jobs.match.cache.delta")
+                .description("Listings changed since a cached match ranking was computed")
+                .register(meterRegistry);
+    }
+
+    public List<JobMatchIndex.Hit> topK(String profileId, Instant profileVersion,
+                                        Set<String> candidate, int limit, MatchScorer scorer) {
+        if (profileId == null) {
+            misses.increment();
+            return matchIndex.topK(candidate, limit, scorer).hits();
+        }
+
+        String key = profileId + "|" + scorer;
+        Entry e = entries.get(key);
+        if (e != null && Objects.equals(e.profileVersion, profileVersion)) {
+            long generation = matchIndex.generation();
+            if (e.generation == generation && e.covers(limit)) {
+                hits.increment();
+                return e.head(limit);
+            }
+            if (scorer == MatchScorer.F1) {
+                long start = System.nanoTime();
+                JobMatchIndex.Delta delta = matchIndex.changesSince(e.generation, candidate);
+                if (delta != null) {
+                    Entry merged = e.merge(delta);
+                    mergeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    mergeDelta.record(delta.touched().size());
+                    if (merged.covers(limit)) {
+                        merges.increment();
+                        entries.put(key, merged);
+                        return merged.head(limit);
+                    }
+                }
+            }
+        }
+
+        misses.increment();
+        int capacity = limit + slack;
+        JobMatchIndex.Ranking ranking = matchIndex.topK(candidate, capacity, scorer);
+        Entry fresh = Entry.of(profileVersion, ranking.generation(), capacity, ranking.hits());
+        entries.put(key, fresh);
+        return fresh.head(limit);
+    }
+
+    /**
+     * complete = hits are every served listing (the corpus was smaller than capacity).
+     * Otherwise boundary is the lowest (score, posted) ever known to rank: listings
+     * below it may be outranked by ones this entry never saw, so merges drop them.
+     */
+    private record Entry(Instant profileVersion, long generation, int capacity,
+                         List<JobMatchIndex.Hit> hits, boolean complete,
+                         double boundaryScore, long boundaryPosted) {
+
+        static Entry of(Instant profileVersion, long generation, int capacity, List<JobMatchIndex.Hit> hits) {
+            boolean complete = hits.size() < capacity;
+            JobMatchIndex.Hit last = hits.isEmpty() ? null : hits.get(hits.size() - 1);
+            return new Entry(profileVersion, generation, capacity, hits, complete,
+                    last == null ? 0.0 : last.score(), last == null ? Long.MIN_VALUE : last.posted());
+        }
+
+        boolean covers(int limit) {
+            return complete || hits.size() >= limit;
+        }
+
+        List<JobMatchIndex.Hit> head(int limit) {
+            return hits.size() <= limit ? hits : hits.subList(0, limit);
+        }
+
+        Entry merge(JobMatchIndex.Delta delta) {
+            List<JobMatchIndex.Hit> pool = new ArrayList<>(hits.size() + delta.added().size());
+            for (JobMatchIndex.Hit h : hits) {
+                if (!delta.touched().contains(h.listingId())) pool.add(h);
+            }
+            for (JobMatchIndex.Hit h : delta.added()) {
+                if (complete || !below(h, boundaryScore, boundaryPosted)) pool.add(h);
+            }
+
+            TopK top = new TopK(capacity);
+            for (int i = 0; i < pool.size(); i++) {
+                top.offer(i, pool.get(i).score(), pool.get(i).posted());
+            }
+            top.sort();
+            List<JobMatchIndex.Hit> merged = new ArrayList<>(top.size());
+            for (int i = 0; i < top.size(); i++) {
+                merged.add(pool.get(top.id(i)));
+            }
+            if (pool.size() <= capacity) {
+                return new Entry(profileVersion, delta.generation(), capacity, merged, complete,
+                        boundaryScore, boundaryPosted);
+            }
+            // Trimmed: the new tail is the boundary now
+            JobMatchIndex.Hit last = merged.get(merged.size() - 1);
+            return new Entry(profileVersion, delta.generation(), capacity, merged, false,
+                    last.score(), last.posted());
+        }
+
+        private static boolean below(JobMatchIndex.Hit h, double score, long posted) {
+            return h.score() < score || (h.score() == score && h.posted() < posted);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.Locale;
+
+/**
+ * Relevance function used to rank listings for a candidate
+ */
+public enum MatchScorer {
+    F1,     // weighted set-overlap F1 (default)
+    BM25;   // rarity-aware, see Bm25
+
+    public static MatchScorer from(String value) {
+        if (value == null || value.isBlank()) return F1;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scorer '" + value + "' (expected f1 or bm25)");
+        }
+    }
+}
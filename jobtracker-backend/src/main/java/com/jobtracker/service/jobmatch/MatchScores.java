@@ -0,0 +1,62 @@
+package com.jobtracker.service.jobmatch;
+
+/**
+ * The match score, shared by the windowed scan and the inverted index.
+ *
+ * score = 0.65 * F1(primary) + 0.25 * F1(all) + 0.10 * skillOverlap, and since
+ * F1 = 2 * inter / (|candidate| + |job|), every matched term adds a fixed amount
+ * per field. That makes the score a sum over terms, which is what lets the index
+ * bound it per term (see upperBound).
+ */
+public final class MatchScores {
+
+    public static final double W_PRIMARY = 0.65;
+    public static final double W_ALL = 0.25;
+    public static final double W_SKILLS = 0.10;
+
+    private MatchScores() {}
+
+    public static double score(int candidateSize, int[] candidate, EncodedTerms job) {
+        return score(candidateSize,
+                job.primary().length, TermSets.intersectionSize(candidate, job.primary()),
+                job.all().length, TermSets.intersectionSize(candidate, job.all()),
+                job.skills().length, TermSets.intersectionSize(candidate, job.skills()));
+    }
+
+    /**
+     * Same score from precounted intersections (used when counts are accumulated per term)
+     */
+    public static double score(int candidateSize, int primarySize, int interPrimary,
+                               int allSize, int interAll, int skillsSize, int interSkills) {
+        double f1Primary = f1(candidateSize, primarySize, interPrimary);
+        double f1All = f1(candidateSize, allSize, interAll);
+
+        // Small bump from explicit skills list if present
+        double skillOverlap = skillsSize == 0 ? 0.0
+                : ((double) interSkills / (double) skillsSize);
+
+        // Weighted score: prioritize title/skills matching
+        return W_PRIMARY * f1Primary + W_ALL * f1All + W_SKILLS * skillOverlap;
+    }
+
+    public static double f1(int candidateSize, int jobSize, int inter) {
+        if (candidateSize == 0 || jobSize == 0) return 0.0;
+
+        double precision = (double) inter / (double) jobSize;
+        double recall = (double) inter / (double) candidateSize;
+
+        return (precision + recall) == 0.0 ? 0.0 : (2.0 * precision * recall) / (precision + recall);
+    }
+
+    /**
+     * Most one term can add to any listing's score, given the shortest primary/all/skills
+     * lists among listings containing it in that field (Integer.MAX_VALUE = never).
+     */
+    public static double upperBound(int candidateSize, int minPrimary, int minAll, int minSkills) {
+        double ub = 0.0;
+        if (minPrimary != Integer.MAX_VALUE) ub += W_PRIMARY * 2.0 / (candidateSize + minPrimary);
+        if (minAll != Integer.MAX_VALUE) ub += W_ALL * 2.0 / (candidateSize + minAll);
+        if (minSkills != Integer.MAX_VALUE) ub += W_SKILLS / minSkills;
+        return ub;
+    }
+}
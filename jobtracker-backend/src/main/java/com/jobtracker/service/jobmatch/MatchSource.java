@@ -0,0 +1,20 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.Locale;
+
+/**
+ * Where match candidates come from before exact scoring
+ */
+public enum MatchSource {
+    INDEX,   // exact top-K over the inverted index (default)
+    VECTOR;  // approximate nearest neighbours from VectorMatchIndex, re-scored exactly
+
+    public static MatchSource from(String value) {
+        if (value == null || value.isBlank()) return INDEX;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown source '" + value + "' (expected index or vector)");
+        }
+    }
+}
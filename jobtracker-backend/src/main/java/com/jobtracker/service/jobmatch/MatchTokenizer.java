@@ -0,0 +1,188 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer/normalizer shared by ingest-time term extraction and match scoring.
+ * Both sides must produce identical terms, so this is the single source of truth.
+ */
+public final class MatchTokenizer {
+
+    private MatchTokenizer() {}
+
+    public static final Set<String> STOPWORDS = Set.of(
+        "a","an","and","or","the","to","of","in","on","for","with","as","at","by","from",
+        "is","are","was","were","be","been","being",
+        "this","that","these","those",
+        "we","our","you","your","they","their","them",
+        "will","can","may","must","should","could","would",
+
+        // generic resume/job filler (job-agnostic)
+        "across","communication","skilled","experienced","experience",
+        "strong","excellent","good","great",
+        "team","member","work","working",
+        "role","responsibilities","requirements","required",
+        "skills","skill","years","year",
+        "technical","technologies","technology",
+        "user","customers","customer",
+        "variety","functional","cross","two",
+
+        // common verbs that add noise
+        "using","used","use","develop","developed","design","designed",
+        "implement","implemented","provide","provided","support","supporting"
+    );
+
+    // Perfect-hash view of STOPWORDS, probed straight from the token buffer
+    private static final StopwordTable STOPWORD_TABLE = new StopwordTable(STOPWORDS);
+
+    // Reusable per-thread token buffer (lowercased ASCII)
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+
+    /**
+     * Add every accepted token of {@code text} to {@code out}.
+     * Single pass: token chars are [A-Za-z0-9+#.], lowercased into a reusable buffer;
+     * a String is only allocated once a token passes the length/stopword checks.
+     */
+    public static void addTokens(Collection<String> out, String text) {
+        if (text == null || text.isEmpty()) return;
+
+        char[] buf = BUFFER.get();
+        int len = 0;
+        int n = text.length();
+
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (isTokenChar(c)) {
+                if (len == buf.length) {
+                    buf = Arrays.copyOf(buf, len * 2);
+                    BUFFER.set(buf);
+                }
+                buf[len++] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+            } else if (len > 0) {
+                accept(out, buf, len);
+                len = 0;
+            }
+        }
+        if (len > 0) accept(out, buf, len);
+    }
+
+    private static void accept(Collection<String> out, char[] buf, int len) {
+        // strip leading/trailing dots (fix "skills.")
+        int start = 0;
+        int end = len;
+        while (start < end && buf[start] == '.') start++;
+        while (end > start && buf[end - 1] == '.') end--;
+
+        int tlen = end - start;
+        if (tlen < 2) return;
+
+        // normalize a few common forms (".net" is "net" once dots are stripped)
+        if (tlen == 3 && buf[start] == 'n' && buf[start + 1] == 'e' && buf[start + 2] == 't') {
+            out.add("dotnet");
+            return;
+        }
+
+        if (STOPWORD_TABLE.contains(buf, start, tlen)) return;
+        out.add(new String(buf, start, tlen));
+    }
+
+    private static boolean isTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '+' || c == '#' || c == '.';
+    }
+
+    /**
+     * Add each list entry as a single normalized term (skills, titles)
+     */
+    public static void addTerms(Collection<String> out, List<String> values) {
+        if (values == null) return;
+        for (String x : values) {
+            if (x == null) continue;
+            String n = norm(x);
+            if (!n.isBlank()) out.add(n);
+        }
+    }
+
+    /**
+     * Normalize a whole value (skill, title) into one term
+     */
+    public static String norm(String s) {
+        if (s == null) return "";
+        String x = s.trim().toLowerCase(Locale.ROOT);
+
+        // remove leading/trailing non-token chars (but allow + # . inside token)
+        int start = 0;
+        int end = x.length();
+        while (start < end && !isLowerTokenChar(x.charAt(start))) start++;
+        while (end > start && !isLowerTokenChar(x.charAt(end - 1))) end--;
+
+        // specifically strip trailing/leading dots (fix "skills.")
+        while (start < end && x.charAt(start) == '.') start++;
+        while (end > start && x.charAt(end - 1) == '.') end--;
+
+        x = (start == 0 && end == x.length()) ? x : x.substring(start, end);
+
+        // normalize a few common forms
+        if (x.equals(".net") || x.equals("net")) x = "dotnet";
+
+        return x;
+    }
+
+    private static boolean isLowerTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+' || c == '#' || c == '.';
+    }
+
+    /**
+     * Collision-free open table: the seed is searched once at class init so every
+     * stopword lands in its own slot, and a lookup is one hash plus one compare.
+     */
+    static final class StopwordTable {
+        private final char[][] slots;
+        private final int mask;
+        private final int seed;
+
+        StopwordTable(Set<String> words) {
+            int size = Integer.highestOneBit(Math.max(words.size(), 1) * 4 - 1) << 1;
+            while (true) {
+                for (int candidate = 1; candidate < 4096; candidate++) {
+                    char[][] table = tryBuild(words, size, candidate);
+                    if (table != null) {
+                        this.slots = table;
+                        this.mask = size - 1;
+                        this.seed = candidate;
+                        return;
+                    }
+                }
+                size <<= 1;
+            }
+        }
+
+        boolean contains(char[] buf, int off, int len) {
+            char[] w = slots[hash(seed, buf, off, len) & mask];
+            return w != null && Arrays.equals(w, 0, w.length, buf, off, off + len);
+        }
+
+        private static char[][] tryBuild(Set<String> words, int size, int seed) {
+            char[][] table = new char[size][];
+            for (String w : words) {
+                char[] chars = w.toCharArray();
+                int slot = hash(seed, chars, 0, chars.length) & (size - 1);
+                if (table[slot] != null) return null;
+                table[slot] = chars;
+            }
+            return table;
+        }
+
+        private static int hash(int seed, char[] buf, int off, int len) {
+            int h = seed * 0x9E3779B9;
+            for (int i = off; i < off + len; i++) {
+                h = (h ^ buf[i]) * 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jobtracker.service.jobmatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Top-K scoring over a pool of items [0, n), sequential or fork-join parallel.
+ *
+ * Goes parallel only when the pool is expected to take longer than
+ * jobs.matchScoring.parallelMinMicros to score sequentially, using a running
+ * estimate of the per-item cost, so small pools never pay the fork overhead.
+ * Parallel runs split the pool into fixed-size chunks, keep a local TopK per
+ * chunk and merge them, on a dedicated pool (never the common pool).
+ */
+@Component
+public class ParallelMatchScorer {
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final long parallelMinNanos;
+
+    // Running average of nanoseconds per scored item (EWMA over recent runs)
+    private volatile double nanosPerItem = 2_000;
+
+    private final Counter sequentialRuns;
+    private final Counter parallelRuns;
+
+    public ParallelMatchScorer(@Value("${jobs.matchScoring.parallelism:0}") int parallelism,
+                               @Value("${jobs.matchScoring.chunkSize:256}") int chunkSize,
+                               @Value("${jobs.matchScoring.parallelMinMicros:2000}") long parallelMinMicros,
+                               MeterRegistry meterRegistry) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.chunkSize = Math.max(chunkSize, 16);
+        this.parallelMinNanos = parallelMinMicros * 1_000;
+        this.sequentialRuns = meterRegistry.counter("jobs.match.scoring.mode", "mode", "sequential");
+        this.parallelRuns = meterRegistry.counter("jobs.match.scoring.mode", "mode", "parallel");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Best k of items [0, n) by score (ties: higher tie key wins), sorted best-first
+     */
+    public TopK topK(int n, int k, IntToDoubleFunction score, IntToLongFunction tie) {
+        boolean parallel = pool.getParallelism() > 1
+                && n >= 2 * chunkSize
+                && n * nanosPerItem >= parallelMinNanos;
+
+        long start = System.nanoTime();
+        TopK top;
+        if (parallel) {
+            parallelRuns.increment();
+            top = pool.invoke(new ChunkTask(0, n, k, score, tie, chunkSize));
+        } else {
+            sequentialRuns.increment();
+            top = scoreRange(0, n, k, score, tie);
+        }
+        if (n > 0) {
+            // Parallel wall time scaled back up by the worker count approximates the sequential cost
+            double elapsed = System.nanoTime() - start;
+            double observed = (parallel ? elapsed * pool.getParallelism() : elapsed) / n;
+            nanosPerItem = 0.8 * nanosPerItem + 0.2 * observed;
+        }
+        top.sort();
+        return top;
+    }
+
+    private static TopK scoreRange(int from, int to, int k, IntToDoubleFunction score, IntToLongFunction tie) {
+        TopK heap = new TopK(k);
+        for (int i = from; i < to; i++) {
+            heap.offer(i, score.applyAsDouble(i), tie.applyAsLong(i));
+        }
+        return heap;
+    }
+
+    private static final class ChunkTask extends RecursiveTask<TopK> {
+        private final int from, to, k, chunkSize;
+        private final IntToDoubleFunction score;
+        private final IntToLongFunction tie;
+
+        ChunkTask(int from, int to, int k, IntToDoubleFunction score, IntToLongFunction tie, int chunkSize) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.score = score;
+            this.tie = tie;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= chunkSize) {
+                return scoreRange(from, to, k, score, tie);
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(from, mid, k, score, tie, chunkSize);
+            left.fork();
+            TopK right = new ChunkTask(mid, to, k, score, tie, chunkSize).compute();
+            TopK merged = left.join();
+            merged.offerAll(right);
+            return merged;
+        }
+    }
+}
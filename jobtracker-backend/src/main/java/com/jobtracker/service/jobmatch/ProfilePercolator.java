@@ -0,0 +1,299 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.CandidateProfile;
+import com.jobtracker.model.JobListing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse matching: every user's latest CandidateProfile, indexed by term, so a new
+ * listing is scored only against the profiles that share at least one term with it.
+ *
+ * Per listing, intersection counts (primary/all/skills) are accumulated per touched
+ * profile straight from the postings, then turned into the same weighted F1 score
+ * /matches/jobs uses (MatchScores). Cost per listing is the summed posting length of
+ * its terms, not the number of profiles.
+ *
+ * Profile terms are only looked up in the TermDictionary, never interned (profile text must
+ * not grow it). A term no listing has used yet can't match anything; it waits, by string,
+ * until a listing brings it into the dictionary and is then posted like the rest.
+ *
+ * The dictionary is the match index's current one, handed over on rebuild: each index
+ * rebuild starts a fresh dictionary, and ProfilePercolatorJob reloads the profiles onto it
+ * so term IDs here and in the index never come from different generations.
+ */
+@Component
+public class ProfilePercolator {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State(new TermDictionary());
+    private volatile boolean ready;
+    // Profiles upserted while a rebuild is loading, replayed onto the new state
+    private List<CandidateProfile> pendingDuringRebuild;
+
+    public record Match(String userId, String profileId, JobListing listing, double score) {}
+
+    public ProfilePercolator(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("jobs.match.percolator.profiles", this, ProfilePercolator::profileCount)
+                .description("Candidate profiles indexed for reverse matching")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int profileCount() {
+        lock.readLock().lock();
+        try {
+            return state.byUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The dictionary profile terms are currently resolved against
+     */
+    public TermDictionary dictionary() {
+        lock.readLock().lock();
+        try {
+            return state.dictionary;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload the latest profile of every user from Mongo, resolving their terms against dictionary
+     */
+    public void rebuild(TermDictionary dictionary) {
+        Aggregation agg = Aggregation.newAggregation(
+                Aggregation.project("userId", "generatedAt", "skills", "technologies", "titles", "summary"),
+                Aggregation.sort(Sort.Direction.DESC, "generatedAt"),
+                Aggregation.group("userId").first("$$ROOT").as("profile"),
+                Aggregation.replaceRoot("profile")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State(dictionary);
+        try (var profiles = mongoTemplate.aggregateStream(agg, "candidate_profiles", CandidateProfile.class)) {
+            profiles.forEach(fresh::upsert);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Upserts are always a user's newest profile, so they win over what the scan loaded
+            for (CandidateProfile p : pendingDuringRebuild) {
+                fresh.upsert(p);
+            }
+            pendingDuringRebuild = null;
+            state = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index a newly built profile; it replaces the user's previous one
+     */
+    public void upsert(CandidateProfile profile) {
+        if (profile.getUserId() == null) return;
+        lock.writeLock().lock();
+        try {
+            state.upsert(profile);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(profile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Every (profile, listing) pair scoring at least minScore, for a batch of saved listings
+     */
+    public List<Match> percolate(List<JobListing> listings, double minScore) {
+        // Under the write lock: a rebuild can't swap the state (and its dictionary) in between
+        lock.writeLock().lock();
+        try {
+            // Listings first: their terms enter the dictionary, so profile terms waiting on them resolve
+            List<EncodedTerms> encoded = new ArrayList<>(listings.size());
+            for (JobListing j : listings) {
+                encoded.add(j.isActive() && j.getAllTerms() != null ? EncodedTerms.of(j, state.dictionary) : null);
+            }
+            state.resolve();
+            return state.percolate(listings, encoded, minScore);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class State {
+        private final TermDictionary dictionary;
+
+        // Per slot (dead slots stay in postings and are skipped)
+        private final List<String> userIds = new ArrayList<>();
+        private final List<String> profileIds = new ArrayList<>();
+        private int[] candidateSizes = new int[1024];
+        private final BitSet live = new BitSet();
+
+        private final Map<String, Integer> byUser = new HashMap<>();
+
+        // Per term ID: slots of profiles containing the term (dead slots are skipped when scored)
+        private int[][] postings = new int[0][];
+        private int[] postingSizes = new int[0];
+
+        // Profile terms not in the dictionary yet -> slots waiting on them; dictionary size last checked
+        private final Map<String, List<Integer>> unresolved = new HashMap<>();
+        private int resolvedAt;
+
+        State(TermDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        void upsert(CandidateProfile p) {
+            Integer previous = byUser.remove(p.getUserId());
+            if (previous != null) live.clear(previous);
+
+            Set<String> terms = JobTermExtractor.candidateTerms(p);
+            if (terms.isEmpty()) return;
+            int[] ids = TermSets.lookup(terms, dictionary);
+
+            int slot = userIds.size();
+            userIds.add(p.getUserId());
+            profileIds.add(p.getId());
+            if (slot == candidateSizes.length) candidateSizes = Arrays.copyOf(candidateSizes, slot * 2);
+            // The full size: unknown terms still count against the profile, as in /matches/jobs
+            candidateSizes[slot] = terms.size();
+            live.set(slot);
+            byUser.put(p.getUserId(), slot);
+
+            ensureTermCapacity(dictionary.size());
+            for (int term : ids) post(term, slot);
+            if (ids.length < terms.size()) {
+                for (String t : terms) {
+                    if (dictionary.idOf(t) < 0) unresolved.computeIfAbsent(t, k -> new ArrayList<>()).add(slot);
+                }
+            }
+        }
+
+        // Post waiting profile terms that listings have since added to the dictionary
+        void resolve() {
+            int size = dictionary.size();
+            if (size == resolvedAt || unresolved.isEmpty()) {
+                resolvedAt = size;
+                return;
+            }
+            ensureTermCapacity(size);
+            for (Iterator<Map.Entry<String, List<Integer>>> it = unresolved.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, List<Integer>> e = it.next();
+                int term = dictionary.idOf(e.getKey());
+                if (term < 0 || term >= postings.length) continue;
+                for (int slot : e.getValue()) post(term, slot);
+                it.remove();
+            }
+            resolvedAt = size;
+        }
+
+        private void post(int term, int slot) {
+            int[] list = postings[term];
+            int n = postingSizes[term];
+            if (list == null) {
+                list = new int[4];
+                postings[term] = list;
+            } else if (n == list.length) {
+                list = Arrays.copyOf(list, n * 2);
+                postings[term] = list;
+            }
+            list[n] = slot;
+            postingSizes[term] = n + 1;
+        }
+
+        private void ensureTermCapacity(int n) {
+            if (n <= postings.length) return;
+            int cap = Math.max(n, postings.length * 2);
+            postings = Arrays.copyOf(postings, cap);
+            postingSizes = Arrays.copyOf(postingSizes, cap);
+        }
+
+        List<Match> percolate(List<JobListing> listings, List<EncodedTerms> encoded, double minScore) {
+            int slots = userIds.size();
+            // Sparse accumulators, reused across the batch (touched slots are reset after each listing)
+            int[] interPrimary = new int[slots];
+            int[] interAll = new int[slots];
+            int[] interSkills = new int[slots];
+            int[] touched = new int[slots];
+
+            List<Match> matches = new ArrayList<>();
+            for (int li = 0; li < listings.size(); li++) {
+                JobListing j = listings.get(li);
+                EncodedTerms t = encoded.get(li);
+                if (t == null) continue;
+                int nTouched = 0;
+
+                for (int term : t.all()) {
+                    if (term >= postings.length) continue;
+                    boolean primary = TermSets.contains(t.primary(), term);
+                    int[] list = postings[term];
+                    for (int i = 0, n = postingSizes[term]; i < n; i++) {
+                        int slot = list[i];
+                        if (interAll[slot] == 0 && interSkills[slot] == 0) touched[nTouched++] = slot;
+                        interAll[slot]++;
+                        if (primary) interPrimary[slot]++;
+                    }
+                }
+                for (int term : t.skills()) {
+                    if (term >= postings.length) continue;
+                    int[] list = postings[term];
+                    for (int i = 0, n = postingSizes[term]; i < n; i++) {
+                        int slot = list[i];
+                        if (interAll[slot] == 0 && interSkills[slot] == 0) touched[nTouched++] = slot;
+                        interSkills[slot]++;
+                    }
+                }
+
+                for (int i = 0; i < nTouched; i++) {
+                    int slot = touched[i];
+                    if (live.get(slot)) {
+                        double score = MatchScores.score(candidateSizes[slot],
+                                t.primary().length, interPrimary[slot],
+                                t.all().length, interAll[slot],
+                                t.skills().length, interSkills[slot]);
+                        if (score >= minScore) {
+                            matches.add(new Match(userIds.get(slot), profileIds.get(slot), j, score));
+                        }
+                    }
+                    interPrimary[slot] = 0;
+                    interAll[slot] = 0;
+                    interSkills[slot] = 0;
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.*;
+
+/**
+ * Compiled Aho-Corasick automaton over skill phrases, matching case-insensitively on
+ * word boundaries in one pass over the text.
+ *
+ * Input chars are folded into a small alphabet (letters, digits, + # . - / &, and a
+ * separator for everything else; separator runs collapse to one), and the failure
+ * function is folded into a dense state x class table, so each input char costs one
+ * array lookup. A phrase only matches where it isn't glued to a surrounding letter or
+ * digit ("java" never matches inside "javascript") or dot-joined to a word ("js" in
+ * "node.js"), unless the phrase itself starts or ends with a symbol (".net" matches in
+ * "asp.net").
+ *
+ * Each canonical entry has a kind (skill or job title), so one pass finds both.
+ * Immutable once built; SkillExtractor swaps in a new one on reload.
+ */
+public final class SkillAutomaton {
+
+    public enum Kind { SKILL, TITLE }
+
+    /**
+     * Canonical entries found in one pass, per kind, in order of first occurrence
+     */
+    public record Extraction(List<String> skills, List<String> titles) {}
+
+    static final int MAX_PHRASE = 63;
+
+    private static final int SEP = 0;
+    private static final int OTHER_WORD = 37;   // non-ASCII letters/digits: word chars, never in a phrase
+    private static final int DOT = 40;
+    private static final int CLASSES = 44;
+    private static final byte[] ASCII_CLASS = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) ASCII_CLASS[c] = (byte) (1 + c - 'a');
+        for (char c = 'A'; c <= 'Z'; c++) ASCII_CLASS[c] = (byte) (1 + c - 'A');
+        for (char c = '0'; c <= '9'; c++) ASCII_CLASS[c] = (byte) (27 + c - '0');
+        ASCII_CLASS['+'] = 38;
+        ASCII_CLASS['#'] = 39;
+        ASCII_CLASS['.'] = DOT;
+        ASCII_CLASS['-'] = 41;
+        ASCII_CLASS['/'] = 42;
+        ASCII_CLASS['&'] = 43;
+    }
+
+    private final int[] next;          // state * CLASSES + class -> state (failure links folded in)
+    private final int[] output;        // canonical ID matched when this state is reached, or -1
+    private final int[] outputLink;    // nearest failure-chain state with an output, or -1
+    private final int[] depth;         // phrase length (in classes) ending at this state
+    private final boolean[] wordStart; // per state with output: phrase starts with a word char
+    private final boolean[] wordEnd;   // per state with output: phrase ends with a word char
+    private final String[] canonical;
+    private final Kind[] kinds;
+    private final int phrases;
+
+    private SkillAutomaton(int[] next, int[] output, int[] outputLink, int[] depth,
+                           boolean[] wordStart, boolean[] wordEnd, String[] canonical, Kind[] kinds,
+                           int phrases) {
+        this.next = next;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.depth = depth;
+        this.wordStart = wordStart;
+        this.wordEnd = wordEnd;
+        this.canonical = canonical;
+        this.kinds = kinds;
+        this.phrases = phrases;
+    }
+
+    public int phraseCount() {
+        return phrases;
+    }
+
+    public int skillCount() {
+        int n = 0;
+        for (Kind k : kinds) if (k == Kind.SKILL) n++;
+        return n;
+    }
+
+    public int titleCount() {
+        return kinds.length - skillCount();
+    }
+
+    /**
+     * Canonical skills found in the texts, in order of first occurrence, without duplicates
+     */
+    public List<String> extract(CharSequence... texts) {
+        return extractAll(texts).skills();
+    }
+
+    /**
+     * Canonical skills and titles found in the texts (single pass per text)
+     */
+    public Extraction extractAll(CharSequence... texts) {
+        BitSet seen = new BitSet(canonical.length);
+        List<Integer> found = new ArrayList<>();
+        for (CharSequence t : texts) {
+            if (t != null) scan(t, seen, found);
+        }
+        List<String> skills = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        for (int id : found) {
+            (kinds[id] == Kind.SKILL ? skills : titles).add(canonical[id]);
+        }
+        return new Extraction(skills, titles);
+    }
+
+    private void scan(CharSequence text, BitSet seen, List<Integer> found) {
+        // Classes of the last MAX_PHRASE + 1 fed chars, to check the char before a match
+        byte[] recent = new byte[64];
+        int fed = 0;
+        int state = 0;
+        int prev = SEP;
+        int n = text.length();
+
+        for (int i = 0; i <= n; i++) {
+            // One trailing separator so a phrase at the very end sees its boundary
+            int c = i < n ? classOf(text.charAt(i)) : SEP;
+            if (c == SEP && prev == SEP) continue;
+
+            // A match ending at the previous char is confirmed once we know the next char
+            state = step(state, c, recent, fed, !isWord(c), seen, found);
+            recent[fed & 63] = (byte) c;
+            fed++;
+            prev = c;
+        }
+    }
+
+    // Report outputs of the current state (which end at the previous char) when the
+    // following char allows it, then advance
+    private int step(int state, int c, byte[] recent, int fed, boolean nextIsBoundary,
+                     BitSet seen, List<Integer> found) {
+        int s = output[state] >= 0 ? state : outputLink[state];
+        while (s >= 0) {
+            if (!wordEnd[s] || nextIsBoundary) {
+                int start = fed - depth[s];
+                boolean startOk = !wordStart[s] || start == 0 || !joined(recent, start);
+                int id = output[s];
+                if (startOk && !seen.get(id)) {
+                    seen.set(id);
+                    found.add(id);
+                }
+            }
+            s = outputLink[s];
+        }
+        return next[state * CLASSES + c];
+    }
+
+    // Is the char before position start part of the same word? A dot counts when it sits
+    // between word chars ("js" in "node.js" is not a match on its own)
+    private static boolean joined(byte[] recent, int start) {
+        int before = recent[(start - 1) & 63];
+        if (isWord(before)) return true;
+        return before == DOT && start >= 2 && isWord(recent[(start - 2) & 63]);
+    }
+
+    private static int classOf(char ch) {
+        if (ch < 128) return ASCII_CLASS[ch];
+        return Character.isLetterOrDigit(ch) ? OTHER_WORD : SEP;
+    }
+
+    private static boolean isWord(int c) {
+        return c >= 1 && c <= OTHER_WORD;
+    }
+
+    /**
+     * Phrase text as class codes (separator runs collapsed, ends trimmed); null if unusable
+     */
+    static byte[] encode(String phrase) {
+        byte[] out = new byte[phrase.length()];
+        int len = 0;
+        for (int i = 0; i < phrase.length(); i++) {
+            int c = classOf(phrase.charAt(i));
+            if (c == OTHER_WORD) return null;
+            if (c == SEP && (len == 0 || out[len - 1] == SEP)) continue;
+            out[len++] = (byte) c;
+        }
+        while (len > 0 && out[len - 1] == SEP) len--;
+        return len == 0 || len > MAX_PHRASE ? null : Arrays.copyOf(out, len);
+    }
+
+    /**
+     * Builds an automaton from phrase -> canonical skill entries
+     */
+    public static final class Builder {
+        private final Map<String, Integer> canonicalIds = new LinkedHashMap<>();
+        private final List<String> canonicalNames = new ArrayList<>();
+        private final List<Kind> canonicalKinds = new ArrayList<>();
+        private final List<byte[]> phraseCodes = new ArrayList<>();
+        private final List<Integer> phraseTargets = new ArrayList<>();
+
+        /**
+         * Map a phrase (case-insensitive) to a canonical skill; returns false if the phrase can't be matched
+         */
+        public boolean add(String phrase, String canonicalSkill) {
+            return add(phrase, canonicalSkill, Kind.SKILL);
+        }
+
+        public boolean add(String phrase, String canonicalName, Kind kind) {
+            byte[] codes = encode(phrase);
+            if (codes == null) return false;
+            int id = canonicalIds.computeIfAbsent(kind + ":" + canonicalName, k -> {
+                canonicalNames.add(canonicalName);
+                canonicalKinds.add(kind);
+                return canonicalNames.size() - 1;
+            });
+            phraseCodes.add(codes);
+            phraseTargets.add(id);
+            return true;
+        }
+
+        public SkillAutomaton build() {
+            // Trie, with goto stored sparse while building
+            List<int[]> children = new ArrayList<>();
+            List<Integer> outs = new ArrayList<>();
+            List<Integer> depths = new ArrayList<>();
+            children.add(newRow());
+            outs.add(-1);
+            depths.add(0);
+
+            for (int p = 0; p < phraseCodes.size(); p++) {
+                byte[] codes = phraseCodes.get(p);
+                int s = 0;
+                for (byte code : codes) {
+                    int child = children.get(s)[code];
+                    if (child < 0) {
+                        child = children.size();
+                        children.get(s)[code] = child;
+                        children.add(newRow());
+                        outs.add(-1);
+                        depths.add(depths.get(s) + 1);
+                    }
+                    s = child;
+                }
+                // First mapping wins if the same phrase is listed twice
+                if (outs.get(s) < 0) outs.set(s, phraseTargets.get(p));
+            }
+
+            int states = children.size();
+            int[] next = new int[states * CLASSES];
+            int[] fail = new int[states];
+            int[] output = new int[states];
+            int[] outputLink = new int[states];
+            int[] depth = new int[states];
+            boolean[] wordStart = new boolean[states];
+            boolean[] wordEnd = new boolean[states];
+            for (int s = 0; s < states; s++) {
+                output[s] = outs.get(s);
+                depth[s] = depths.get(s);
+            }
+
+            // BFS: failure links and the dense transition table
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            int[] firstClass = new int[states];
+            int[] lastClass = new int[states];
+            for (int c = 0; c < CLASSES; c++) {
+                int child = children.get(0)[c];
+                if (child >= 0) {
+                    next[c] = child;
+                    fail[child] = 0;
+                    firstClass[child] = c;
+                    lastClass[child] = c;
+                    queue.add(child);
+                } else {
+                    next[c] = 0;
+                }
+            }
+            outputLink[0] = -1;
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                int f = fail[s];
+                outputLink[s] = output[f] >= 0 ? f : outputLink[f];
+                if (output[s] >= 0) {
+                    wordStart[s] = isWord(firstClass[s]);
+                    wordEnd[s] = isWord(lastClass[s]);
+                }
+                for (int c = 0; c < CLASSES; c++) {
+                    int child = children.get(s)[c];
+                    if (child >= 0) {
+                        next[s * CLASSES + c] = child;
+                        fail[child] = next[f * CLASSES + c];
+                        firstClass[child] = firstClass[s];
+                        lastClass[child] = c;
+                        queue.add(child);
+                    } else {
+                        next[s * CLASSES + c] = next[f * CLASSES + c];
+                    }
+                }
+            }
+
+            return new SkillAutomaton(next, output, outputLink, depth, wordStart, wordEnd,
+                    canonicalNames.toArray(new String[0]), canonicalKinds.toArray(new Kind[0]),
+                    phraseCodes.size());
+        }
+
+        private static int[] newRow() {
+            int[] row = new int[CLASSES];
+            Arrays.fill(row, -1);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.JobListing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Dictionary-driven skill (and job title) extraction shared by listings and resumes.
+ *
+ * The dictionary (jobs.skills.dictionary, classpath by default) is compiled into a
+ * SkillAutomaton, so extraction is a single linear pass whatever the dictionary size.
+ * When the dictionary is a file, it is re-read whenever it changes (checked every
+ * jobs.skills.reloadMs) and the new automaton is swapped in atomically; a dictionary
+ * that fails to load leaves the current one in place.
+ */
+@Component
+public class SkillExtractor {
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    private volatile SkillAutomaton automaton;
+    private volatile long loadedModified = -1;
+
+    public SkillExtractor(ResourceLoader resourceLoader,
+                          @Value("${jobs.skills.dictionary:classpath:skills/skills.txt}") String location,
+                          MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.automaton = new SkillAutomaton.Builder().build();
+        try {
+            reload();
+        } catch (IOException e) {
+            System.err.println("❌ Skill dictionary not loaded from " + location + ": " + e.getMessage());
+        }
+        Gauge.builder("jobs.skills.dictionary.skills", this, s -> s.automaton.skillCount())
+                .description("Canonical skills in the extraction dictionary")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Canonical skills mentioned in the texts, in order of first mention
+     */
+    public List<String> extract(CharSequence... texts) {
+        return automaton.extract(texts);
+    }
+
+    /**
+     * Canonical skills and job titles mentioned in the texts, found in one pass
+     */
+    public SkillAutomaton.Extraction extractAll(CharSequence... texts) {
+        return automaton.extractAll(texts);
+    }
+
+    /**
+     * Add the skills a listing's title/description mention to its explicit skills
+     * (explicit values are kept as given; extracted ones are canonical)
+     */
+    public void applyTo(JobListing j) {
+        List<String> extracted = extract(j.getTitle(), j.getDescription());
+        if (extracted.isEmpty()) return;
+        List<String> skills = j.getSkills() == null ? new ArrayList<>() : new ArrayList<>(j.getSkills());
+        Set<String> present = new HashSet<>();
+        MatchTokenizer.addTerms(present, skills);
+        for (String s : extracted) {
+            if (present.add(s)) skills.add(s);
+        }
+        j.setSkills(skills);
+    }
+
+    /**
+     * Canonical skills of explicit values (e.g. LLM-extracted skills), or their normalized
+     * form when the dictionary doesn't know them
+     */
+    public List<String> canonicalize(List<String> values) {
+        List<String> out = new ArrayList<>();
+        if (values == null) return out;
+        SkillAutomaton a = automaton;
+        for (String v : values) {
+            if (v == null || v.isBlank()) continue;
+            List<String> known = a.extract(v);
+            String skill = known.size() == 1 ? known.get(0) : MatchTokenizer.norm(v);
+            if (!skill.isBlank() && !out.contains(skill)) out.add(skill);
+        }
+        return out;
+    }
+
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${jobs.skills.reloadMs:60000}")
+    public void reloadIfChanged() {
+        try {
+            Resource r = resourceLoader.getResource(location);
+            if (!r.isFile()) return; // classpath jar entries never change at runtime
+            if (r.lastModified() != loadedModified) {
+                reload();
+                System.out.println("🧩 Skill dictionary reloaded: " + automaton.skillCount() + " skills, "
+                        + automaton.titleCount() + " titles, " + automaton.phraseCount() + " phrases");
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Skill dictionary reload failed, keeping the current one: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compile the dictionary and swap it in
+     */
+    public synchronized void reload() throws IOException {
+        Resource r = resourceLoader.getResource(location);
+        long modified = r.isFile() ? r.lastModified() : 0;
+        SkillAutomaton.Builder builder = new SkillAutomaton.Builder();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(r.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            SkillAutomaton.Kind kind = SkillAutomaton.Kind.SKILL;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                String trimmed = line.trim();
+                // Section headers: [skills] (the default) and [titles]
+                if (trimmed.equalsIgnoreCase("[skills]")) kind = SkillAutomaton.Kind.SKILL;
+                else if (trimmed.equalsIgnoreCase("[titles]")) kind = SkillAutomaton.Kind.TITLE;
+                else parseLine(builder, trimmed, kind, lineNo);
+            }
+        }
+        automaton = builder.build();
+        loadedModified = modified;
+    }
+
+    // "canonical: synonym, synonym" ("!canonical" = label only, not matched itself)
+    private void parseLine(SkillAutomaton.Builder builder, String line, SkillAutomaton.Kind kind, int lineNo) {
+        if (line.isEmpty() || line.startsWith("#")) return;
+        boolean labelOnly = line.startsWith("!");
+        if (labelOnly) line = line.substring(1);
+
+        int colon = line.indexOf(':');
+        String canonical = (colon < 0 ? line : line.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        if (canonical.isEmpty()) return;
+
+        if (!labelOnly && !builder.add(canonical, canonical, kind)) {
+            System.err.println("⚠️ Skill dictionary line " + lineNo + ": cannot match '" + canonical + "'");
+        }
+        if (colon < 0) return;
+        for (String synonym : line.substring(colon + 1).split(",")) {
+            String s = synonym.trim();
+            if (!s.isEmpty() && !builder.add(s, canonical, kind)) {
+                System.err.println("⚠️ Skill dictionary line " + lineNo + ": cannot match '" + s + "'");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dictionary of normalized match terms to dense int IDs, for one JobMatchIndex generation.
+ * IDs are only ever appended, so an encoded term set stays valid for as long as its
+ * dictionary is in use; each index rebuild starts a new one (see JobMatchIndex.dictionary()),
+ * which bounds it by the live corpus instead of every listing ever seen.
+ */
+public class TermDictionary {
+
+    private static final AtomicLong EPOCHS = new AtomicLong();
+
+    // Later dictionaries have larger epochs
+    private final long epoch = EPOCHS.incrementAndGet();
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] terms = new String[4096];
+    private int size;
+
+    /**
+     * ID for a term, assigning the next free one if the term is new
+     */
+    public int intern(String term) {
+        Integer id = ids.get(term);
+        if (id != null) return id;
+
+        synchronized (this) {
+            id = ids.get(term);
+            if (id != null) return id;
+
+            int next = size;
+            String[] current = terms;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = term;
+            terms = current;
+            size = next + 1;
+            // Published last, so a reader that sees the ID also sees the term
+            ids.put(term, next);
+            return next;
+        }
+    }
+
+    /**
+     * ID for a term, or -1 if no listing has ever used it (never grows the dictionary)
+     */
+    public int idOf(String term) {
+        Integer id = ids.get(term);
+        return id == null ? -1 : id;
+    }
+
+    public String term(int id) {
+        return terms[id];
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.jobtracker.service.jobmatch;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Term sets as sorted, de-duplicated int[] of TermDictionary IDs.
+ * Intersections are linear merges, or galloping searches when one side is much smaller.
+ */
+public final class TermSets {
+
+    public static final int[] EMPTY = new int[0];
+
+    // Size ratio above which galloping beats a linear merge
+    private static final int GALLOP_RATIO = 8;
+
+    private TermSets() {}
+
+    /**
+     * Encode terms, assigning IDs to new ones (listing side)
+     */
+    public static int[] encode(Collection<String> terms, TermDictionary dict) {
+        if (terms == null || terms.isEmpty()) return EMPTY;
+        int[] out = new int[terms.size()];
+        int n = 0;
+        for (String t : terms) {
+            out[n++] = dict.intern(t);
+        }
+        return sortedUnique(out, n);
+    }
+
+    /**
+     * Encode terms without growing the dictionary (query side); unknown terms are dropped,
+     * since no indexed listing can contain them
+     */
+    public static int[] lookup(Collection<String> terms, TermDictionary dict) {
+        if (terms == null || terms.isEmpty()) return EMPTY;
+        int[] out = new int[terms.size()];
+        int n = 0;
+        for (String t : terms) {
+            int id = dict.idOf(t);
+            if (id >= 0) out[n++] = id;
+        }
+        return sortedUnique(out, n);
+    }
+
+    public static boolean contains(int[] set, int id) {
+        return Arrays.binarySearch(set, id) >= 0;
+    }
+
+    public static int intersectionSize(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) return 0;
+        if (a.length > b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        return (b.length / a.length >= GALLOP_RATIO) ? gallop(a, b) : merge(a, b);
+    }
+
+    private static int merge(int[] a, int[] b) {
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            int x = a[i], y = b[j];
+            if (x == y) {
+                count++;
+                i++;
+                j++;
+            } else if (x < y) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    // For each element of the small set, exponential then binary search forward in the large one
+    private static int gallop(int[] small, int[] large) {
+        int lo = 0, count = 0;
+        for (int x : small) {
+            int step = 1;
+            int hi = lo;
+            while (hi < large.length && large[hi] < x) {
+                lo = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int pos = Arrays.binarySearch(large, lo, Math.min(hi + 1, large.length), x);
+            if (pos >= 0) {
+                count++;
+                lo = pos + 1;
+            } else {
+                lo = -pos - 1;
+            }
+            if (lo >= large.length) break;
+        }
+        return count;
+    }
+
+    private static int[] sortedUnique(int[] ids, int n) {
+        if (n == 0) return EMPTY;
+        Arrays.sort(ids, 0, n);
+        int w = 1;
+        for (int r = 1; r < n; r++) {
+            if (ids[r] != ids[w - 1]) ids[w++] = ids[r];
+        }
+        return w == ids.length ? ids : Arrays.copyOf(ids, w);
+    }
+}
@@ -0,0 +1,125 @@
+package com.jobtracker.service.jobmatch;
+
+/**
+ * Bounded min-heap of the best K (id, score) pairs, on primitive arrays.
+ * Equal scores are broken by a secondary key (higher wins), e.g. postedDate.
+ */
+public final class TopK {
+
+    private final int capacity;
+    private final int[] ids;
+    private final double[] scores;
+    private final long[] ties;
+    private int size;
+
+    public TopK(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.ids = new int[this.capacity];
+        this.scores = new double[this.capacity];
+        this.ties = new long[this.capacity];
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lowest kept score, or -infinity while the heap still has room
+     */
+    public double threshold() {
+        return isFull() && size > 0 ? scores[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Keep (id, score) if it beats the current worst; returns whether it was kept
+     */
+    public boolean offer(int id, double score, long tie) {
+        if (capacity == 0) return false;
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            ties[size] = tie;
+            siftUp(size++);
+            return true;
+        }
+        if (!better(score, tie, scores[0], ties[0])) return false;
+        ids[0] = id;
+        scores[0] = score;
+        ties[0] = tie;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Reorder best-first; the heap must not be offered to afterwards
+     */
+    public void sort() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    /**
+     * Offer every entry of another heap (e.g. merging per-chunk results)
+     */
+    public void offerAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i], other.ties[i]);
+        }
+    }
+
+    public int id(int i) {
+        return ids[i];
+    }
+
+    public double score(int i) {
+        return scores[i];
+    }
+
+    private static boolean better(double s1, long t1, double s2, long t2) {
+        return s1 > s2 || (s1 == s2 && t1 > t2);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], ties[parent], scores[i], ties[i])) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        siftDown(i, size);
+    }
+
+    private void siftDown(int i, int n) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= n) break;
+            int worst = left;
+            int right = left + 1;
+            if (right < n && better(scores[left], ties[left], scores[right], ties[right])) worst = right;
+            if (!better(scores[i], ties[i], scores[worst], ties[worst])) break;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        long t = ties[a];
+        ties[a] = ties[b];
+        ties[b] = t;
+    }
+}
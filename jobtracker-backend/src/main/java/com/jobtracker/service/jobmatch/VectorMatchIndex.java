@@ -0,0 +1,395 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.CandidateProfile;
+import com.jobtracker.model.JobListing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Approximate nearest-neighbour candidate source for /matches/jobs?source=vector.
+ *
+ * Active listings are embedded (Embedder, hashing by default) into an HNSW graph whose
+ * vectors live off-heap. Builds embed and insert each load batch in parallel on a
+ * dedicated pool; the finished graph is written to a memory-mapped snapshot so a restart
+ * can serve from the mapped file until the next rebuild completes. Profile vectors are
+ * kept off-heap too, re-embedded only when the profile is rebuilt.
+ *
+ * Results are candidates only: JobMatchingService re-scores them with the exact scorer.
+ */
+@Component
+public class VectorMatchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int MAX_PROFILES = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Embedder embedder;
+    private final ForkJoinPool pool;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final Path snapshotDir;
+    private final Timer buildTimer;
+    private final Timer queryTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Listings listings;
+    private volatile boolean ready;
+    // Upserts/removals seen while a rebuild is loading, replayed onto the new graph
+    private List<Object> pendingDuringRebuild;
+
+    private final Profiles profiles;
+
+    public VectorMatchIndex(MongoTemplate mongoTemplate,
+                            Embedder embedder,
+                            @Value("${jobs.vectorIndex.m:16}") int m,
+                            @Value("${jobs.vectorIndex.efConstruction:100}") int efConstruction,
+                            @Value("${jobs.vectorIndex.efSearch:128}") int efSearch,
+                            @Value("${jobs.vectorIndex.parallelism:0}") int parallelism,
+                            @Value("${jobs.vectorIndex.snapshotDir:./data/vector-index}") String snapshotDir,
+                            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.embedder = embedder;
+        this.m = Math.max(m, 4);
+        this.efConstruction = Math.max(efConstruction, this.m);
+        this.efSearch = Math.max(efSearch, 16);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.snapshotDir = Path.of(snapshotDir);
+        this.listings = new Listings(newGraph(16));
+        this.profiles = new Profiles(newGraph(64));
+        this.buildTimer = Timer.builder("jobs.match.vector.build")
+                .description("Time to rebuild the listing vector index from Mongo")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("jobs.match.vector.query")
+                .description("Time to fetch nearest listings for one profile")
+                .register(meterRegistry);
+        Gauge.builder("jobs.match.vector.listings", this, VectorMatchIndex::liveCount)
+                .description("Listings in the vector index")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int liveCount() {
+        lock.readLock().lock();
+        try {
+            return listings.byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload every active listing from Mongo, build a new graph and swap it in, then snapshot it
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        Listings fresh = new Listings(newGraph(LOAD_BATCH_SIZE));
+        try {
+            String lastId = null;
+            List<JobListing> batch;
+            do {
+                Criteria c = Criteria.where("isActive").is(true);
+                if (lastId != null) c = c.and("_id").gt(lastId);
+                Query q = Query.query(c).with(Sort.by("_id")).limit(LOAD_BATCH_SIZE);
+                q.fields().include("primaryTerms", "allTerms", "skillTerms", "termsVersion", "isActive");
+                batch = mongoTemplate.find(q, JobListing.class);
+                fresh.addAll(batch);
+                if (!batch.isEmpty()) lastId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Object change : pendingDuringRebuild) {
+                if (change instanceof JobListing j) fresh.add(j.getId(), embed(j));
+                else fresh.remove((String) change);
+            }
+            pendingDuringRebuild = null;
+            listings = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        try {
+            saveSnapshot(fresh);
+        } catch (IOException e) {
+            System.err.println("⚠️ Vector index snapshot not written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Serve from the last snapshot until the first rebuild finishes; false if there is none
+     */
+    public boolean loadSnapshot() {
+        Path graphFile = snapshotDir.resolve("listings.hnsw");
+        Path idsFile = snapshotDir.resolve("listings.ids");
+        if (!Files.exists(graphFile) || !Files.exists(idsFile)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(idsFile)))) {
+            if (in.readInt() != SNAPSHOT_VERSION || !embedder.name().equals(in.readUTF())) return false;
+            HnswIndex graph = HnswIndex.load(graphFile, efConstruction);
+            int n = in.readInt();
+            if (n != graph.size()) return false;
+            Listings loaded = new Listings(graph);
+            for (int node = 0; node < n; node++) {
+                loaded.bind(node, in.readUTF());
+            }
+            lock.writeLock().lock();
+            try {
+                if (ready) return true; // a rebuild got there first
+                listings = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("⚠️ Vector index snapshot unreadable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Index (or re-index) a saved listing; inactive listings are removed
+     */
+    public void upsert(JobListing j) {
+        if (j.getId() == null) return;
+        if (!j.isActive() || j.getAllTerms() == null) {
+            remove(j.getId());
+            return;
+        }
+        float[] vector = embed(j);
+        lock.writeLock().lock();
+        try {
+            listings.add(j.getId(), vector);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(j);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String listingId) {
+        lock.writeLock().lock();
+        try {
+            listings.remove(listingId);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Store the vector of a newly built profile (replaces older versions)
+     */
+    public void upsertProfile(CandidateProfile profile) {
+        if (profile.getId() == null) return;
+        profiles.vectorFor(profile.getId(), profile.getGeneratedAt(),
+                () -> embedCandidate(JobTermExtractor.candidateTerms(profile)));
+    }
+
+    /**
+     * Up to k listing IDs nearest to the candidate, most similar first
+     */
+    public List<String> nearest(CandidateProfile profile, Set<String> candidate, int k) {
+        long start = System.nanoTime();
+        float[] q = profile.getId() == null
+                ? embedCandidate(candidate)
+                : profiles.vectorFor(profile.getId(), profile.getGeneratedAt(), () -> embedCandidate(candidate));
+        List<String> ids = search(q, k);
+        queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ids;
+    }
+
+    /**
+     * Nearest listings for many candidates at once, searched in parallel; same order as the input
+     */
+    public List<List<String>> nearestAll(List<Set<String>> candidates, int k) {
+        return pool.submit(() -> IntStream.range(0, candidates.size()).parallel()
+                .mapToObj(i -> search(embedCandidate(candidates.get(i)), k))
+                .toList()).join();
+    }
+
+    private List<String> search(float[] q, int k) {
+        lock.readLock().lock();
+        try {
+            List<HnswIndex.Candidate> found = listings.graph.search(q, k, Math.max(efSearch, k));
+            List<String> ids = new ArrayList<>(found.size());
+            for (HnswIndex.Candidate c : found) {
+                ids.add(listings.nodeIds[c.node()]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Title/skill tokens count double, mirroring the primary/skill weights of the exact scorer
+    private float[] embed(JobListing j) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String t : j.getAllTerms()) weights.merge(t, 1f, Float::sum);
+        if (j.getPrimaryTerms() != null) {
+            for (String t : j.getPrimaryTerms()) weights.merge(t, 1f, Float::sum);
+        }
+        if (j.getSkillTerms() != null) {
+            for (String t : j.getSkillTerms()) weights.merge(t, 1f, Float::sum);
+        }
+        return embedder.embed(weights);
+    }
+
+    private float[] embedCandidate(Set<String> candidate) {
+        Map<String, Float> weights = new HashMap<>(candidate.size() * 2);
+        for (String t : candidate) weights.put(t, 1f);
+        return embedder.embed(weights);
+    }
+
+    private HnswIndex newGraph(int capacity) {
+        return new HnswIndex(embedder.dimension(), m, efConstruction, capacity);
+    }
+
+    private void saveSnapshot(Listings snapshot) throws IOException {
+        Files.createDirectories(snapshotDir);
+        Path idsTmp = snapshotDir.resolve("listings.ids.tmp");
+        lock.readLock().lock();
+        try {
+            snapshot.graph.save(snapshotDir.resolve("listings.hnsw"));
+            int n = snapshot.graph.size();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(idsTmp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeUTF(embedder.name());
+                out.writeInt(n);
+                for (int node = 0; node < n; node++) {
+                    // Tombstoned nodes are written blank so a load doesn't resurrect them
+                    String id = snapshot.nodeIds[node];
+                    out.writeUTF(id == null || snapshot.graph.isDeleted(node) ? "" : id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(idsTmp, snapshotDir.resolve("listings.ids"),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private final class Listings {
+        private final HnswIndex graph;
+        private String[] nodeIds = new String[16];
+        private final Map<String, Integer> byId = new HashMap<>();
+
+        Listings(HnswIndex graph) {
+            this.graph = graph;
+        }
+
+        // One load batch: embedded and inserted in parallel, IDs bound afterwards
+        // (the ordered stream keeps nodes[i] aligned with usable[i])
+        void addAll(List<JobListing> batch) {
+            List<JobListing> usable = batch.stream()
+                    .filter(j -> j.getAllTerms() != null && j.getTermsVersion() == JobTermExtractor.TERMS_VERSION)
+                    .toList();
+            int[] nodes = pool.submit(() -> usable.parallelStream()
+                    .mapToInt(j -> graph.add(embed(j)))
+                    .toArray()).join();
+            for (int i = 0; i < nodes.length; i++) {
+                bind(nodes[i], usable.get(i).getId());
+            }
+        }
+
+        void add(String id, float[] vector) {
+            remove(id);
+            bind(graph.add(vector), id);
+        }
+
+        void remove(String id) {
+            Integer node = byId.remove(id);
+            if (node != null) graph.markDeleted(node);
+        }
+
+        void bind(int node, String id) {
+            if (node >= nodeIds.length) nodeIds = Arrays.copyOf(nodeIds, Math.max(node + 1, nodeIds.length * 2));
+            nodeIds[node] = id;
+            if (id.isEmpty()) {
+                graph.markDeleted(node);
+                return;
+            }
+            Integer previous = byId.put(id, node);
+            if (previous != null && previous != node) graph.markDeleted(previous);
+        }
+    }
+
+    /**
+     * Profile vectors, off-heap in their own graph (so profile-to-profile lookups stay possible).
+     * Reset when full; entries are recomputed on demand.
+     */
+    private final class Profiles {
+        private HnswIndex graph;
+        private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+        private record Slot(Instant version, int node) {}
+
+        Profiles(HnswIndex graph) {
+            this.graph = graph;
+        }
+
+        synchronized float[] vectorFor(String profileId, Instant version, Supplier<float[]> embed) {
+            Slot slot = slots.get(profileId);
+            if (slot != null && Objects.equals(slot.version, version)) {
+                return graph.vector(slot.node);
+            }
+            if (slots.size() >= MAX_PROFILES) {
+                graph = newGraph(64);
+                slots.clear();
+            } else if (slot != null) {
+                graph.markDeleted(slot.node);
+            }
+            float[] v = embed.get();
+            slots.put(profileId, new Slot(version, graph.add(v)));
+            return v;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.jobtracker.service.notification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email body compiled once into pre-encoded byte segments and typed slots.
+ *
+ * Source syntax is a small mustache subset: {{name}} is a slot (or, if name is one of
+ * the compile-time constants, that constant's raw text folded into the static bytes),
+ * {{#name}}...{{/name}} renders its body only when the slot has a value, and {{! ...}}
+ * is a comment. Each source line is trimmed and lines are joined without a separator.
+ *
+ * render() is one pass over the compiled ops into a single byte buffer: static segments
+ * are copied as-is, slot values are HTML-escaped on the way in. Output is pure ASCII
+ * (non-ASCII characters, static or not, become numeric character references), so the
+ * bytes turn into a compact Latin-1 String with one copy and no decoding.
+ */
+public final class EmailTemplate {
+
+    /** Per-email values; render() takes them indexed by ordinal */
+    public enum Slot {
+        FIRST_NAME("firstName"),
+        MESSAGE("message"),
+        JOB_TITLE("jobTitle"),
+        COMPANY("company"),
+        LOCATION("location"),
+        EVENT_DATE("eventDate"),
+        EVENT_TIME("eventTime"),
+        DATE("date"),
+        TIME("time");
+
+        private final String key;
+
+        Slot(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        static Slot byKey(String key) {
+            for (Slot s : values()) {
+                if (s.key.equals(key)) return s;
+            }
+            return null;
+        }
+    }
+
+    private static final int STATIC = 0;
+    private static final int VALUE = 1;
+    private static final int SECTION = 2;   // arg: slot; skip to jump target when the slot is null
+
+    private final int[] opKind;
+    private final int[] opArg;      // segment index (STATIC) or slot ordinal
+    private final int[] opJump;     // SECTION: op index just after the section
+    private final byte[][] segments;
+    private final int staticBytes;
+
+    private EmailTemplate(int[] opKind, int[] opArg, int[] opJump, byte[][] segments) {
+        this.opKind = opKind;
+        this.opArg = opArg;
+        this.opJump = opJump;
+        this.segments = segments;
+        int total = 0;
+        for (byte[] s : segments) total += s.length;
+        this.staticBytes = total;
+    }
+
+    /**
+     * Size of the static part, i.e. the output size with every slot empty
+     */
+    public int staticBytes() {
+        return staticBytes;
+    }
+
+    public static EmailTemplate compile(String source, Map<String, String> constants) {
+        StringBuilder joined = new StringBuilder(source.length());
+        for (String line : source.split("\\R")) joined.append(line.strip());
+        String src = joined.toString();
+
+        List<Integer> kinds = new ArrayList<>();
+        List<Integer> args = new ArrayList<>();
+        List<Integer> jumps = new ArrayList<>();
+        List<byte[]> segments = new ArrayList<>();
+        Deque<int[]> open = new ArrayDeque<>();   // {op index, slot ordinal}
+        StringBuilder text = new StringBuilder();
+
+        int i = 0;
+        while (i < src.length()) {
+            int start = src.indexOf("{{", i);
+            if (start < 0) {
+                text.append(src, i, src.length());
+                break;
+            }
+            text.append(src, i, start);
+            int end = src.indexOf("}}", start);
+            if (end < 0) throw new IllegalArgumentException("Unclosed tag at " + start);
+            String tag = src.substring(start + 2, end).strip();
+            i = end + 2;
+
+            if (tag.startsWith("!")) continue;
+            char sigil = tag.isEmpty() ? ' ' : tag.charAt(0);
+            String name = sigil == '#' || sigil == '/' ? tag.substring(1).strip() : tag;
+
+            if (sigil != '#' && sigil != '/' && constants.containsKey(name)) {
+                text.append(constants.get(name));
+                continue;
+            }
+            Slot slot = Slot.byKey(name);
+            if (slot == null) throw new IllegalArgumentException("Unknown template slot: " + name);
+
+            flush(text, kinds, args, jumps, segments);
+            if (sigil == '#') {
+                open.push(new int[]{kinds.size(), slot.ordinal()});
+                kinds.add(SECTION);
+                args.add(slot.ordinal());
+                jumps.add(-1);
+            } else if (sigil == '/') {
+                int[] section = open.poll();
+                if (section == null || section[1] != slot.ordinal()) {
+                    throw new IllegalArgumentException("Unbalanced section end: " + name);
+                }
+                jumps.set(section[0], kinds.size());
+            } else {
+                kinds.add(VALUE);
+                args.add(slot.ordinal());
+                jumps.add(-1);
+            }
+        }
+        flush(text, kinds, args, jumps, segments);
+        if (!open.isEmpty()) throw new IllegalArgumentException("Unclosed section: " + Slot.values()[open.peek()[1]].key());
+
+        return new EmailTemplate(
+                kinds.stream().mapToInt(Integer::intValue).toArray(),
+                args.stream().mapToInt(Integer::intValue).toArray(),
+                jumps.stream().mapToInt(Integer::intValue).toArray(),
+                segments.toArray(new byte[0][]));
+    }
+
+    private static void flush(StringBuilder text, List<Integer> kinds, List<Integer> args,
+                              List<Integer> jumps, List<byte[]> segments) {
+        if (text.isEmpty()) return;
+        kinds.add(STATIC);
+        args.add(segments.size());
+        jumps.add(-1);
+        Out encoded = new Out(text.length());
+        encoded.writeAscii(text, false);
+        segments.add(Arrays.copyOf(encoded.buf, encoded.len));
+        text.setLength(0);
+    }
+
+    /**
+     * Render with values indexed by Slot ordinal (null = unset: renders empty, and its sections are skipped)
+     */
+    public String render(String[] values) {
+        int estimate = staticBytes + 16;
+        for (String v : values) {
+            if (v != null) estimate += v.length() + (v.length() >> 2);
+        }
+        Out out = new Out(estimate);
+
+        int op = 0;
+        while (op < opKind.length) {
+            switch (opKind[op]) {
+                case STATIC -> out.write(segments[opArg[op]]);
+                case VALUE -> {
+                    String v = values[opArg[op]];
+                    if (v != null) out.writeAscii(v, true);
+                }
+                case SECTION -> {
+                    if (values[opArg[op]] == null) {
+                        op = opJump[op];
+                        continue;
+                    }
+                }
+                default -> throw new IllegalStateException();
+            }
+            op++;
+        }
+        return new String(out.buf, 0, out.len, StandardCharsets.ISO_8859_1);
+    }
+
+    // Growable ASCII byte buffer: optional HTML escaping, non-ASCII as &#codepoint;
+    private static final class Out {
+        private byte[] buf;
+        private int len;
+
+        Out(int capacity) {
+            buf = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, len, bytes.length);
+            len += bytes.length;
+        }
+
+        void writeAscii(CharSequence s, boolean escapeHtml) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (escapeHtml) {
+                    switch (c) {
+                        case '&' -> { raw("&amp;"); continue; }
+                        case '<' -> { raw("&lt;"); continue; }
+                        case '>' -> { raw("&gt;"); continue; }
+                        case '"' -> { raw("&quot;"); continue; }
+                        case '\'' -> { raw("&#39;"); continue; }
+                        default -> { }
+                    }
+                }
+                if (c < 0x80) {
+                    ensure(1);
+                    buf[len++] = (byte) c;
+                    continue;
+                }
+                int cp = c;
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    cp = Character.toCodePoint(c, s.charAt(++i));
+                } else if (Character.isSurrogate(c)) {
+                    cp = 0xFFFD;   // lone surrogate: not a character
+                }
+                raw("&#");
+                raw(Integer.toString(cp));
+                raw(";");
+            }
+        }
+
+        private void raw(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) buf[len++] = (byte) ascii.charAt(i);
+        }
+
+        private void ensure(int extra) {
+            if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.jobtracker.service.notification;
+
+import com.jobtracker.model.Notification.NotificationType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification email bodies: the HTML template is read and compiled once per
+ * NotificationType at startup (type styling, titles and tips folded into its static
+ * bytes), so each email is a single escaping pass over the per-email values.
+ */
+@Component
+public class EmailTemplates {
+
+    private final Map<NotificationType, EmailTemplate> compiled = new EnumMap<>(NotificationType.class);
+    private final Timer renderTimer;
+    private final DistributionSummary renderedSize;
+
+    public EmailTemplates(ResourceLoader resourceLoader,
+                          @Value("${jobs.mail.template:classpath:templates/email/notification.html}") String location,
+                          MeterRegistry meterRegistry) {
+        String source = read(resourceLoader.getResource(location));
+        for (NotificationType type : NotificationType.values()) {
+            compiled.put(type, EmailTemplate.compile(source, Map.of(
+                    "gradient", gradientColor(type),
+                    "icon", icon(type),
+                    "title", title(type),
+                    "alertTitle", alertTitle(type),
+                    "tips", tips(type))));
+        }
+        this.renderTimer = Timer.builder("jobs.mail.render")
+                .description("Time to render one notification email")
+                .register(meterRegistry);
+        this.renderedSize = DistributionSummary.builder("jobs.mail.render.size")
+                .description("Rendered notification email size")
+                .baseUnit("chars")
+                .register(meterRegistry);
+        System.out.println("✉️ Compiled " + compiled.size() + " email templates from " + location);
+    }
+
+    /**
+     * Render the email for a notification type; values are indexed by EmailTemplate.Slot ordinal
+     */
+    public String render(NotificationType type, String[] values) {
+        long start = System.nanoTime();
+        String html = compiled.get(type).render(values);
+        renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        renderedSize.record(html.length());
+        return html;
+    }
+
+    private static String read(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read email template " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static String subject(NotificationType type) {
+        return switch (type) {
+            case FOLLOW_UP -> "🔔 Follow-up Reminder - Job Application";
+            case INTERVIEW -> "📅 Interview Reminder - Tomorrow!";
+            case DEADLINE -> "⏰ Assessment Deadline - Tomorrow!";
+            case CUSTOM -> "🔔 Custom Notification";
+            default -> "🔔 Job Tracker Notification";
+        };
+    }
+
+    public static String alertTitle(NotificationType type) {
+        return switch (type) {
+            case INTERVIEW -> "⚡ Your Interview is Tomorrow!";
+            case DEADLINE -> "⚠️ Deadline Approaching!";
+            case FOLLOW_UP -> "💼 Time to Follow Up";
+            case CUSTOM -> "📌 Reminder";
+            default -> "📢 Important Reminder";
+        };
+    }
+
+    private static String gradientColor(NotificationType type) {
+        return switch (type) {
+            case DEADLINE -> "linear-gradient(135deg, #f093fb 0%, #f5576c 100%)";
+            case FOLLOW_UP -> "linear-gradient(135deg, #4facfe 0%, #00f2fe 100%)";
+            case CUSTOM -> "linear-gradient(135deg, #43e97b 0%, #38f9d7 100%)";
+            default -> "linear-gradient(135deg, #667eea 0%, #764ba2 100%)";
+        };
+    }
+
+    private static String icon(NotificationType type) {
+        return switch (type) {
+            case INTERVIEW -> "🎯";
+            case DEADLINE -> "⏰";
+            case FOLLOW_UP -> "📬";
+            case CUSTOM -> "🔔";
+            default -> "📋";
+        };
+    }
+
+    private static String title(NotificationType type) {
+        return switch (type) {
+            case INTERVIEW -> "Interview Reminder";
+            case DEADLINE -> "Deadline Alert";
+            case FOLLOW_UP -> "Follow-Up Reminder";
+            case CUSTOM -> "Custom Reminder";
+            default -> "Job Application Reminder";
+        };
+    }
+
+    private static String tips(NotificationType type) {
+        return switch (type) {
+            case INTERVIEW -> "<li>Review the job description and your resume</li>"
+                    + "<li>Prepare answers for common interview questions</li>"
+                    + "<li>Research the company and interviewer on LinkedIn</li>"
+                    + "<li>Test your video/audio setup if it's a virtual interview</li>"
+                    + "<li>Prepare thoughtful questions to ask the interviewer</li>";
+            case DEADLINE -> "<li>Set aside dedicated time to complete the assessment</li>"
+                    + "<li>Review any materials or instructions provided</li>"
+                    + "<li>Test your internet connection and equipment</li>"
+                    + "<li>Complete in a quiet environment without distractions</li>"
+                    + "<li>Submit with time to spare in case of technical issues</li>";
+            case FOLLOW_UP -> "<li>Send a polite follow-up email to the hiring manager</li>"
+                    + "<li>Reference your application date and position</li>"
+                    + "<li>Express continued interest in the role</li>"
+                    + "<li>Keep it brief and professional (3-4 sentences)</li>"
+                    + "<li>Include any updates to your qualifications</li>";
+            default -> "<li>Stay organized with your job search</li>"
+                    + "<li>Keep track of all your applications</li>"
+                    + "<li>Follow up regularly with recruiters</li>"
+                    + "<li>Continue improving your skills</li>";
+        };
+    }
+}
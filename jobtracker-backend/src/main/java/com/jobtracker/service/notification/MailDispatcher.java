@@ -0,0 +1,190 @@
+package com.jobtracker.service.notification;
+
+import com.jobtracker.service.SesService;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestination;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestinationStatus;
+import software.amazon.awssdk.services.ses.model.BulkEmailStatus;
+import software.amazon.awssdk.services.ses.model.Destination;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Concurrent, rate-shaped email sending for notification dispatch.
+ *
+ * Each send runs on its own virtual thread; a semaphore bounds how many SES calls are in
+ * flight and a token bucket refilled at the account's max send rate (read from SES once,
+ * or jobs.mail.maxSendRate) spaces them out, so a backlog drains at the quota instead of
+ * one round-trip at a time. Bulk templated sends take one token per destination. Results
+ * come back as futures, one per message, and never complete exceptionally.
+ *
+ * The SES quota is per account but the bucket is per JVM: every node dispatches, so each
+ * takes an equal share, the rate divided by jobs.mail.nodes. Set it to the number of
+ * instances running notification dispatch; too low and the fleet can exceed the quota
+ * (SES throttles), too high and the backlog drains slower than it could.
+ */
+@Component
+public class MailDispatcher {
+
+    /** SES limit on destinations per SendBulkTemplatedEmail call */
+    public static final int MAX_BULK_DESTINATIONS = 50;
+
+    public record Email(String key, String to, String subject, String html) {}
+
+    public record TemplatedEmail(String key, String to, String templateData) {}
+
+    public record Result(String key, boolean ok, String messageId, String error) {}
+
+    private static final double FALLBACK_SEND_RATE = 10;
+
+    private final SesService sesService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final double configuredRate;
+    private final int nodes;
+    private volatile Bucket bucket;
+    private volatile int perSecond;
+
+    private final Timer sendTimer;
+    private final Counter sentOk;
+    private final Counter sentFailed;
+
+    public MailDispatcher(SesService sesService,
+                          @Value("${jobs.mail.maxConcurrency:32}") int maxConcurrency,
+                          @Value("${jobs.mail.maxSendRate:0}") double maxSendRate,
+                          @Value("${jobs.mail.nodes:1}") int nodes,
+                          MeterRegistry meterRegistry) {
+        this.sesService = sesService;
+        this.inFlight = new Semaphore(Math.max(maxConcurrency, 1));
+        this.configuredRate = maxSendRate;
+        this.nodes = Math.max(nodes, 1);
+        this.sendTimer = Timer.builder("jobs.mail.send")
+                .description("SES call latency, single or bulk")
+                .register(meterRegistry);
+        this.sentOk = meterRegistry.counter("jobs.mail.messages", "result", "sent");
+        this.sentFailed = meterRegistry.counter("jobs.mail.messages", "result", "failed");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<Result> send(Email email) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                acquire(1);
+                try {
+                    String messageId = sendTimer.recordCallable(
+                            () -> sesService.send(email.to(), email.subject(), email.html()));
+                    sentOk.increment();
+                    return new Result(email.key(), true, messageId, null);
+                } finally {
+                    inFlight.release();
+                }
+            } catch (Exception e) {
+                sentFailed.increment();
+                return new Result(email.key(), false, null, e.getMessage());
+            }
+        }, executor);
+    }
+
+    /**
+     * Send with an SES template, up to MAX_BULK_DESTINATIONS (and no more than one second of
+     * send rate) per call; one future per email
+     */
+    public List<CompletableFuture<Result>> sendBulk(String template, String defaultTemplateData,
+                                                    List<TemplatedEmail> emails) {
+        rateBucket();
+        int chunkSize = Math.min(MAX_BULK_DESTINATIONS, perSecond);
+        List<CompletableFuture<Result>> results = new ArrayList<>(emails.size());
+        for (int from = 0; from < emails.size(); from += chunkSize) {
+            List<TemplatedEmail> chunk = emails.subList(from, Math.min(emails.size(), from + chunkSize));
+            CompletableFuture<List<Result>> call = CompletableFuture.supplyAsync(
+                    () -> sendChunk(template, defaultTemplateData, chunk), executor);
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = i;
+                results.add(call.thenApply(r -> r.get(index)));
+            }
+        }
+        return results;
+    }
+
+    private List<Result> sendChunk(String template, String defaultTemplateData, List<TemplatedEmail> chunk) {
+        List<Result> results = new ArrayList<>(chunk.size());
+        try {
+            List<BulkEmailDestination> destinations = new ArrayList<>(chunk.size());
+            for (TemplatedEmail e : chunk) {
+                destinations.add(BulkEmailDestination.builder()
+                        .destination(Destination.builder().toAddresses(e.to()).build())
+                        .replacementTemplateData(e.templateData())
+                        .build());
+            }
+
+            acquire(chunk.size());
+            List<BulkEmailDestinationStatus> statuses;
+            try {
+                statuses = sendTimer.recordCallable(
+                        () -> sesService.sendBulkTemplated(template, defaultTemplateData, destinations));
+            } finally {
+                inFlight.release();
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkEmailDestinationStatus s = i < statuses.size() ? statuses.get(i) : null;
+                boolean ok = s != null && s.status() == BulkEmailStatus.SUCCESS;
+                (ok ? sentOk : sentFailed).increment();
+                results.add(new Result(chunk.get(i).key(), ok, s == null ? null : s.messageId(),
+                        ok ? null : s == null ? "no status returned" : s.statusAsString() + ": " + s.error()));
+            }
+        } catch (Exception e) {
+            sentFailed.increment(chunk.size() - results.size());
+            for (int i = results.size(); i < chunk.size(); i++) {
+                results.add(new Result(chunk.get(i).key(), false, null, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Rate token(s) first, then an in-flight slot (held by the caller until the call returns)
+    private void acquire(int tokens) throws InterruptedException {
+        rateBucket().asBlocking().consume(tokens);
+        inFlight.acquire();
+    }
+
+    private Bucket rateBucket() {
+        Bucket b = bucket;
+        if (b == null) {
+            synchronized (this) {
+                if (bucket == null) {
+                    double rate = configuredRate > 0 ? configuredRate : sesService.maxSendRate();
+                    if (rate <= 0) rate = FALLBACK_SEND_RATE;
+                    rate /= nodes;   // this node's share of the account quota
+                    // At most one second's worth in a burst, refilled smoothly at the send rate
+                    perSecond = (int) Math.max(1, Math.floor(rate));
+                    bucket = Bucket.builder()
+                            .addLimit(Bandwidth.classic(perSecond, Refill.greedy(perSecond, Duration.ofSeconds(1))))
+                            .build();
+                    System.out.println("📧 Mail dispatcher: " + perSecond + " emails/s (1/" + nodes
+                            + " of the account rate), " + inFlight.availablePermits() + " concurrent");
+                }
+                b = bucket;
+            }
+        }
+        return b;
+    }
+}
@@ -0,0 +1,55 @@
+package com.jobtracker.service.notification;
+
+import com.jobtracker.model.Notification;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Feeds saved and deleted notifications to the event hub, whichever code path writes them
+ * (reminder creation, match alerts, mark-read, deletes by owner). Bulk updates (claims, mark-sent)
+ * don't raise mapping events; the dispatcher publishes those itself.
+ */
+@Component
+public class NotificationChangeListener extends AbstractMongoEventListener<Notification> {
+
+    // Documents with no ID yet when converted: their save is an insert
+    private static final ThreadLocal<Set<Notification>> INSERTING =
+            ThreadLocal.withInitial(() -> Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final NotificationEventHub hub;
+
+    public NotificationChangeListener(NotificationEventHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Notification> event) {
+        if (event.getSource().getId() == null) INSERTING.get().add(event.getSource());
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Notification> event) {
+        Notification n = event.getSource();
+        boolean created = INSERTING.get().remove(n);
+        hub.publishLocal(NotificationEvent.of(created ? NotificationEvent.Kind.CREATED : NotificationEvent.Kind.UPDATED, n));
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Notification> event) {
+        // The delete query is the source: only deletes by ID and owner (deleteByIdAndUserId)
+        // say whose notification went away
+        Object id = event.getSource().get("_id");
+        Object userId = event.getSource().get("userId");
+        if ((id instanceof ObjectId || id instanceof String) && userId instanceof String owner) {
+            hub.publishLocal(NotificationEvent.deleted(owner, id.toString()));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.jobtracker.service.notification;
+
+import com.jobtracker.model.Notification;
+
+/**
+ * A change to one notification, as seen by the live stream. DELETED carries only the ID.
+ */
+public record NotificationEvent(Kind kind, String userId, String notificationId, Notification notification) {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        READ,
+        DELETED
+    }
+
+    /**
+     * CREATED or UPDATED; an update that leaves the notification read is reported as READ
+     */
+    public static NotificationEvent of(Kind kind, Notification n) {
+        if (kind == Kind.UPDATED && n.isRead()) kind = Kind.READ;
+        return new NotificationEvent(kind, n.getUserId(), n.getId(), n);
+    }
+
+    public static NotificationEvent deleted(String userId, String notificationId) {
+        return new NotificationEvent(Kind.DELETED, userId, notificationId, null);
+    }
+}
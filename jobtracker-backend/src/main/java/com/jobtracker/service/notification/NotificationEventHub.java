@@ -0,0 +1,346 @@
+package com.jobtracker.service.notification;
+
+import com.jobtracker.model.Notification;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of notification changes to live streams, one channel per connected user.
+ *
+ * Changes come from one of two sources (jobs.notifications.events.source):
+ *  - local: this node's writes (NotificationChangeListener, dispatcher mark-sent). Enough
+ *    for a single node.
+ *  - changeStream: a Mongo change stream on the notifications collection, so a stream on
+ *    any node sees writes made on every node. Needs a replica set.
+ * A change for a user with no channel is dropped on the spot; an idle stream costs nothing.
+ *
+ * Every change gets an event ID "<epoch>-<seq>": seq increases monotonically on this node and
+ * epoch changes on restart. A channel keeps its last replayBuffer deltas, and outlives its last
+ * subscriber by replayMinutes, so a client reconnecting with Last-Event-ID gets exactly what it
+ * missed. An ID from another node or epoch, or one older than the buffer, means a resync.
+ */
+@Component
+public class NotificationEventHub {
+
+    public record Delta(String id, NotificationEvent event) {}
+
+    /**
+     * A subscription: when resync is set, the subscriber must load current state first (as of
+     * headId, or later); deltas then carries every change after it. close() when done.
+     */
+    public record Feed(String headId, boolean resync, Flux<Delta> deltas, Runnable close) {}
+
+    private static final String COLLECTION = "notifications";
+    // Per-subscriber backlog before a slow client is cut off (it reconnects and resumes)
+    private static final int SUBSCRIBER_BUFFER = 1024;
+    // Lease bookkeeping from claims; not a change anyone watches
+    private static final Set<String> LEASE_FIELDS = Set.of("claimedBy", "leaseUntil");
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean changeStream;
+    private final int replayBuffer;
+    private final long retainNanos;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36), 36);
+    private final AtomicLong seq = new AtomicLong();
+    private final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private volatile boolean running;
+    private Thread watcher;
+
+    public NotificationEventHub(MongoTemplate mongoTemplate,
+                                @Value("${jobs.notifications.events.source:local}") String source,
+                                @Value("${jobs.notifications.stream.replayBuffer:256}") int replayBuffer,
+                                @Value("${jobs.notifications.stream.replayMinutes:5}") long replayMinutes,
+                                MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeStream = "changeStream".equalsIgnoreCase(source);
+        this.replayBuffer = Math.max(replayBuffer, 1);
+        this.retainNanos = Duration.ofMinutes(Math.max(replayMinutes, 0)).toNanos();
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("jobs.notifications.stream.subscribers", subscribers);
+        meterRegistry.gaugeMapSize("jobs.notifications.stream.channels", Tags.empty(), channels);
+    }
+
+    @PostConstruct
+    public void start() {
+        System.out.println("📡 Notification events: " + (changeStream ? "Mongo change stream" : "local writes only"));
+        if (!changeStream) return;
+        running = true;
+        watcher = new Thread(this::watch, "notification-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watcher != null) watcher.interrupt();
+    }
+
+    /**
+     * This user's changes after lastEventId (the Last-Event-ID header; null on first connect)
+     */
+    public Feed subscribe(String userId, String lastEventId) {
+        Channel channel = channels.compute(userId, (id, c) -> {
+            if (c == null) c = new Channel(seq.get());
+            c.subscribers++;
+            return c;
+        });
+        subscribers.incrementAndGet();
+
+        Sinks.Many<Delta> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Delta>get(SUBSCRIBER_BUFFER).get());
+        String headId;
+        boolean resync;
+        // Same lock as publish: the replay and the live registration meet with no gap or overlap.
+        // The replay is queued like a publish, so it reaches the sink before any later delta.
+        synchronized (channel) {
+            long last = parse(lastEventId);
+            resync = last < channel.floor || last > channel.head;
+            if (!resync) {
+                List<Delta> missed = new ArrayList<>();
+                for (Delta d : channel.ring) {
+                    if (seqOf(d.id()) > last) missed.add(d);
+                }
+                if (!missed.isEmpty()) channel.outbox.add(() -> missed.forEach(sink::tryEmitNext));
+            }
+            channel.sinks.add(sink);
+            headId = idOf(channel.head);
+        }
+        drain(channel);
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Runnable close = () -> {
+            if (!closed.compareAndSet(false, true)) return;
+            synchronized (channel) {
+                channel.sinks.remove(sink);
+            }
+            subscribers.decrementAndGet();
+            channels.computeIfPresent(userId, (id, c) -> {
+                c.subscribers--;
+                c.idleSince = System.nanoTime();
+                return c;
+            });
+        };
+        return new Feed(headId, resync, sink.asFlux(), close);
+    }
+
+    /**
+     * A change written by this node; ignored when the change stream is the source (it will
+     * deliver the same change, from every node)
+     */
+    public void publishLocal(NotificationEvent event) {
+        if (!changeStream) publish(event);
+    }
+
+    /**
+     * Whether anyone is (or was, recently enough to resume) streaming this user's changes
+     */
+    public boolean isWatched(String userId) {
+        return channels.containsKey(userId);
+    }
+
+    // Channels with no subscriber past the replay window are dropped; their users resync
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long now = System.nanoTime();
+        for (String userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (id, c) ->
+                    c.subscribers == 0 && now - c.idleSince >= retainNanos ? null : c);
+        }
+    }
+
+    private void publish(NotificationEvent event) {
+        if (event.userId() == null) return;
+        meterRegistry.counter("jobs.notifications.events", "kind", event.kind().name()).increment();
+        Channel channel = channels.get(event.userId());
+        if (channel == null) return;
+
+        synchronized (channel) {
+            long s = seq.incrementAndGet();
+            Delta delta = new Delta(idOf(s), event);
+            if (channel.ring.size() == replayBuffer) channel.floor = seqOf(channel.ring.removeFirst().id());
+            channel.ring.addLast(delta);
+            channel.head = s;
+            List<Sinks.Many<Delta>> targets = List.copyOf(channel.sinks);
+            if (!targets.isEmpty()) channel.outbox.add(() -> emit(targets, delta));
+        }
+        drain(channel);
+    }
+
+    private static void emit(List<Sinks.Many<Delta>> targets, Delta delta) {
+        for (Sinks.Many<Delta> sink : targets) {
+            if (sink.tryEmitNext(delta) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // Too far behind: end the stream, the client resumes from its Last-Event-ID
+                sink.tryEmitError(new IllegalStateException("notification stream subscriber overflow"));
+            }
+        }
+    }
+
+    // Run the channel's queued emits outside its lock (a subscriber may do real work on the
+    // emitting thread), one thread per channel at a time so each sink sees deltas in order
+    // and is never emitted to concurrently. Whoever finds nobody draining drains for everyone.
+    private static void drain(Channel channel) {
+        synchronized (channel) {
+            if (channel.draining) return;
+            channel.draining = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized (channel) {
+                next = channel.outbox.poll();
+                if (next == null) {
+                    channel.draining = false;
+                    return;
+                }
+            }
+            try {
+                next.run();
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Notification stream emit failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private String idOf(long s) {
+        return epoch + "-" + s;
+    }
+
+    private static long seqOf(String id) {
+        return Long.parseLong(id.substring(id.lastIndexOf('-') + 1));
+    }
+
+    // Sequence number of one of our IDs; -1 (forcing a resync) for anything else
+    private long parse(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) return -1;
+        try {
+            return seqOf(lastEventId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void watch() {
+        try {
+            // Pre-images let delete events name the owner (MongoDB 6.0+)
+            mongoTemplate.executeCommand(new Document("collMod", COLLECTION)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not enable pre-images on '" + COLLECTION + "' (deletes won't stream): " + e.getMessage());
+        }
+        BsonDocument resumeToken = null;
+        while (running) {
+            try {
+                var stream = mongoTemplate.getCollection(COLLECTION).watch()
+                        .fullDocument(FullDocument.UPDATE_LOOKUP)
+                        .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                        .maxAwaitTime(1, TimeUnit.SECONDS);
+                if (resumeToken != null) stream = stream.resumeAfter(resumeToken);
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                    System.out.println("📡 Watching '" + COLLECTION + "' change stream");
+                    while (running) {
+                        ChangeStreamDocument<Document> change = cursor.tryNext();
+                        if (change == null) continue;
+                        resumeToken = change.getResumeToken();
+                        NotificationEvent event = toEvent(change);
+                        if (event != null) publish(event);
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) return;
+                System.err.println("⚠️ Notification change stream: " + e.getMessage() + "; resuming in 5s");
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private NotificationEvent toEvent(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT, REPLACE, UPDATE -> {
+                if (change.getFullDocument() == null) return null;   // deleted before the lookup
+                UpdateDescription update = change.getUpdateDescription();
+                if (update != null && onlyLease(update)) return null;
+                Notification n = mongoTemplate.getConverter().read(Notification.class, change.getFullDocument());
+                return NotificationEvent.of(switch (change.getOperationType()) {
+                    case INSERT -> NotificationEvent.Kind.CREATED;
+                    default -> NotificationEvent.Kind.UPDATED;
+                }, n);
+            }
+            case DELETE -> {
+                Document before = change.getFullDocumentBeforeChange();
+                BsonValue id = change.getDocumentKey() == null ? null : change.getDocumentKey().get("_id");
+                if (before == null || id == null) return null;
+                return NotificationEvent.deleted(before.getString("userId"), id.isObjectId()
+                        ? id.asObjectId().getValue().toHexString()
+                        : id.isString() ? id.asString().getValue() : id.toString());
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static boolean onlyLease(UpdateDescription update) {
+        if (update.getUpdatedFields() != null) {
+            for (String field : update.getUpdatedFields().keySet()) {
+                if (!LEASE_FIELDS.contains(field)) return false;
+            }
+        }
+        if (update.getRemovedFields() != null) {
+            for (String field : update.getRemovedFields()) {
+                if (!LEASE_FIELDS.contains(field)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Channel {
+        final ArrayDeque<Delta> ring = new ArrayDeque<>();
+        final List<Sinks.Many<Delta>> sinks = new ArrayList<>();
+        final ArrayDeque<Runnable> outbox = new ArrayDeque<>();   // emits not yet run, in seq order
+        boolean draining;                                         // a thread is running the outbox
+        long floor;   // complete history after this seq: the channel's start, or the last delta dropped
+        long head;    // seq of the newest delta (== floor until the first one)
+        int subscribers;                       // guarded by channels.compute
+        long idleSince = System.nanoTime();    // guarded by channels.compute
+
+        Channel(long start) {
+            this.floor = start;
+            this.head = start;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.jobtracker.service.notification;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory schedule of the notifications due within the next horizon, so reminders fire
+ * about a tick after notifyAt instead of on the next Mongo poll.
+ *
+ * NotificationService fills it from a periodic horizon scan and keeps it current on
+ * create/delete; a dedicated ticker thread (not the shared @Scheduled thread, which the
+ * long batch jobs can hold) advances the wheel and hands due IDs to the dispatcher. The
+ * wheel is only a trigger: dispatch still claims each notification under its lease, so
+ * every node can hold the same entries and only one sends.
+ */
+@Component
+public class NotificationWheel {
+
+    private static final int LEVELS = 3;
+
+    private final boolean enabled;
+    private final long tickMs;
+    private final Duration horizon;
+    private final TimingWheel wheel;
+    private final ScheduledExecutorService ticker;
+    private final Timer fireLag;
+
+    public NotificationWheel(@Value("${jobs.notifications.wheel.enabled:true}") boolean enabled,
+                             @Value("${jobs.notifications.wheel.tickMs:1000}") long tickMs,
+                             @Value("${jobs.notifications.wheel.horizonMinutes:10}") long horizonMinutes,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.tickMs = Math.max(tickMs, 10);
+        this.horizon = Duration.ofMinutes(Math.max(horizonMinutes, 1));
+        this.wheel = new TimingWheel(this.tickMs, LEVELS, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-wheel");
+            t.setDaemon(true);
+            return t;
+        });
+        this.fireLag = Timer.builder("jobs.notifications.wheel.lag")
+                .description("Delay between a notification's notifyAt and the wheel firing it")
+                .register(meterRegistry);
+        Gauge.builder("jobs.notifications.wheel.size", this, NotificationWheel::size)
+                .description("Notifications currently scheduled in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start ticking; onDue receives the IDs that came due on each tick (on the ticker thread)
+     */
+    public void start(Consumer<List<String>> onDue) {
+        if (!enabled) return;
+        ticker.scheduleAtFixedRate(() -> tick(onDue), tickMs, tickMs, TimeUnit.MILLISECONDS);
+        System.out.println("⏱️ Notification wheel started: tick " + tickMs + "ms, horizon " + horizon.toMinutes() + "m");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration horizon() {
+        return horizon;
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Track a notification if it is due within the horizon (already-due ones fire on the next tick)
+     */
+    public void schedule(String notificationId, Instant notifyAt) {
+        if (!enabled || notificationId == null || notifyAt == null) return;
+        if (notifyAt.isAfter(Instant.now().plus(horizon))) return;
+        synchronized (this) {
+            wheel.schedule(notificationId, notifyAt.toEpochMilli());
+        }
+    }
+
+    public void cancel(String notificationId) {
+        if (!enabled || notificationId == null) return;
+        synchronized (this) {
+            wheel.cancel(notificationId);
+        }
+    }
+
+    private void tick(Consumer<List<String>> onDue) {
+        try {
+            long now = System.currentTimeMillis();
+            List<TimingWheel.Fired> fired;
+            synchronized (this) {
+                fired = wheel.advance(now);
+            }
+            if (fired.isEmpty()) return;
+
+            List<String> ids = new ArrayList<>(fired.size());
+            for (TimingWheel.Fired f : fired) {
+                ids.add(f.key());
+                fireLag.record(Math.max(now - f.dueMs(), 0), TimeUnit.MILLISECONDS);
+            }
+            onDue.accept(ids);
+        } catch (Exception e) {
+            // Never let one failure cancel the periodic ticker
+            System.err.println("❌ Notification wheel tick failed: " + e.getMessage());
+        }
+    }
+}
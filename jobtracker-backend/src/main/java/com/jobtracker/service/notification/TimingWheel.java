@@ -0,0 +1,139 @@
+package com.jobtracker.service.notification;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of keyed deadlines (not thread-safe; NotificationWheel guards it).
+ *
+ * Level 0 has 64 slots of one tick each, every level above covers 64 slots of the whole
+ * level below, so three levels of 1 s ticks span about 72 hours. An entry sits on the
+ * lowest level whose span covers its distance from the current tick, and moves down a
+ * level each time the wheel below wraps onto its slot. Entries further out than the top
+ * level's span wait in an overflow list, rechecked each time the top level turns a slot.
+ * Scheduling and cancelling are O(1); advancing costs one slot visit per tick plus each
+ * entry's (at most levels) moves.
+ *
+ * Entries fire on the first tick at or after their deadline, never before. Rescheduling
+ * or cancelling a key leaves the old entry in its slot; it is dropped when reached.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    record Fired(String key, long dueMs) {}
+
+    private record Entry(String key, long dueMs, long dueTick) {}
+
+    private final long tickMs;
+    private final int levels;
+    private final List<Entry>[][] slots;
+    private final Map<String, Entry> live = new HashMap<>();
+    private final List<Entry> ready = new ArrayList<>();
+    private final List<Entry> overflow = new ArrayList<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int levels, long nowMs) {
+        this.tickMs = tickMs;
+        this.levels = levels;
+        this.slots = new List[levels][SLOTS];
+        for (int l = 0; l < levels; l++) {
+            for (int s = 0; s < SLOTS; s++) slots[l][s] = new ArrayList<>();
+        }
+        this.currentTick = Math.floorDiv(nowMs, tickMs);
+    }
+
+    int size() {
+        return live.size();
+    }
+
+    /**
+     * Add or move a deadline
+     */
+    void schedule(String key, long dueMs) {
+        Entry e = new Entry(key, dueMs, Math.ceilDiv(dueMs, tickMs));
+        live.put(key, e);
+        place(e);
+    }
+
+    void cancel(String key) {
+        live.remove(key);
+    }
+
+    /**
+     * Move the wheel to nowMs and return everything that came due, in deadline-tick order
+     */
+    List<Fired> advance(long nowMs) {
+        List<Fired> fired = new ArrayList<>();
+        drainReady(fired);
+
+        long target = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < target) {
+            currentTick++;
+
+            // Overflow first, then higher levels, so an entry can drop through several levels on one tick
+            if ((currentTick & ((1L << (SLOT_BITS * (levels - 1))) - 1)) == 0 && !overflow.isEmpty()) {
+                List<Entry> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                for (Entry e : waiting) {
+                    if (live.get(e.key) == e) place(e);
+                }
+            }
+            for (int l = levels - 1; l >= 1; l--) {
+                long lowBits = currentTick & ((1L << (SLOT_BITS * l)) - 1);
+                if (lowBits != 0) continue;
+                List<Entry> slot = slots[l][(int) ((currentTick >>> (SLOT_BITS * l)) & SLOT_MASK)];
+                if (slot.isEmpty()) continue;
+                List<Entry> moving = new ArrayList<>(slot);
+                slot.clear();
+                for (Entry e : moving) {
+                    if (live.get(e.key) == e) place(e);
+                }
+            }
+
+            List<Entry> due = slots[0][(int) (currentTick & SLOT_MASK)];
+            if (!due.isEmpty()) {
+                for (Entry e : due) {
+                    if (live.get(e.key) == e) ready.add(e);
+                }
+                due.clear();
+            }
+            drainReady(fired);
+        }
+        return fired;
+    }
+
+    private void drainReady(List<Fired> fired) {
+        for (Entry e : ready) {
+            if (live.remove(e.key, e)) fired.add(new Fired(e.key, e.dueMs));
+        }
+        ready.clear();
+    }
+
+    private void place(Entry e) {
+        if (e.dueTick <= currentTick) {
+            ready.add(e);
+            return;
+        }
+        int l = levelOf(e.dueTick);
+        if (l >= levels) {
+            overflow.add(e);
+            return;
+        }
+        slots[l][(int) ((e.dueTick >>> (SLOT_BITS * l)) & SLOT_MASK)].add(e);
+    }
+
+    // Lowest level spanning the distance to dueTick (levels when it's beyond the wheel). The
+    // entry's slot there is reached no later than dueTick, and not again before it.
+    private int levelOf(long dueTick) {
+        long delta = dueTick - currentTick;
+        int l = 0;
+        while (l < levels && delta >= 1L << (SLOT_BITS * (l + 1))) l++;
+        return l;
+    }
+}
@@ -0,0 +1,93 @@
+package com.jobtracker.service.notification;
+
+import com.jobtracker.model.Notification;
+import com.jobtracker.model.NotificationCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Per-user unread badge counts, kept in one notification_counters document per user.
+ *
+ * A notification counts once it is delivered (marked sent by the dispatcher) and stops
+ * counting when it is read or deleted; each of those moves the count with a single $inc
+ * upsert, so reading it is one lookup by ID. A count is recomputed from the notifications
+ * when it is first read and then every reconcileMinutes, which also undoes the drift of
+ * the rare races (a reminder read before its send was recorded, a lease lost mid-batch).
+ */
+@Component
+public class UnreadCounters {
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration reconcileEvery;
+    private final Counter reconciled;
+
+    public UnreadCounters(MongoTemplate mongoTemplate,
+                          @Value("${jobs.notifications.unread.reconcileMinutes:60}") long reconcileMinutes,
+                          MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.reconcileEvery = Duration.ofMinutes(Math.max(reconcileMinutes, 1));
+        this.reconciled = meterRegistry.counter("jobs.notifications.unread.reconcile");
+    }
+
+    public long get(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        Instant now = Instant.now();
+        if (counter == null || counter.getReconciledAt() == null
+                || counter.getReconciledAt().isBefore(now.minus(reconcileEvery))) {
+            return reconcile(userId, now);
+        }
+        return Math.max(counter.getUnread(), 0);
+    }
+
+    public void add(String userId, long delta) {
+        if (delta == 0) return;
+        mongoTemplate.upsert(byUser(userId), new Update().inc("unread", delta), NotificationCounter.class);
+    }
+
+    /**
+     * Several users' deltas in one unordered bulk write
+     */
+    public void addAll(Map<String, Long> deltas) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        int ops = 0;
+        for (Map.Entry<String, Long> e : deltas.entrySet()) {
+            if (e.getValue() == 0) continue;
+            bulk.upsert(byUser(e.getKey()), new Update().inc("unread", e.getValue()));
+            ops++;
+        }
+        if (ops > 0) bulk.execute();
+    }
+
+    /**
+     * Recount these users' badges now (their deltas are unknown, e.g. part of a batch lost its claim)
+     */
+    public void reconcileAll(Collection<String> userIds) {
+        Instant now = Instant.now();
+        for (String userId : userIds) reconcile(userId, now);
+    }
+
+    private long reconcile(String userId, Instant now) {
+        long unread = mongoTemplate.count(Query.query(Criteria.where("userId").is(userId)
+                .and("read").is(false).and("sent").is(true)), Notification.class);
+        mongoTemplate.upsert(byUser(userId),
+                new Update().set("unread", unread).set("reconciledAt", now), NotificationCounter.class);
+        reconciled.increment();
+        return unread;
+    }
+
+    private static Query byUser(String userId) {
+        return Query.query(Criteria.where("_id").is(userId));
+    }
+}
@@ -0,0 +1,149 @@
+package com.jobtracker.util;
+
+import com.jobtracker.dto.JobListingCard;
+import com.jobtracker.model.JobListing;
+import com.jobtracker.model.SavedJob;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Strong ETag helpers for conditional GETs.
+ * Hashes are FNV-1a 64-bit over every serialized field, so any visible change
+ * to the response body changes the tag. A property added to JobListing or
+ * JobListingCard must be mixed in here or marked @JsonIgnore (ETagsTest checks).
+ */
+public final class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {}
+
+    /**
+     * Quote a value as a strong entity tag
+     */
+    public static String strong(String value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * If-None-Match evaluation (weak comparison, as RFC 9110 requires for GET)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) return false;
+        String target = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*")) return true;
+            if (opaque(c).equals(target)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Content hash of a single listing
+     */
+    public static long listingHash(JobListing j) {
+        long h = FNV_OFFSET;
+        h = mix(h, j.getId());
+        h = mix(h, j.getExternalId());
+        h = mix(h, j.getTitle());
+        h = mix(h, j.getCompany());
+        h = mix(h, j.getLocation());
+        h = mix(h, Double.doubleToLongBits(j.getLatitude()));
+        h = mix(h, Double.doubleToLongBits(j.getLongitude()));
+        h = mix(h, j.isRemote() ? 1L : 0L);
+        h = mix(h, j.getDescription());
+        h = mix(h, j.getSnippet());
+        h = mix(h, j.getJobType());
+        h = mix(h, j.getExperienceLevel());
+        h = mix(h, j.getSalary() == null ? -1L : Double.doubleToLongBits(j.getSalary()));
+        h = mix(h, j.getSalaryRange());
+        h = mixAll(h, j.getSkills());
+        h = mix(h, j.getApplyUrl());
+        h = mix(h, j.getSource());
+        h = mix(h, j.getPostedDate());
+        h = mix(h, j.getFetchedAt());
+        h = mix(h, j.isActive() ? 1L : 0L);
+        return h;
+    }
+
+    /**
+     * Content hash of a listing card (the list-view projection)
+     */
+    public static long cardHash(JobListingCard c) {
+        long h = FNV_OFFSET;
+        h = mix(h, c.getId());
+        h = mix(h, c.getExternalId());
+        h = mix(h, c.getTitle());
+        h = mix(h, c.getCompany());
+        h = mix(h, c.getLocation());
+        h = mix(h, c.isRemote() ? 1L : 0L);
+        h = mix(h, c.getJobType());
+        h = mix(h, c.getExperienceLevel());
+        h = mix(h, c.getSalary() == null ? -1L : Double.doubleToLongBits(c.getSalary()));
+        h = mix(h, c.getSalaryRange());
+        h = mixAll(h, c.getSkills());
+        h = mix(h, c.getApplyUrl());
+        h = mix(h, c.getSource());
+        h = mix(h, c.getPostedDate());
+        h = mix(h, c.getSnippet());
+        return h;
+    }
+
+    public static String forListing(JobListing j) {
+        return strong("j-" + Long.toHexString(listingHash(j)));
+    }
+
+    /**
+     * Tag for a list of saved jobs (order matters - it is part of the body)
+     */
+    public static String forSavedJobs(List<SavedJob> saved) {
+        long h = FNV_OFFSET;
+        for (SavedJob s : saved) {
+            h = mix(h, s.getId());
+            h = mix(h, s.getJobListingId());
+            h = mix(h, s.getNotes());
+            h = mix(h, s.getSavedAt() == null ? null : s.getSavedAt().toString());
+            h = mix(h, s.isApplied() ? 1L : 0L);
+            h = mix(h, s.getApplicationId());
+        }
+        return strong("s-" + saved.size() + "-" + Long.toHexString(h));
+    }
+
+    private static String opaque(String tag) {
+        String t = tag.trim();
+        return t.startsWith("W/") ? t.substring(2) : t;
+    }
+
+    private static long mix(long h, String s) {
+        if (s == null) return mix(h, 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= FNV_PRIME;
+        }
+        // field separator so ("ab","c") and ("a","bc") differ
+        h ^= 0xff;
+        return h * FNV_PRIME;
+    }
+
+    private static long mix(long h, Instant t) {
+        return t == null ? mix(h, 0x9e3779b97f4a7c15L) : mix(mix(h, t.getEpochSecond()), t.getNano());
+    }
+
+    private static long mix(long h, long v) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (v >>> (i * 8)) & 0xff;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static long mixAll(long h, List<String> values) {
+        if (values == null) return mix(h, 0x9e3779b97f4a7c15L);
+        h = mix(h, values.size());
+        for (String v : values) h = mix(h, v);
+        return h;
+    }
+}
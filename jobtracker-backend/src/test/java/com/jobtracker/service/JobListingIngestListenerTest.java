@@ -0,0 +1,72 @@
+package com.jobtracker.service;
+
+import com.jobtracker.model.JobListing;
+import com.jobtracker.service.jobmatch.JobMatchIndex;
+import com.jobtracker.service.jobmatch.JobTermSetCache;
+import com.jobtracker.service.jobmatch.SkillExtractor;
+import com.jobtracker.service.jobmatch.VectorMatchIndex;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class JobListingIngestListenerTest {
+
+    private JobTermSetCache termSetCache;
+    private JobMatchIndex matchIndex;
+    private VectorMatchIndex vectorIndex;
+    private JobListingIngestListener listener;
+
+    @BeforeEach
+    void setUp() {
+        termSetCache = mock(JobTermSetCache.class);
+        matchIndex = mock(JobMatchIndex.class);
+        vectorIndex = mock(VectorMatchIndex.class);
+        listener = new JobListingIngestListener(termSetCache, matchIndex, vectorIndex, mock(SkillExtractor.class));
+    }
+
+    @Test
+    void singleDeleteEvictsTheListing() {
+        ObjectId id = new ObjectId();
+        listener.onAfterDelete(deleted(new Document("_id", id)));
+
+        verifyEvicted(id.toHexString());
+    }
+
+    @Test
+    void bulkDeleteEvictsEveryListing() {
+        ObjectId a = new ObjectId();
+        listener.onAfterDelete(deleted(new Document("_id", new Document("$in", List.of(a, "b-2")))));
+
+        verifyEvicted(a.toHexString());
+        verifyEvicted("b-2");
+    }
+
+    @Test
+    void deleteWithoutIdsEvictsNothing() {
+        listener.onAfterDelete(deleted(new Document()));
+        listener.onAfterDelete(deleted(new Document("_id", new Document("$nin", List.of("x")))));
+
+        verify(termSetCache, never()).evict(anyString());
+        verify(matchIndex, never()).remove(anyString());
+        verify(vectorIndex, never()).remove(anyString());
+    }
+
+    private void verifyEvicted(String id) {
+        verify(termSetCache).evict(id);
+        verify(matchIndex).remove(id);
+        verify(vectorIndex).remove(id);
+    }
+
+    private static AfterDeleteEvent<JobListing> deleted(Document filter) {
+        return new AfterDeleteEvent<>(filter, JobListing.class, "job_listings");
+    }
+}
@@ -0,0 +1,192 @@
+package com.jobtracker.service;
+
+import com.jobtracker.dto.JobListingCard;
+import com.jobtracker.model.JobListing;
+import com.jobtracker.repository.JobListingRepository;
+import com.jobtracker.repository.JobSearchRepository;
+import com.jobtracker.repository.SavedJobRepository;
+import com.jobtracker.service.cache.InMemorySearchCacheStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two JobSearchService "nodes" sharing one in-memory L2 store
+ */
+class JobSearchServiceTest {
+
+    private static final String USER = "user-1";
+
+    private final Map<String, JobListing> listings = List.of(listing("j1"), listing("j2"), listing("j3")).stream()
+            .collect(Collectors.toMap(JobListing::getId, Function.identity()));
+
+    private InMemorySearchCacheStore store;
+    private JobListingRepository listingRepository;
+    private ExternalJobApiService externalJobApiService;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemorySearchCacheStore();
+        listingRepository = mock(JobListingRepository.class);
+        externalJobApiService = mock(ExternalJobApiService.class);
+
+        when(listingRepository.findCardsByTitleRegex(anyString(), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.copyOf(listings.values())));
+        when(listingRepository.findCardsByIdIn(any()))
+                .thenAnswer(inv -> inv.<Collection<String>>getArgument(0).stream()
+                        .map(listings::get).filter(j -> j != null).toList());
+        when(externalJobApiService.fetchJobsFromAllSources(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void secondSearchIsServedFromL1() {
+        JobSearchService node = node(30, 15);
+
+        node.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+        Page<JobListingCard> again = node.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+
+        assertThat(again.getTotalElements()).isEqualTo(3);
+        verify(listingRepository, times(1)).findCardsByTitleRegex(anyString(), any(Pageable.class));
+        verify(listingRepository, never()).findCardsByIdIn(any());
+    }
+
+    @Test
+    void otherNodeHydratesFromL2() {
+        JobSearchService a = node(30, 15);
+        JobSearchService b = node(30, 15);
+
+        a.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+        Page<JobListingCard> fromB = b.searchJobs("java", null, null, null, null, null, 0, 2, USER);
+
+        assertThat(fromB.getTotalElements()).isEqualTo(3);
+        assertThat(fromB.getContent()).hasSize(2);
+        verify(listingRepository, times(1)).findCardsByTitleRegex(anyString(), any(Pageable.class));
+        verify(listingRepository, times(1)).findCardsByIdIn(any());
+    }
+
+    @Test
+    void versionBumpInvalidatesOtherNodesL1() {
+        JobSearchService a = node(0, 15);   // revalidate L1 against L2 on every read
+        JobSearchService b = node(0, 15);
+
+        a.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+        assertThat(b.getCachedSearchTag(USER, null, null)).hasValueSatisfying(t -> assertThat(t).startsWith("c-v1-"));
+
+        a.searchJobs("kotlin", null, null, null, null, null, 0, 10, USER);
+
+        assertThat(b.getCachedSearchTag(USER, null, null)).hasValueSatisfying(t -> assertThat(t).startsWith("c-v2-"));
+        assertThat(b.getCachedSearch(USER, 0, 10, "kotlin", null)).isPresent();
+        assertThat(b.getCachedSearch(USER, 0, 10, "java", null)).isEmpty();
+    }
+
+    @Test
+    void loserWaitsForTheWinnersFill() throws Exception {
+        JobSearchService a = node(30, 15);
+        JobSearchService b = node(30, 15);
+
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(externalJobApiService.fetchJobsFromAllSources(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    fetching.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return CompletableFuture.completedFuture(null);
+                });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Page<JobListingCard>> winner = pool.submit(() -> a.searchJobs("java", null, null, null, null, null, 0, 10, USER));
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<Page<JobListingCard>> loser = pool.submit(() -> b.searchJobs("java", null, null, null, null, null, 0, 10, USER));
+            Thread.sleep(300);
+            assertThat(loser.isDone()).isFalse();  // polling for the peer's results, not searching
+
+            release.countDown();
+            assertThat(winner.get(5, TimeUnit.SECONDS).getTotalElements()).isEqualTo(3);
+            assertThat(loser.get(5, TimeUnit.SECONDS).getTotalElements()).isEqualTo(3);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(externalJobApiService, times(1)).fetchJobsFromAllSources(any(), any(), any(), any(), any(), any());
+        verify(listingRepository, times(1)).findCardsByTitleRegex(anyString(), any(Pageable.class));
+        assertThat(store.version(USER)).contains(1L);
+    }
+
+    @Test
+    void lapsedPeerLeaseIsTakenOver() throws InterruptedException {
+        JobSearchService node = node(30, 15);
+        assertThat(store.tryAcquireFill(USER, "node-crashed", Duration.ofMillis(50))).isTrue();
+        Thread.sleep(80);
+
+        Page<JobListingCard> page = node.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(store.version(USER)).contains(1L);
+        assertThat(store.get(USER).orElseThrow().getFillOwner()).isNull();
+    }
+
+    @Test
+    void givingUpOnALivePeerLeavesItsLeaseAlone() {
+        JobSearchService node = node(30, 0);   // no patience: search locally straight away
+        assertThat(store.tryAcquireFill(USER, "node-slow", Duration.ofMinutes(1))).isTrue();
+
+        Page<JobListingCard> page = node.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(store.get(USER)).isEmpty();
+        assertThat(store.tryAcquireFill(USER, "node-other", Duration.ofMinutes(1))).isFalse();
+    }
+
+    @Test
+    void fillLocksAreReleased() {
+        JobSearchService node = node(30, 15);
+        node.searchJobs("java", null, null, null, null, null, 0, 10, USER);
+        node.searchJobs("java", null, null, null, null, null, 0, 10, "user-2");
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(node, "fillLocks")).isEmpty();
+    }
+
+    private JobSearchService node(long l1RevalidateSeconds, long peerWaitSeconds) {
+        JobSearchService service = new JobSearchService(listingRepository, mock(JobSearchRepository.class),
+                mock(SavedJobRepository.class), externalJobApiService, store);
+        ReflectionTestUtils.setField(service, "l1RevalidateSeconds", l1RevalidateSeconds);
+        ReflectionTestUtils.setField(service, "fillLeaseSeconds", 60L);
+        ReflectionTestUtils.setField(service, "peerWaitSeconds", peerWaitSeconds);
+        return service;
+    }
+
+    private static JobListing listing(String id) {
+        JobListing j = new JobListing();
+        j.setId(id);
+        j.setTitle("Java Developer " + id);
+        return j;
+    }
+}
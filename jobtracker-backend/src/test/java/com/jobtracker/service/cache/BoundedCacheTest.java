@@ -0,0 +1,66 @@
+package com.jobtracker.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(3, 1);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        // "a" is the hottest entry, so "b" is the one to go
+        assertThat(cache.get("a")).isEqualTo(1);
+        cache.put("d", 4);
+
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.get("d")).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    void replacingAValueDoesNotGrowTheCache() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 1);
+        cache.put("a", 1);
+        cache.put("a", 2);
+        cache.put("b", 3);
+
+        assertThat(cache.get("a")).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.remove("a");
+        assertThat(cache.get("a")).isNull();
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentWriters() throws InterruptedException {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(1000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 100_000;
+            pool.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    cache.put(offset + i, i);
+                    cache.get(offset + i / 2);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // 1000 rounded up to a multiple of the 16 segments
+        assertThat(cache.size()).isBetween(900, 1008);
+    }
+}
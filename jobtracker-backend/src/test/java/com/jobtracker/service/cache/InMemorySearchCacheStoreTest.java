@@ -0,0 +1,73 @@
+package com.jobtracker.service.cache;
+
+import com.jobtracker.model.SharedSearchCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemorySearchCacheStoreTest {
+
+    private final InMemorySearchCacheStore store = new InMemorySearchCacheStore();
+    private final Instant inAnHour = Instant.now().plusSeconds(3600);
+
+    @Test
+    void putBumpsVersionAndReleasesLease() {
+        assertThat(store.tryAcquireFill("u1", "node-a", Duration.ofMinutes(1))).isTrue();
+        assertThat(store.get("u1")).isEmpty();  // a lease alone is not an entry
+
+        assertThat(store.put("u1", "node-a", "java", "Toronto", List.of("j1", "j2"), inAnHour)).hasValue(1);
+        assertThat(store.put("u1", "node-a", "java", "Toronto", List.of("j3"), inAnHour)).hasValue(2);
+
+        SharedSearchCache entry = store.get("u1").orElseThrow();
+        assertThat(entry.getJobIds()).containsExactly("j3");
+        assertThat(entry.getFillOwner()).isNull();
+        assertThat(store.version("u1")).contains(2L);
+    }
+
+    @Test
+    void liveLeaseExcludesOtherOwners() {
+        assertThat(store.tryAcquireFill("u1", "node-a", Duration.ofMinutes(1))).isTrue();
+        assertThat(store.tryAcquireFill("u1", "node-b", Duration.ofMinutes(1))).isFalse();
+
+        // node-b gave up waiting and searched itself: its results must not clear node-a's lease
+        assertThat(store.put("u1", "node-b", "java", null, List.of("j1"), inAnHour)).isEqualTo(OptionalLong.empty());
+        assertThat(store.get("u1")).isEmpty();
+        assertThat(store.tryAcquireFill("u1", "node-c", Duration.ofMinutes(1))).isFalse();
+
+        assertThat(store.put("u1", "node-a", "java", null, List.of("j2"), inAnHour)).hasValue(1);
+        assertThat(store.get("u1").orElseThrow().getJobIds()).containsExactly("j2");
+    }
+
+    @Test
+    void lapsedLeaseCanBeTakenOver() throws InterruptedException {
+        assertThat(store.tryAcquireFill("u1", "node-a", Duration.ofMillis(50))).isTrue();
+        Thread.sleep(80);
+
+        assertThat(store.tryAcquireFill("u1", "node-b", Duration.ofMinutes(1))).isTrue();
+        // The crashed owner's late write is dropped now that node-b holds the lease
+        assertThat(store.put("u1", "node-a", "java", null, List.of("j1"), inAnHour)).isEqualTo(OptionalLong.empty());
+        assertThat(store.put("u1", "node-b", "java", null, List.of("j2"), inAnHour)).hasValue(1);
+    }
+
+    @Test
+    void releaseOnlyByOwner() {
+        assertThat(store.tryAcquireFill("u1", "node-a", Duration.ofMinutes(1))).isTrue();
+        store.releaseFill("u1", "node-b");
+        assertThat(store.tryAcquireFill("u1", "node-b", Duration.ofMinutes(1))).isFalse();
+
+        store.releaseFill("u1", "node-a");
+        assertThat(store.tryAcquireFill("u1", "node-b", Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    void expiredEntriesAreAbsent() {
+        store.put("u1", "node-a", "java", null, List.of("j1"), Instant.now().minusSeconds(1));
+        assertThat(store.get("u1")).isEmpty();
+        assertThat(store.version("u1")).isEmpty();
+    }
+}
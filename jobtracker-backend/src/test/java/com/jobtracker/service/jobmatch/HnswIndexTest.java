@@ -0,0 +1,129 @@
+package com.jobtracker.service.jobmatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIM = 32;
+
+    private final Random random = new Random(11);
+
+    @Test
+    void recallAgainstExactSearch() {
+        List<float[]> vectors = randomVectors(3000);
+        HnswIndex index = build(vectors);
+
+        double recall = averageRecall(index, vectors, 10, 100);
+        assertThat(recall).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void resultsAreOrderedAndSkipDeletedNodes() {
+        List<float[]> vectors = randomVectors(1000);
+        HnswIndex index = build(vectors);
+        float[] query = vectors.get(42);
+
+        List<HnswIndex.Candidate> found = index.search(query, 10, 50);
+        assertThat(found.get(0).node()).isEqualTo(42);
+        for (int i = 1; i < found.size(); i++) {
+            assertThat(found.get(i).similarity()).isLessThanOrEqualTo(found.get(i - 1).similarity());
+        }
+
+        index.markDeleted(42);
+        List<HnswIndex.Candidate> after = index.search(query, 10, 50);
+        assertThat(after).hasSize(10).noneMatch(c -> c.node() == 42);
+    }
+
+    @Test
+    void snapshotRoundTripServesTheSameResults(@TempDir Path dir) throws Exception {
+        List<float[]> vectors = randomVectors(500);
+        HnswIndex index = build(vectors);
+        index.markDeleted(7);
+        Path file = dir.resolve("listings.hnsw");
+        index.save(file);
+
+        HnswIndex loaded = HnswIndex.load(file, 100);
+
+        assertThat(loaded.size()).isEqualTo(index.size());
+        assertThat(loaded.isDeleted(7)).isTrue();
+        assertThat(loaded.vector(3)).containsExactly(index.vector(3));
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomVector();
+            assertThat(loaded.search(query, 5, 50)).isEqualTo(index.search(query, 5, 50));
+        }
+    }
+
+    @Test
+    void concurrentInsertsKeepTheGraphSearchable() {
+        List<float[]> vectors = randomVectors(2000);
+        HnswIndex index = new HnswIndex(DIM, 16, 100, 64);
+        IntStream.range(0, vectors.size()).parallel().forEach(i -> index.add(vectors.get(i)));
+
+        assertThat(index.size()).isEqualTo(vectors.size());
+        List<float[]> byNode = new ArrayList<>();
+        for (int n = 0; n < index.size(); n++) byNode.add(index.vector(n));
+        assertThat(averageRecall(index, byNode, 10, 100)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    private double averageRecall(HnswIndex index, List<float[]> vectors, int k, int ef) {
+        double total = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            Set<Integer> exact = exactTopK(vectors, query, k);
+            Set<Integer> found = new HashSet<>();
+            index.search(query, k, ef).forEach(c -> found.add(c.node()));
+            found.retainAll(exact);
+            total += (double) found.size() / k;
+        }
+        return total / queries;
+    }
+
+    private static Set<Integer> exactTopK(List<float[]> vectors, float[] query, int k) {
+        List<Integer> nodes = new ArrayList<>(IntStream.range(0, vectors.size()).boxed().toList());
+        nodes.sort(Comparator.comparingDouble((Integer n) -> dot(vectors.get(n), query)).reversed());
+        return new HashSet<>(nodes.subList(0, k));
+    }
+
+    private HnswIndex build(List<float[]> vectors) {
+        HnswIndex index = new HnswIndex(DIM, 16, 100, vectors.size());
+        for (float[] v : vectors) index.add(v);
+        return index;
+    }
+
+    private List<float[]> randomVectors(int n) {
+        List<float[]> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(randomVector());
+        return out;
+    }
+
+    private float[] randomVector() {
+        float[] v = new float[DIM];
+        double norm = 0;
+        for (int i = 0; i < DIM; i++) {
+            v[i] = (float) random.nextGaussian();
+            norm += v[i] * v[i];
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < DIM; i++) v[i] *= inv;
+        return v;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s;
+    }
+}
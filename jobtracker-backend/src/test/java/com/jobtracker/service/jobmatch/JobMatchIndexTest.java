@@ -0,0 +1,295 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.JobListing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The MaxScore traversal must return exactly what scoring every served listing would
+ */
+class JobMatchIndexTest {
+
+    private static final int VOCABULARY = 300;
+
+    private final Random random = new Random(7);
+    private MongoTemplate mongoTemplate;
+    private JobMatchIndex index;
+    private final Map<String, JobListing> served = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        index = new JobMatchIndex(mongoTemplate, new SimpleMeterRegistry());
+        for (int i = 0; i < 600; i++) {
+            add(listing("job-" + i, i));
+        }
+    }
+
+    @Test
+    void prunedTopKEqualsBruteForceForF1() {
+        for (int q = 0; q < 40; q++) {
+            Set<String> candidate = candidate();
+            for (int k : new int[]{1, 5, 20, 100}) {
+                assertThat(ids(index.topK(candidate, k, MatchScorer.F1).hits()))
+                        .as("F1 top-%d for %s", k, candidate)
+                        .isEqualTo(bruteForce(candidate, k, MatchScorer.F1));
+            }
+        }
+    }
+
+    @Test
+    void prunedTopKEqualsBruteForceForBm25() {
+        for (int q = 0; q < 40; q++) {
+            Set<String> candidate = candidate();
+            for (int k : new int[]{1, 5, 20, 100}) {
+                assertThat(ids(index.topK(candidate, k, MatchScorer.BM25).hits()))
+                        .as("BM25 top-%d for %s", k, candidate)
+                        .isEqualTo(bruteForce(candidate, k, MatchScorer.BM25));
+            }
+        }
+    }
+
+    @Test
+    void padsWithNewestListingsWhenFewMatch() {
+        Set<String> candidate = Set.of("nothing-shares-this");
+        List<JobMatchIndex.Hit> hits = index.topK(candidate, 3, MatchScorer.F1).hits();
+
+        assertThat(ids(hits)).containsExactly("job-599", "job-598", "job-597");
+        assertThat(hits).allSatisfy(h -> assertThat(h.score()).isZero());
+    }
+
+    @Test
+    void removedAndSupersededListingsAreNotServed() {
+        Set<String> candidate = candidate();
+        String best = index.topK(candidate, 1, MatchScorer.F1).hits().get(0).listingId();
+
+        index.remove(best);
+        served.remove(best);
+        assertThat(ids(index.topK(candidate, 50, MatchScorer.F1).hits())).doesNotContain(best)
+                .isEqualTo(bruteForce(candidate, 50, MatchScorer.F1));
+
+        // A newer posting of the same job (same externalId) replaces the older one
+        JobListing older = served.values().iterator().next();
+        JobListing repost = listing("repost", 10_000);
+        repost.setExternalId(older.getExternalId());
+        index.upsert(repost);
+        served.remove(older.getId());
+        served.put(repost.getId(), repost);
+        assertThat(ids(index.topK(candidate, 700, MatchScorer.F1).hits()))
+                .contains("repost").doesNotContain(older.getId());
+    }
+
+    @Test
+    void changeLogReplaysEveryServedSetChange() {
+        Set<String> candidate = candidate();
+        long before = index.generation();
+
+        JobListing added = listing("job-new", 5_000);
+        add(added);
+        index.remove("job-3");
+        served.remove("job-3");
+        index.upsert(inactive("job-4"));
+        served.remove("job-4");
+
+        JobMatchIndex.Delta delta = index.changesSince(before, candidate);
+
+        assertThat(delta).isNotNull();
+        assertThat(delta.generation()).isEqualTo(index.generation());
+        assertThat(delta.touched()).containsExactlyInAnyOrder("job-new", "job-3", "job-4");
+        assertThat(delta.added()).extracting(JobMatchIndex.Hit::listingId).containsExactly("job-new");
+        assertThat(delta.added().get(0).score())
+                .isEqualTo(MatchScores.score(candidate.size(), TermSets.lookup(candidate, index.dictionary()), encoded(added)));
+
+        assertThat(index.changesSince(index.generation(), candidate).touched()).isEmpty();
+    }
+
+    @Test
+    void changeLogReportsWhenItNoLongerReachesBack() {
+        long before = index.generation();
+        JobListing flapping = listing("flapping", 1);
+        for (int i = 0; i < 5_000; i++) {
+            index.upsert(flapping);
+            index.remove("flapping");
+        }
+        assertThat(index.changesSince(before, candidate())).isNull();
+    }
+
+    @Test
+    void cachedRankingsMergeToTheFreshRanking() {
+        MatchResultCache cache = new MatchResultCache(index, 20, new SimpleMeterRegistry());
+        Instant profileVersion = Instant.now();
+        List<Set<String>> candidates = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            candidates.add(candidate());
+            cache.topK("profile-" + p, profileVersion, candidates.get(p), 10, MatchScorer.F1);
+        }
+
+        for (int round = 0; round < 20; round++) {
+            // Churn: new listings (some strong), removals, and re-posts
+            for (int i = 0; i < 5; i++) add(listing("churn-" + round + "-" + i, 20_000 + round * 10 + i));
+            List<String> ids = new ArrayList<>(served.keySet());
+            for (int i = 0; i < 3; i++) {
+                String victim = ids.get(random.nextInt(ids.size()));
+                index.remove(victim);
+                served.remove(victim);
+            }
+
+            for (int p = 0; p < candidates.size(); p++) {
+                List<JobMatchIndex.Hit> cached = cache.topK("profile-" + p, profileVersion, candidates.get(p), 10, MatchScorer.F1);
+                assertThat(ids(cached))
+                        .as("profile %d after round %d", p, round)
+                        .isEqualTo(ids(index.topK(candidates.get(p), 10, MatchScorer.F1).hits()));
+            }
+        }
+    }
+
+    @Test
+    void topKKeepsTheBestWithNewerPostingsWinningTies() {
+        TopK top = new TopK(3);
+        top.offer(1, 0.5, 10);
+        top.offer(2, 0.9, 10);
+        top.offer(3, 0.5, 30);
+        top.offer(4, 0.1, 99);
+        top.offer(5, 0.5, 20);
+        top.sort();
+
+        assertThat(top.size()).isEqualTo(3);
+        assertThat(new int[]{top.id(0), top.id(1), top.id(2)}).containsExactly(2, 3, 5);
+
+        TopK merged = new TopK(2);
+        TopK other = new TopK(2);
+        other.offer(7, 0.95, 0);
+        merged.offer(8, 0.2, 0);
+        merged.offerAll(other);
+        merged.offer(9, 0.3, 0);
+        merged.sort();
+        assertThat(new int[]{merged.id(0), merged.id(1)}).containsExactly(7, 9);
+    }
+
+    @Test
+    void rebuildDropsTheTermsOfListingsNoLongerServed() {
+        TermDictionary before = index.dictionary();
+        List<JobListing> kept = new ArrayList<>(served.values()).subList(0, 20);
+        when(mongoTemplate.find(any(Query.class), eq(JobListing.class))).thenReturn(kept);
+        served.keySet().retainAll(kept.stream().map(JobListing::getId).toList());
+
+        index.rebuild();
+
+        TermDictionary after = index.dictionary();
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.size()).isLessThan(before.size());
+        // IDs from the old dictionary are refused rather than scored against the new statistics
+        assertThat(index.bm25(before, new int[0])).isNull();
+        Set<String> candidate = candidate();
+        assertThat(ids(index.topK(candidate, 10, MatchScorer.BM25).hits()))
+                .isEqualTo(bruteForce(candidate, 10, MatchScorer.BM25));
+    }
+
+    @Test
+    void listingsWithoutCurrentTermsAreLeftOut() {
+        JobListing stale = listing("job-7", 7);
+        stale.setTermsVersion(JobTermExtractor.TERMS_VERSION - 1);
+        stale.setDescription(null);
+        stale.setSnippet("a snippet that must not be scored");
+        int before = index.liveCount();
+
+        index.upsert(stale);
+        served.remove("job-7");
+
+        assertThat(index.liveCount()).isEqualTo(before - 1);
+        assertThat(stale.getDescription()).isNull();
+        Set<String> candidate = candidate();
+        assertThat(ids(index.topK(candidate, 700, MatchScorer.F1).hits())).doesNotContain("job-7")
+                .isEqualTo(bruteForce(candidate, 700, MatchScorer.F1));
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private List<String> bruteForce(Set<String> candidate, int k, MatchScorer scorer) {
+        TermDictionary dictionary = index.dictionary();
+        int[] ids = TermSets.lookup(candidate, dictionary);
+        Bm25 bm25 = scorer == MatchScorer.BM25 ? index.bm25(dictionary, ids) : null;
+        record Scored(String id, double score, long posted) {}
+        List<Scored> all = new ArrayList<>();
+        for (JobListing j : served.values()) {
+            EncodedTerms t = encoded(j);
+            double score = bm25 != null ? bm25.score(t) : MatchScores.score(candidate.size(), ids, t);
+            all.add(new Scored(j.getId(), score, j.getPostedDate().toEpochMilli()));
+        }
+        all.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(Comparator.comparingLong(Scored::posted).reversed()));
+        return all.stream().limit(k).map(Scored::id).toList();
+    }
+
+    private void add(JobListing j) {
+        index.upsert(j);
+        served.put(j.getId(), j);
+    }
+
+    private EncodedTerms encoded(JobListing j) {
+        return EncodedTerms.of(j, index.dictionary());
+    }
+
+    private JobListing listing(String id, int minute) {
+        JobListing j = new JobListing();
+        j.setId(id);
+        j.setExternalId("ext-" + id);
+        j.setTitle(words(1 + random.nextInt(3)));
+        j.setCompany(words(1));
+        j.setDescription(words(5 + random.nextInt(40)));
+        j.setSkills(List.of(words(1), words(1)));
+        j.setPostedDate(Instant.ofEpochSecond(1_700_000_000L + minute * 60L));
+        JobTermExtractor.apply(j);
+        return j;
+    }
+
+    private JobListing inactive(String id) {
+        JobListing j = listing(id, 0);
+        j.setActive(false);
+        return j;
+    }
+
+    private Set<String> candidate() {
+        Set<String> terms = new HashSet<>();
+        int n = 2 + random.nextInt(14);
+        while (terms.size() < n) terms.add(word());
+        terms.add("never-indexed-" + random.nextInt(1000));
+        return terms;
+    }
+
+    private String words(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) sb.append(i == 0 ? "" : " ").append(word());
+        return sb.toString();
+    }
+
+    // Skewed towards the low end, so common and rare terms both occur
+    private String word() {
+        double r = random.nextDouble();
+        int w = (int) (VOCABULARY * r * r);
+        return "w" + (char) ('a' + w / 26 % 26) + (char) ('a' + w % 26);
+    }
+
+    private static List<String> ids(List<JobMatchIndex.Hit> hits) {
+        return hits.stream().map(JobMatchIndex.Hit::listingId).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.jobtracker.service.jobmatch;
+
+import com.jobtracker.model.CandidateProfile;
+import com.jobtracker.model.JobListing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfilePercolatorTest {
+
+    private MongoTemplate mongoTemplate;
+    private ProfilePercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        percolator = new ProfilePercolator(mongoTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void scoresMatchTheForwardMatcher() {
+        CandidateProfile p = profile("u1", "p1", "java", "spring");
+        percolator.upsert(p);
+        JobListing j = listing("j1", "Java Developer", "java", "kafka");
+
+        List<ProfilePercolator.Match> matches = percolator.percolate(List.of(j), 0.0);
+
+        assertThat(matches).hasSize(1);
+        var candidate = JobTermExtractor.candidateTerms(p);
+        TermDictionary dictionary = percolator.dictionary();
+        assertThat(matches.get(0).score()).isEqualTo(MatchScores.score(candidate.size(),
+                TermSets.lookup(candidate, dictionary), EncodedTerms.of(j, dictionary)));
+    }
+
+    @Test
+    void profileTermsNeverGrowTheDictionary() {
+        percolator.upsert(profile("u1", "p1", "java", "my-side-project"));
+        TermDictionary dictionary = percolator.dictionary();
+        assertThat(dictionary.size()).isZero();
+
+        // A listing that brings "java" into the dictionary resolves the waiting profile term
+        assertThat(percolator.percolate(List.of(listing("j1", "Java Developer", "java")), 0.0))
+                .extracting(ProfilePercolator.Match::profileId).containsExactly("p1");
+        assertThat(dictionary.idOf("my-side-project")).isEqualTo(-1);
+    }
+
+    @Test
+    void upsertReplacesTheUsersPreviousProfile() {
+        percolator.upsert(profile("u1", "p1", "java"));
+        percolator.upsert(profile("u1", "p2", "python"));
+
+        assertThat(percolator.percolate(List.of(listing("j1", "Java Developer", "java")), 0.0)).isEmpty();
+        assertThat(percolator.percolate(List.of(listing("j2", "Python Developer", "python")), 0.0))
+                .extracting(ProfilePercolator.Match::profileId).containsExactly("p2");
+        assertThat(percolator.profileCount()).isEqualTo(1);
+    }
+
+    @Test
+    void upsertsDuringARebuildSurviveTheSwap() {
+        CandidateProfile stored = profile("u1", "p1", "java");
+        CandidateProfile built = profile("u2", "p2", "golang");
+        CandidateProfile rebuiltU1 = profile("u1", "p3", "rust");
+        // The upserts land while the aggregate is still streaming
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("candidate_profiles"), eq(CandidateProfile.class)))
+                .thenAnswer(inv -> Stream.of(stored).peek(p -> {
+                    percolator.upsert(built);
+                    percolator.upsert(rebuiltU1);
+                }));
+
+        TermDictionary dictionary = new TermDictionary();
+        percolator.rebuild(dictionary);
+
+        assertThat(percolator.isReady()).isTrue();
+        assertThat(percolator.dictionary()).isSameAs(dictionary);
+        assertThat(percolator.profileCount()).isEqualTo(2);
+        assertThat(percolator.percolate(List.of(listing("j1", "Go Engineer", "golang")), 0.0))
+                .extracting(ProfilePercolator.Match::profileId).containsExactly("p2");
+        // The newer upsert beats the older profile the scan returned
+        assertThat(percolator.percolate(List.of(listing("j2", "Rust Engineer", "rust")), 0.0))
+                .extracting(ProfilePercolator.Match::profileId).containsExactly("p3");
+        assertThat(percolator.percolate(List.of(listing("j3", "Java Developer", "java")), 0.0)).isEmpty();
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentState() {
+        percolator.upsert(profile("u1", "p1", "java"));
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("candidate_profiles"), eq(CandidateProfile.class)))
+                .thenThrow(new IllegalStateException("mongo down"));
+
+        assertThatThrownBy(() -> percolator.rebuild(new TermDictionary())).isInstanceOf(IllegalStateException.class);
+
+        percolator.upsert(profile("u2", "p2", "python"));
+        assertThat(percolator.profileCount()).isEqualTo(2);
+    }
+
+    private static CandidateProfile profile(String userId, String id, String... skills) {
+        CandidateProfile p = new CandidateProfile();
+        p.setId(id);
+        p.setUserId(userId);
+        p.setGeneratedAt(Instant.now());
+        p.setSkills(List.of(skills));
+        return p;
+    }
+
+    private static JobListing listing(String id, String title, String... skills) {
+        JobListing j = new JobListing();
+        j.setId(id);
+        j.setTitle(title);
+        j.setSkills(List.of(skills));
+        JobTermExtractor.apply(j);
+        return j;
+    }
+}
@@ -0,0 +1,85 @@
+package com.jobtracker.service.jobmatch;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkillAutomatonTest {
+
+    private static SkillAutomaton automaton;
+
+    @BeforeAll
+    static void build() {
+        SkillAutomaton.Builder b = new SkillAutomaton.Builder();
+        b.add("java", "Java");
+        b.add("javascript", "JavaScript");
+        b.add("js", "JavaScript");
+        b.add("node.js", "Node.js");
+        b.add("nodejs", "Node.js");
+        b.add(".net", ".NET");
+        b.add("asp.net", "ASP.NET");
+        b.add("c++", "C++");
+        b.add("c#", "C#");
+        b.add("go", "Go");
+        b.add("machine learning", "Machine Learning");
+        b.add("software engineer", "Software Engineer", SkillAutomaton.Kind.TITLE);
+        automaton = b.build();
+    }
+
+    @Test
+    void wordPhrasesDoNotMatchInsideLongerWords() {
+        assertThat(automaton.extract("Senior JavaScript developer")).containsExactly("JavaScript");
+        assertThat(automaton.extract("Java, JavaScript")).containsExactly("Java", "JavaScript");
+        assertThat(automaton.extract("javas xjava java2")).isEmpty();
+        assertThat(automaton.extract("Google, MongoDB, ago")).isEmpty();
+        assertThat(automaton.extract("Go and JAVA.")).containsExactly("Go", "Java");
+    }
+
+    @Test
+    void dotJoinedSuffixIsPartOfTheWord() {
+        assertThat(automaton.extract("APIs in Node.js")).containsExactly("Node.js");
+        assertThat(automaton.extract("vue.js, react.js")).isEmpty();
+        // A sentence-ending dot is not a join
+        assertThat(automaton.extract("We use JS. Also Java.")).containsExactly("JavaScript", "Java");
+    }
+
+    @Test
+    void symbolLedPhrasesMatchAfterAWord() {
+        assertThat(automaton.extract("Worked on ASP.NET MVC")).containsExactlyInAnyOrder("ASP.NET", ".NET");
+        assertThat(automaton.extract(".NET Core services")).containsExactly(".NET");
+        assertThat(automaton.extract(".network")).isEmpty();
+    }
+
+    @Test
+    void symbolEndedPhrasesNeedNoTrailingBoundary() {
+        assertThat(automaton.extract("C++/C# engineer")).containsExactly("C++", "C#");
+        assertThat(automaton.extract("c++17")).containsExactly("C++");
+        assertThat(automaton.extract("abc++")).isEmpty();
+    }
+
+    @Test
+    void separatorRunsAndCaseAreFolded() {
+        assertThat(automaton.extract("MACHINE \n\t learning")).containsExactly("Machine Learning");
+        assertThat(automaton.extract("machine-learning")).isEmpty();
+    }
+
+    @Test
+    void nonAsciiLettersAreWordCharacters() {
+        assertThat(automaton.extract("javaé")).isEmpty();
+        assertThat(automaton.extract("café java")).containsExactly("Java");
+    }
+
+    @Test
+    void phrasesAtTheEdgesOfTheTextAndAcrossTexts() {
+        assertThat(automaton.extract("java")).containsExactly("Java");
+        assertThat(automaton.extract("java", "JAVA", null, "js")).containsExactly("Java", "JavaScript");
+    }
+
+    @Test
+    void titlesAreReportedSeparately() {
+        SkillAutomaton.Extraction found = automaton.extractAll("Software Engineer (Java, NodeJS)");
+        assertThat(found.titles()).containsExactly("Software Engineer");
+        assertThat(found.skills()).containsExactly("Java", "Node.js");
+    }
+}
@@ -0,0 +1,45 @@
+package com.jobtracker.service.jobmatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TermSetsTest {
+
+    @Test
+    void lookupNeverGrowsTheDictionary() {
+        TermDictionary dict = new TermDictionary();
+        int[] listing = TermSets.encode(List.of("java", "spring", "java"), dict);
+        assertThat(listing).hasSize(2);
+        assertThat(dict.size()).isEqualTo(2);
+
+        int[] query = TermSets.lookup(List.of("spring", "kubernetes", "my-side-project"), dict);
+
+        assertThat(query).containsExactly(dict.idOf("spring"));
+        assertThat(dict.size()).isEqualTo(2);
+        assertThat(dict.idOf("kubernetes")).isEqualTo(-1);
+    }
+
+    @Test
+    void intersectionMatchesNaiveCountForMergeAndGallop() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            // Lopsided sizes exercise the galloping path, similar sizes the linear merge
+            int[] a = randomSet(random, 1 + random.nextInt(round % 2 == 0 ? 5 : 300));
+            int[] b = randomSet(random, 1 + random.nextInt(300));
+            long naive = IntStream.of(a).filter(x -> TermSets.contains(b, x)).count();
+
+            assertThat(TermSets.intersectionSize(a, b)).isEqualTo((int) naive);
+            assertThat(TermSets.intersectionSize(b, a)).isEqualTo((int) naive);
+        }
+        assertThat(TermSets.intersectionSize(TermSets.EMPTY, new int[]{1, 2})).isZero();
+    }
+
+    private static int[] randomSet(Random random, int n) {
+        return random.ints(n, 0, 1000).sorted().distinct().toArray();
+    }
+}
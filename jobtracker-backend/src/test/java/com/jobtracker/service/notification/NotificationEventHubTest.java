@@ -0,0 +1,73 @@
+package com.jobtracker.service.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NotificationEventHubTest {
+
+    private final NotificationEventHub hub =
+            new NotificationEventHub(mock(MongoTemplate.class), "local", 16, 5, new SimpleMeterRegistry());
+
+    @Test
+    void resumeReplaysMissedDeltasBeforeLiveOnes() {
+        List<NotificationEventHub.Delta> first = new CopyOnWriteArrayList<>();
+        NotificationEventHub.Feed a = hub.subscribe("u", null);
+        a.deltas().subscribe(first::add);
+        hub.publishLocal(NotificationEvent.deleted("u", "n1"));
+        hub.publishLocal(NotificationEvent.deleted("u", "n2"));
+        a.close().run();
+
+        List<String> resumed = new CopyOnWriteArrayList<>();
+        NotificationEventHub.Feed b = hub.subscribe("u", first.get(0).id());
+        b.deltas().subscribe(d -> resumed.add(d.event().notificationId()));
+        hub.publishLocal(NotificationEvent.deleted("u", "n3"));
+
+        assertThat(b.resync()).isFalse();
+        assertThat(resumed).containsExactly("n2", "n3");
+    }
+
+    @Test
+    void aSlowSubscriberDoesNotBlockTheChannel() throws Exception {
+        CountDownLatch inOnNext = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> slowSeen = new CopyOnWriteArrayList<>();
+        hub.subscribe("u", null).deltas().subscribe(d -> {
+            slowSeen.add(d.event().notificationId());
+            inOnNext.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // This publisher ends up stuck delivering to the slow subscriber...
+        CompletableFuture<Void> stuck = CompletableFuture.runAsync(
+                () -> hub.publishLocal(NotificationEvent.deleted("u", "n1")));
+        assertThat(inOnNext.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // ...but subscribing and publishing on the same channel still return straight away
+        List<String> otherSeen = new CopyOnWriteArrayList<>();
+        NotificationEventHub.Feed other = CompletableFuture.supplyAsync(() -> hub.subscribe("u", null))
+                .get(5, TimeUnit.SECONDS);
+        other.deltas().subscribe(d -> otherSeen.add(d.event().notificationId()));
+        CompletableFuture.runAsync(() -> hub.publishLocal(NotificationEvent.deleted("u", "n2")))
+                .get(5, TimeUnit.SECONDS);
+
+        // Queued deltas go out in order once the slow subscriber catches up
+        release.countDown();
+        stuck.get(5, TimeUnit.SECONDS);
+        assertThat(slowSeen).containsExactly("n1", "n2");
+        assertThat(otherSeen).containsExactly("n2");
+    }
+}
@@ -0,0 +1,89 @@
+package com.jobtracker.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int LEVELS = 3;
+    private static final long SPAN = 1L << 18;   // ticks covered by three 64-slot levels
+
+    @Test
+    void firesAcrossTheTopLevelBoundary() {
+        long start = SPAN - 10;
+        TimingWheel wheel = new TimingWheel(TICK, LEVELS, start * TICK);
+        wheel.schedule("a", (SPAN + 20) * TICK);
+        wheel.schedule("b", (SPAN - 3) * TICK);
+
+        assertThat(firingTicks(wheel, start, SPAN + 100))
+                .containsEntry("a", SPAN + 20)
+                .containsEntry("b", SPAN - 3)
+                .hasSize(2);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesBeyondTheSpanWaitInOverflow() {
+        long start = 12_345;
+        TimingWheel wheel = new TimingWheel(TICK, LEVELS, start * TICK);
+        long due = start + SPAN + 5_000;
+        wheel.schedule("far", due * TICK);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(firingTicks(wheel, start, due + 10)).containsExactlyEntriesOf(Map.of("far", due));
+    }
+
+    @Test
+    void everyEntryFiresOnItsDeadlineTick() {
+        Random random = new Random(7);
+        long start = SPAN * 3 - 40_000;   // crosses a top-level boundary part way through
+        TimingWheel wheel = new TimingWheel(TICK, LEVELS, start * TICK);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Sub-tick deadlines round up: never early
+            long dueMs = start * TICK + 1 + (long) (random.nextDouble() * 300_000 * TICK);
+            wheel.schedule("n" + i, dueMs);
+            expected.put("n" + i, Math.ceilDiv(dueMs, TICK));
+        }
+
+        assertThat(firingTicks(wheel, start, start + 300_001)).isEqualTo(expected);
+    }
+
+    @Test
+    void rescheduledAndCancelledEntriesFireOnceOrNever() {
+        TimingWheel wheel = new TimingWheel(TICK, LEVELS, 0);
+        wheel.schedule("moved", 5_000 * TICK);
+        wheel.schedule("moved", 70 * TICK);
+        wheel.schedule("cancelled", 40 * TICK);
+        wheel.cancel("cancelled");
+
+        assertThat(firingTicks(wheel, 0, 6_000)).containsExactlyEntriesOf(Map.of("moved", 70L));
+    }
+
+    @Test
+    void overdueEntriesFireOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(TICK, LEVELS, 100 * TICK);
+        wheel.schedule("late", 50 * TICK);
+
+        List<TimingWheel.Fired> fired = wheel.advance(100 * TICK);
+        assertThat(fired).extracting(TimingWheel.Fired::key).containsExactly("late");
+    }
+
+    // Advance one tick at a time and record the tick each key fired on
+    private static Map<String, Long> firingTicks(TimingWheel wheel, long fromTick, long toTick) {
+        Map<String, Long> fired = new HashMap<>();
+        for (long t = fromTick + 1; t <= toTick; t++) {
+            for (TimingWheel.Fired f : wheel.advance(t * TICK)) {
+                assertThat(fired.put(f.key(), t)).as("%s fired twice", f.key()).isNull();
+            }
+        }
+        return fired;
+    }
+}
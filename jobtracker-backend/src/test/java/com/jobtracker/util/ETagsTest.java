@@ -0,0 +1,103 @@
+package com.jobtracker.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.jobtracker.dto.JobListingCard;
+import com.jobtracker.model.JobListing;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * The content hashes must cover every property the body serializes; otherwise a change to an
+ * unhashed property keeps answering 304 for a body that is no longer the same.
+ */
+class ETagsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void listingHashCoversEverySerializedProperty() throws Exception {
+        assertCoversSerializedProperties(JobListing.class, JobListing::new, ETags::listingHash);
+    }
+
+    @Test
+    void cardHashCoversEverySerializedProperty() throws Exception {
+        assertCoversSerializedProperties(JobListingCard.class, JobListingCard::new, ETags::cardHash);
+    }
+
+    @Test
+    void matchTermsAreNotSerialized() throws Exception {
+        JobListing j = new JobListing();
+        j.setAllTerms(List.of("java", "spring"));
+        j.setPrimaryTerms(List.of("java"));
+        j.setSkillTerms(List.of("java"));
+        j.setTermsVersion(3);
+
+        String json = objectMapper.writeValueAsString(j);
+        assertThat(json).doesNotContain("Terms", "termsVersion");
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String tag = ETags.strong("j-1f");
+        assertThat(ETags.matches("\"j-1f\"", tag)).isTrue();
+        assertThat(ETags.matches("W/\"j-1f\"", tag)).isTrue();
+        assertThat(ETags.matches("\"x\", \"j-1f\"", tag)).isTrue();
+        assertThat(ETags.matches("*", tag)).isTrue();
+        assertThat(ETags.matches("\"j-20\"", tag)).isFalse();
+        assertThat(ETags.matches(null, tag)).isFalse();
+    }
+
+    private <T> void assertCoversSerializedProperties(Class<T> type, Supplier<T> factory,
+                                                      ToLongFunction<T> hash) throws Exception {
+        List<BeanPropertyDefinition> properties = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type))
+                .findProperties();
+        assertThat(properties).isNotEmpty();
+
+        for (BeanPropertyDefinition property : properties) {
+            if (!property.couldSerialize()) continue;
+            if (property.getSetter() == null) fail("No setter for serialized property " + property.getName());
+        }
+
+        // Every property pinned (no defaults like fetchedAt = now()), then one changed at a time
+        T base = factory.get();
+        for (BeanPropertyDefinition property : properties) {
+            if (property.couldSerialize()) set(base, property, 0);
+        }
+        long baseHash = hash.applyAsLong(base);
+
+        for (BeanPropertyDefinition property : properties) {
+            if (!property.couldSerialize()) continue;
+            set(base, property, 1);
+            assertThat(hash.applyAsLong(base))
+                    .as("hash covers serialized property '%s' of %s", property.getName(), type.getSimpleName())
+                    .isNotEqualTo(baseHash);
+            set(base, property, 0);
+        }
+    }
+
+    private static void set(Object target, BeanPropertyDefinition property, int variant) throws Exception {
+        Method setter = property.getSetter().getAnnotated();
+        setter.invoke(target, valueOf(setter.getParameterTypes()[0], variant));
+    }
+
+    private static Object valueOf(Class<?> type, int variant) {
+        if (type == String.class) return "value-" + variant;
+        if (type == double.class || type == Double.class) return 1.5 + variant;
+        if (type == int.class || type == Integer.class) return 7 + variant;
+        if (type == long.class || type == Long.class) return 7L + variant;
+        if (type == boolean.class || type == Boolean.class) return variant == 1;
+        if (type == Instant.class) return Instant.ofEpochSecond(1_700_000_000L + variant);
+        if (type == List.class) return variant == 0 ? List.of("a") : List.of("a", "b");
+        throw new IllegalArgumentException("No test value for " + type);
+    }
+}
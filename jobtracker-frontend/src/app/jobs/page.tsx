@@ -212,12 +212,13 @@ export default function JobSearchPage() {
   });
 
   const markAsAppliedMutation = useMutation({
-    mutationFn: (job: JobListing) =>
+    mutationFn: async (job: JobListing) =>
       apiClient.createApplication({
         companyName: job.company,
         jobTitle: job.title,
         jobLocation: job.location,
-        jobDescription: job.description,
+        // List results only carry a snippet; load the full description on demand
+        jobDescription: job.description ?? (await apiClient.getJob(job.id)).description,
         jobLink: job.applyUrl,
         status: 'APPLIED' as any,
         salary: (() => {
@@ -686,7 +687,7 @@ export default function JobSearchPage() {
                           )}
 
                           <p className="text-sm text-gray-700 mb-4 line-clamp-3">
-                            {job.description}
+                            {job.snippet ?? job.description}
                           </p>
 
                           <div className="space-y-2 mb-4">
@@ -92,7 +92,7 @@ export const JobCard = ({
         )}
 
         <p className="text-sm text-gray-700 mb-4 line-clamp-3">
-          {job.description}
+          {job.snippet ?? job.description}
         </p>
 
         <div className="space-y-2 mb-4">
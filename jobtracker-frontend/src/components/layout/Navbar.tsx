@@ -35,23 +35,12 @@ export const Navbar = () => {
   const [isProfileOpen, setIsProfileOpen] = useState(false);
   const dropdownRef = useRef<HTMLDivElement>(null);
 
-  // Get unread notifications count
-  const { data: unreadNotifications = [] } = useQuery({
-    queryKey: ['unread-notifications'],
-    queryFn: () => apiClient.getUnreadNotifications(),
+  // Get unread notifications count (server-maintained; 304 while it hasn't changed)
+  const { data: unreadTotal = 0 } = useQuery({
+    queryKey: ['unread-notifications', 'count'],
+    queryFn: () => apiClient.getUnreadNotificationCount(),
     enabled: isAuthenticated,
     refetchInterval: 30000,
-    select: (data) => {
-  const now = new Date();
-    return data.filter(notification => {
-      try {
-        const notifAt = new Date(notification.notifyAt);
-        return !isNaN(notifAt.getTime()) && notifAt <= now;
-      } catch {
-        return false;
-      }
-      });
-    },
   });
 
   // FIXED: Close dropdown when clicking outside
@@ -92,7 +81,7 @@ export const Navbar = () => {
             <div className="hidden sm:ml-6 sm:flex sm:space-x-8">
               {navigation.map((item) => {
                 const isActive = pathname === item.href;
-                const unreadCount = item.name === 'Notifications' ? unreadNotifications.length : 0;
+                const unreadCount = item.name === 'Notifications' ? unreadTotal : 0;
                 
                 return (
                   <Link
@@ -180,7 +169,7 @@ export const Navbar = () => {
           <div className="pt-2 pb-3 space-y-1">
             {navigation.map((item) => {
               const isActive = pathname === item.href;
-              const unreadCount = item.name === 'Notifications' ? unreadNotifications.length : 0;
+              const unreadCount = item.name === 'Notifications' ? unreadTotal : 0;
               
               return (
                 <Link
@@ -241,6 +241,11 @@ class ApiClient {
     return response.data;
   }
 
+  async getUnreadNotificationCount(): Promise<number> {
+    const response = await this.client.get('/notifications/unread/count');
+    return response.data.count;
+  }
+
   async markNotificationAsRead(id: string): Promise<Notification> {
     const response = await this.client.patch(`/notifications/${id}/read`);
     return response.data;
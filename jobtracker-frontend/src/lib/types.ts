@@ -53,7 +53,9 @@ export interface JobListing {
     title: string;
     company: string;
     location: string;
-    description: string;
+    description: string;    // full text only on /jobs/{id}; list endpoints send snippet
+    snippet?: string;
+    remote?: boolean;
     jobType?: string;
     experienceLevel?: string;
     salary?: number;
@@ -81,6 +83,7 @@ export interface Notification {
     id: string;
     userId: string;
     applicationId?: string;
+    jobListingId?: string;
     message: string;
     eventDate: string;
     notifyAt: string;
@@ -97,7 +100,8 @@ export enum NotificationType {
     INTERVIEW = 'INTERVIEW',
     DEADLINE = 'DEADLINE',
     CUSTOM = 'CUSTOM',              // ADDED
-    STATUS_CHANGE = 'STATUS_CHANGE' // ADDED
+    STATUS_CHANGE = 'STATUS_CHANGE', // ADDED
+    JOB_MATCH = 'JOB_MATCH'
 }
 
 export enum NotificationChannel {